@@ -0,0 +1,136 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.client.RestTestClient;
+
+import com.jimisola.demo.arconia.api.admission.AdmissionControl;
+import com.jimisola.demo.arconia.api.admission.ConcurrencyLimiter;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "demo.redis.admission.enabled=true",
+    "demo.redis.admission.retry-after=2s",
+    "demo.redis.admission.expensive.initial=1",
+    "demo.redis.admission.expensive.min=1",
+    "demo.redis.admission.expensive.max=1",
+    "demo.redis.admission.standard.initial=1",
+    "demo.redis.admission.standard.min=1",
+    "demo.redis.admission.standard.max=1"
+})
+@AutoConfigureRestTestClient
+class AdmissionControlIT {
+
+    @Autowired
+    private RestTestClient client;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private AdmissionControl admissionControl;
+
+    private ConcurrencyLimiter expensive;
+    private ConcurrencyLimiter standard;
+    private boolean holdingPermit;
+    private boolean holdingStandardPermit;
+
+    @BeforeEach
+    void setUp() {
+        // Clean up Redis before each test
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+        expensive = admissionControl.limiter(AdmissionControl.Group.EXPENSIVE);
+        standard = admissionControl.limiter(AdmissionControl.Group.STANDARD);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (holdingPermit) {
+            expensive.release(0, false);
+        }
+        if (holdingStandardPermit) {
+            standard.release(0, false);
+        }
+    }
+
+    @Test
+    void shouldRejectExpensiveRequestsBeyondTheirLimit() {
+        // Take the only expensive permit, as a slow listing in flight would
+        holdingPermit = expensive.tryAcquire();
+        assertThat(holdingPermit).isTrue();
+
+        client.get()
+            .uri("/api/redis")
+            .exchange()
+            .expectStatus().isEqualTo(503)
+            .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "2")
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("Overloaded");
+
+        client.delete()
+            .uri("/api/redis?match=*")
+            .exchange()
+            .expectStatus().isEqualTo(503);
+
+        client.delete()
+            .uri("/api/redis?prefix=user:")
+            .exchange()
+            .expectStatus().isEqualTo(503);
+    }
+
+    @Test
+    void shouldShedNonBlockingRequestsToo() {
+        // Setup
+        redisTemplate.opsForValue().set("async", "value");
+        holdingStandardPermit = standard.tryAcquire();
+        assertThat(holdingStandardPermit).isTrue();
+
+        client.get()
+            .uri("/api/redis-async/async")
+            .exchange()
+            .expectStatus().isEqualTo(503);
+
+        standard.release(0, false);
+        holdingStandardPermit = false;
+
+        client.get()
+            .uri("/api/redis-async/async")
+            .exchange()
+            .expectStatus().isOk();
+        assertThat(standard.inFlight()).isZero();
+    }
+
+    @Test
+    void shouldKeepServingCheapRequestsWhileExpensiveOnesAreShed() {
+        // Setup
+        redisTemplate.opsForValue().set("cheap", "value");
+        holdingPermit = expensive.tryAcquire();
+
+        client.get()
+            .uri("/api/redis/cheap")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.value").isEqualTo("value");
+    }
+
+    @Test
+    void shouldReleasePermitsWhenRequestsComplete() {
+        for (int i = 0; i < 5; i++) {
+            client.get()
+                .uri("/api/redis")
+                .exchange()
+                .expectStatus().isOk();
+        }
+
+        assertThat(expensive.inFlight()).isZero();
+        assertThat(admissionControl.limiter(AdmissionControl.Group.STANDARD).inFlight()).isZero();
+    }
+}
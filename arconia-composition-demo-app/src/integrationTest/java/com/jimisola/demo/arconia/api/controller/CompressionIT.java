@@ -0,0 +1,114 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.client.RestTestClient;
+
+import com.jimisola.demo.arconia.redis.ConditionalWrites;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "demo.redis.compression.enabled=true",
+    "demo.redis.compression.codec=zstd",
+    "demo.redis.compression.threshold=256B"
+})
+@AutoConfigureRestTestClient
+class CompressionIT {
+
+    private static final String LARGE_VALUE = "{\"name\":\"value\",\"items\":[1,2,3]}".repeat(100);
+
+    @Autowired
+    private RestTestClient client;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Clean up Redis before each test
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+    }
+
+    @Test
+    void shouldStoreLargeValuesCompressedAndServeThemUnchanged() {
+        client.post()
+            .uri("/api/redis/largeKey")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Map.of("value", LARGE_VALUE))
+            .exchange()
+            .expectStatus().isCreated();
+
+        assertThat(storedBytes("largeKey").length).isLessThan(LARGE_VALUE.length() / 4);
+
+        client.get()
+            .uri("/api/redis/largeKey")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.value").isEqualTo(LARGE_VALUE);
+
+        client.get()
+            .uri("/api/redis/largeKey/raw")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(byte[].class).isEqualTo(LARGE_VALUE.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldReadValuesWrittenWithoutCompression() {
+        try (RedisConnection connection = redisTemplate.getConnectionFactory().getConnection()) {
+            connection.stringCommands().set(bytes("legacyKey"), bytes(LARGE_VALUE));
+        }
+
+        client.get()
+            .uri("/api/redis/legacyKey")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.value").isEqualTo(LARGE_VALUE);
+    }
+
+    @Test
+    void shouldCompareVersionsOfCompressedValues() {
+        redisTemplate.opsForValue().set("largeKey", LARGE_VALUE);
+        String etag = "\"" + ConditionalWrites.version(LARGE_VALUE) + "\"";
+
+        client.put()
+            .uri("/api/redis/largeKey")
+            .header("If-Match", "\"stale\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Map.of("value", "other"))
+            .exchange()
+            .expectStatus().isEqualTo(412);
+
+        client.put()
+            .uri("/api/redis/largeKey")
+            .header("If-Match", etag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Map.of("value", LARGE_VALUE + "!"))
+            .exchange()
+            .expectStatus().isOk();
+
+        assertThat(redisTemplate.opsForValue().get("largeKey")).isEqualTo(LARGE_VALUE + "!");
+    }
+
+    private byte[] storedBytes(String key) {
+        try (RedisConnection connection = redisTemplate.getConnectionFactory().getConnection()) {
+            return connection.stringCommands().get(bytes(key));
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,138 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.client.RestTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "demo.redis.hot-keys.enabled=true")
+@AutoConfigureRestTestClient
+class HotKeysControllerIT {
+
+    @Autowired
+    private RestTestClient client;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Clean up Redis before each test
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+    }
+
+    @Test
+    void shouldReportMostReadKeyFirst() {
+        client.post()
+            .uri("/api/redis/hot-keys:hot")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(new ValueRequest("value"))
+            .exchange()
+            .expectStatus().isCreated();
+
+        for (int i = 0; i < 50; i++) {
+            client.get().uri("/api/redis/hot-keys:hot").exchange().expectStatus().isOk();
+        }
+
+        client.get()
+            .uri("/api/redis/_hot-keys")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.hotKeys[0].key").isEqualTo("hot-keys:hot")
+            .jsonPath("$.hotKeys[0].share").isNumber();
+    }
+
+    @Test
+    void shouldReportLargestValueUntilDeleted() {
+        client.post()
+            .uri("/api/redis/hot-keys:big")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(new ValueRequest("x".repeat(100_000)))
+            .exchange()
+            .expectStatus().isCreated();
+
+        client.get()
+            .uri("/api/redis/_hot-keys?limit=1")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.bigKeys[0].key").isEqualTo("hot-keys:big")
+            .jsonPath("$.bigKeys[0].sizeBytes").isEqualTo(100_000);
+
+        client.delete().uri("/api/redis/hot-keys:big").exchange().expectStatus().isOk();
+
+        client.get()
+            .uri("/api/redis/_hot-keys")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.bigKeys[?(@.key == 'hot-keys:big')]").isEmpty();
+    }
+
+    @Test
+    void shouldNotRecordValueOfFailedWrite() {
+        client.post()
+            .uri("/api/redis/hot-keys:conflict")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(new ValueRequest("small"))
+            .exchange()
+            .expectStatus().isCreated();
+
+        client.post()
+            .uri("/api/redis/hot-keys:conflict")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(new ValueRequest("x".repeat(200_000)))
+            .exchange()
+            .expectStatus().isEqualTo(409);
+
+        client.get()
+            .uri("/api/redis/_hot-keys")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.bigKeys[?(@.key == 'hot-keys:conflict')].sizeBytes").isEqualTo(List.of(5));
+    }
+
+    @Test
+    void shouldForgetKeysDeletedByPattern() {
+        client.post()
+            .uri("/api/redis/hot-keys:pattern")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(new ValueRequest("x".repeat(100_000)))
+            .exchange()
+            .expectStatus().isCreated();
+
+        Map<?, ?> job = client.delete()
+            .uri("/api/redis?match=hot-keys:pattern*")
+            .exchange()
+            .expectStatus().isAccepted()
+            .expectBody(Map.class)
+            .returnResult()
+            .getResponseBody();
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> client.get()
+            .uri("/api/redis/_jobs/{id}", job.get("jobId"))
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.status").isEqualTo("COMPLETED"));
+
+        client.get()
+            .uri("/api/redis/_hot-keys")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.bigKeys[?(@.key == 'hot-keys:pattern')]").isEmpty();
+    }
+}
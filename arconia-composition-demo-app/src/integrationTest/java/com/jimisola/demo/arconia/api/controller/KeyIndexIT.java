@@ -0,0 +1,225 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.client.RestTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "demo.redis.key-index.enabled=true")
+@AutoConfigureRestTestClient
+class KeyIndexIT {
+
+    @Autowired
+    private RestTestClient client;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Clean up Redis before each test
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+    }
+
+    @Test
+    void shouldIndexCreatedKeys() {
+        create("user:1:name", "alice");
+        create("user:1:email", "alice@example.com");
+        create("user:2:name", "bob");
+
+        assertThat(redisTemplate.opsForZSet().range("_index:user", 0, -1))
+            .containsExactly("user:1:email", "user:1:name", "user:2:name");
+
+        client.delete()
+            .uri("/api/redis/user:1:name")
+            .exchange()
+            .expectStatus().isOk();
+
+        assertThat(redisTemplate.opsForZSet().range("_index:user", 0, -1))
+            .containsExactly("user:1:email", "user:2:name");
+    }
+
+    @Test
+    void shouldListKeysUnderPrefix() {
+        create("user:1:name", "alice");
+        create("user:1:email", "alice@example.com");
+        create("user:10:name", "carol");
+        create("user:2:name", "bob");
+
+        client.get()
+            .uri("/api/redis?prefix=user:1:")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.count").isEqualTo(2)
+            .jsonPath("$.data['user:1:name']").isEqualTo("alice")
+            .jsonPath("$.data['user:1:email']").isEqualTo("alice@example.com")
+            .jsonPath("$.data['user:10:name']").doesNotExist()
+            .jsonPath("$.after").doesNotExist();
+    }
+
+    @Test
+    void shouldPageThroughKeysUnderPrefixInOrder() {
+        for (int i = 0; i < 25; i++) {
+            create("page:%02d".formatted(i), "value" + i);
+        }
+
+        List<String> seen = new ArrayList<>();
+        String after = "";
+        do {
+            Map<?, ?> page = client.get()
+                .uri("/api/redis?prefix=page:&limit=10&after={after}", after)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Map.class)
+                .returnResult()
+                .getResponseBody();
+
+            ((Map<?, ?>) page.get("data")).keySet().forEach(key -> seen.add((String) key));
+            after = (String) page.get("after");
+        } while (after != null);
+
+        assertThat(seen).hasSize(25).isSorted();
+    }
+
+    @Test
+    void shouldSkipAndPruneExpiredKeys() {
+        create("session:1", "expired");
+        create("session:2", "active");
+        // Removed behind the index's back, as expiry or eviction would
+        redisTemplate.delete("session:1");
+
+        client.get()
+            .uri("/api/redis?prefix=session:")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.count").isEqualTo(1)
+            .jsonPath("$.data['session:2']").isEqualTo("active");
+
+        assertThat(redisTemplate.opsForZSet().range("_index:session", 0, -1)).containsExactly("session:2");
+    }
+
+    @Test
+    void shouldDeleteKeysUnderPrefix() {
+        for (int i = 0; i < 2500; i++) {
+            create("tenant:a:" + i, "value");
+        }
+        create("tenant:b:1", "value");
+
+        Map<?, ?> response = client.delete()
+            .uri("/api/redis?prefix=tenant:a:")
+            .exchange()
+            .expectStatus().isAccepted()
+            .expectHeader().exists("Location")
+            .expectBody(Map.class)
+            .returnResult()
+            .getResponseBody();
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> client.get()
+            .uri("/api/redis/_jobs/{id}", response.get("jobId"))
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.status").isEqualTo("COMPLETED")
+            .jsonPath("$.match").isEqualTo("tenant:a:*")
+            .jsonPath("$.count").isEqualTo("2500"));
+
+        assertThat(redisTemplate.keys("tenant:*")).containsExactly("tenant:b:1");
+        assertThat(redisTemplate.opsForZSet().range("_index:tenant", 0, -1)).containsExactly("tenant:b:1");
+    }
+
+    @Test
+    void shouldLeaveIndexOutOfListingsAndExport() {
+        create("user:1:name", "alice");
+
+        client.get()
+            .uri("/api/redis")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.count").isEqualTo(1)
+            .jsonPath("$.data['user:1:name']").isEqualTo("alice");
+
+        String export = client.get()
+            .uri("/api/redis/_export")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(String.class)
+            .returnResult()
+            .getResponseBody();
+
+        assertThat(export).contains("user:1:name").doesNotContain("_index:");
+    }
+
+    @Test
+    void shouldIndexKeysCreatedThroughNonBlockingEndpoint() {
+        client.post()
+            .uri("/api/redis-async/{key}", "user:3:name")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Map.of("value", "dave"))
+            .exchange()
+            .expectStatus().isCreated();
+
+        assertThat(redisTemplate.opsForZSet().range("_index:user", 0, -1)).containsExactly("user:3:name");
+
+        client.delete()
+            .uri("/api/redis-async/{key}", "user:3:name")
+            .exchange()
+            .expectStatus().isOk();
+
+        assertThat(redisTemplate.opsForZSet().range("_index:user", 0, -1)).isEmpty();
+    }
+
+    @Test
+    void shouldOnlyIndexKeysCreatedThroughPost() {
+        create("user:1:name", "alice");
+        client.post()
+            .uri("/api/redis/_batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Map.of("operations", List.of(Map.of("op", "create", "key", "user:1:email", "value", "alice@example.com"))))
+            .exchange()
+            .expectStatus().isOk();
+
+        // Documented: the batch, raw, streaming and import endpoints do not maintain the index
+        client.get()
+            .uri("/api/redis?prefix=user:1:")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.count").isEqualTo(1)
+            .jsonPath("$.data['user:1:name']").isEqualTo("alice");
+    }
+
+    @Test
+    void shouldRejectPrefixWithoutNamespace() {
+        client.get()
+            .uri("/api/redis?prefix=user")
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("Invalid prefix")
+            .jsonPath("$.prefix").isEqualTo("user");
+    }
+
+    private void create(String key, String value) {
+        client.post()
+            .uri("/api/redis/{key}", key)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Map.of("value", value))
+            .exchange()
+            .expectStatus().isCreated();
+    }
+}
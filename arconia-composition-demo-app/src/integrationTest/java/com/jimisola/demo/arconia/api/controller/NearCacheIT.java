@@ -0,0 +1,120 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.client.RestTestClient;
+
+import com.jimisola.demo.arconia.redis.NearCache;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "demo.redis.near-cache.enabled=true")
+@AutoConfigureRestTestClient
+// CLIENT TRACKING is per node, so the near cache refuses to start against a cluster
+@DisabledIfSystemProperty(named = "redis.topology", matches = "cluster")
+class NearCacheIT {
+
+    @Autowired
+    private RestTestClient client;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private NearCache nearCache;
+
+    @BeforeEach
+    void setUp() {
+        // Clean up Redis before each test
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+        nearCache.invalidateAll();
+    }
+
+    @Test
+    void shouldServeRepeatedReadsAndPickUpExternalWrites() {
+        // Setup
+        redisTemplate.opsForValue().set("hot", "v1");
+
+        assertValue("hot", "v1");
+        assertValue("hot", "v1");
+
+        // Written by another connection; Redis pushes an invalidation to the tracked connection
+        redisTemplate.opsForValue().set("hot", "v2");
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertValue("hot", "v2"));
+    }
+
+    @Test
+    void shouldReadOwnWritesImmediately() {
+        // Setup
+        redisTemplate.opsForValue().set("mine", "v1");
+        assertValue("mine", "v1");
+
+        client.put()
+            .uri("/api/redis/mine")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Map.of("value", "v2"))
+            .exchange()
+            .expectStatus().isOk();
+
+        assertValue("mine", "v2");
+
+        client.delete()
+            .uri("/api/redis/mine")
+            .exchange()
+            .expectStatus().isOk();
+
+        client.get()
+            .uri("/api/redis/mine")
+            .exchange()
+            .expectStatus().isNotFound();
+    }
+
+    @Test
+    void shouldReadWritesOfNonBlockingEndpointsImmediately() {
+        // Setup
+        redisTemplate.opsForValue().set("async", "v1");
+        assertValue("async", "v1");
+
+        client.put()
+            .uri("/api/redis-async/async")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Map.of("value", "v2"))
+            .exchange()
+            .expectStatus().isOk();
+
+        assertValue("async", "v2");
+    }
+
+    @Test
+    void shouldNotCacheMissingKeys() {
+        client.get()
+            .uri("/api/redis/later")
+            .exchange()
+            .expectStatus().isNotFound();
+
+        redisTemplate.opsForValue().set("later", "now");
+
+        assertValue("later", "now");
+        assertThat(nearCache.get("later")).isEqualTo("now");
+    }
+
+    private void assertValue(String key, String expected) {
+        client.get()
+            .uri("/api/redis/{key}", key)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.value").isEqualTo(expected);
+    }
+}
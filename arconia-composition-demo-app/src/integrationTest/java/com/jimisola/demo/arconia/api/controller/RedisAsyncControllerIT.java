@@ -0,0 +1,144 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.client.RestTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.threads.virtual.enabled=true")
+@AutoConfigureRestTestClient
+class RedisAsyncControllerIT {
+
+    @Autowired
+    private RestTestClient client;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Clean up Redis before each test
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+    }
+
+    @Test
+    void shouldCreateGetUpdateAndDeleteKey() {
+        client.post()
+            .uri("/api/redis-async/asyncKey")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Map.of("value", "v1"))
+            .exchange()
+            .expectStatus().isCreated()
+            .expectBody()
+            .jsonPath("$.key").isEqualTo("asyncKey");
+
+        client.get()
+            .uri("/api/redis-async/asyncKey")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.value").isEqualTo("v1");
+
+        client.put()
+            .uri("/api/redis-async/asyncKey")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Map.of("value", "v2"))
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.value").isEqualTo("v2");
+
+        assertThat(redisTemplate.opsForValue().get("asyncKey")).isEqualTo("v2");
+
+        client.delete()
+            .uri("/api/redis-async/asyncKey")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.message").isEqualTo("Key deleted successfully");
+
+        assertThat(redisTemplate.hasKey("asyncKey")).isFalse();
+    }
+
+    @Test
+    void shouldReturnSameErrorsAsBlockingEndpoints() {
+        redisTemplate.opsForValue().set("existingKey", "existingValue");
+
+        client.post()
+            .uri("/api/redis-async/existingKey")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Map.of("value", "newValue"))
+            .exchange()
+            .expectStatus().isEqualTo(409)
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("Key already exists");
+
+        client.get()
+            .uri("/api/redis-async/missing")
+            .exchange()
+            .expectStatus().isNotFound()
+            .expectBody()
+            .jsonPath("$.message").isEqualTo("The specified key does not exist in Redis");
+
+        client.put()
+            .uri("/api/redis-async/missing")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Map.of("value", "newValue"))
+            .exchange()
+            .expectStatus().isNotFound();
+
+        client.delete()
+            .uri("/api/redis-async/missing")
+            .exchange()
+            .expectStatus().isNotFound();
+    }
+
+    @Test
+    void shouldReplaceOnlyMatchingVersionLikeBlockingEndpoints() {
+        String etag = client.post()
+            .uri("/api/redis-async/versioned")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Map.of("value", "v1"))
+            .exchange()
+            .expectStatus().isCreated()
+            .returnResult(Map.class)
+            .getResponseHeaders()
+            .getETag();
+
+        client.get()
+            .uri("/api/redis/versioned")
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().valueEquals(HttpHeaders.ETAG, etag);
+
+        client.put()
+            .uri("/api/redis-async/versioned")
+            .header(HttpHeaders.IF_MATCH, etag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Map.of("value", "v2"))
+            .exchange()
+            .expectStatus().isOk();
+
+        // The first ETag is stale now
+        client.put()
+            .uri("/api/redis-async/versioned")
+            .header(HttpHeaders.IF_MATCH, etag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Map.of("value", "v3"))
+            .exchange()
+            .expectStatus().isEqualTo(412)
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("Version mismatch");
+
+        assertThat(redisTemplate.opsForValue().get("versioned")).isEqualTo("v2");
+    }
+}
@@ -0,0 +1,166 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.client.RestTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "demo.redis.batch.max-operations=10")
+@AutoConfigureRestTestClient
+class RedisBatchControllerIT {
+
+    @Autowired
+    private RestTestClient client;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Clean up Redis before each test
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+    }
+
+    @Test
+    void shouldRunMixedOperationsInOrder() {
+        // Setup
+        redisTemplate.opsForValue().set("existing", "old");
+        redisTemplate.opsForValue().set("toDelete", "gone");
+
+        var request = Map.of("operations", List.of(
+            Map.of("op", "create", "key", "new", "value", "fresh"),
+            Map.of("op", "create", "key", "existing", "value", "ignored"),
+            Map.of("op", "update", "key", "existing", "value", "updated"),
+            Map.of("op", "update", "key", "missing", "value", "ignored"),
+            Map.of("op", "get", "key", "new"),
+            Map.of("op", "get", "key", "missing"),
+            Map.of("op", "delete", "key", "toDelete"),
+            Map.of("op", "delete", "key", "missing"),
+            Map.of("op", "rename", "key", "existing")));
+
+        client.post()
+            .uri("/api/redis/_batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(request)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.count").isEqualTo(9)
+            .jsonPath("$.results[0].status").isEqualTo(201)
+            .jsonPath("$.results[1].status").isEqualTo(409)
+            .jsonPath("$.results[2].status").isEqualTo(200)
+            .jsonPath("$.results[3].status").isEqualTo(404)
+            .jsonPath("$.results[4].status").isEqualTo(200)
+            .jsonPath("$.results[4].value").isEqualTo("fresh")
+            .jsonPath("$.results[5].status").isEqualTo(404)
+            .jsonPath("$.results[6].status").isEqualTo(200)
+            .jsonPath("$.results[7].status").isEqualTo(404)
+            .jsonPath("$.results[8].status").isEqualTo(400);
+
+        assertThat(redisTemplate.opsForValue().get("new")).isEqualTo("fresh");
+        assertThat(redisTemplate.opsForValue().get("existing")).isEqualTo("updated");
+        assertThat(redisTemplate.hasKey("toDelete")).isFalse();
+        assertThat(redisTemplate.hasKey("missing")).isFalse();
+    }
+
+    @Test
+    void shouldRunOperationsAtomically() {
+        var request = Map.of("atomic", true, "operations", List.of(
+            Map.of("op", "create", "key", "a", "value", "1"),
+            Map.of("op", "create", "key", "a", "value", "2"),
+            Map.of("op", "get", "key", "a")));
+
+        client.post()
+            .uri("/api/redis/_batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(request)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.results[0].status").isEqualTo(201)
+            .jsonPath("$.results[1].status").isEqualTo(409)
+            .jsonPath("$.results[2].value").isEqualTo("1");
+    }
+
+    @Test
+    void shouldRunAtomicBatchOverHashTaggedKeys() {
+        var request = Map.of("atomic", true, "operations", List.of(
+            Map.of("op", "create", "key", "{user:42}:name", "value", "Ada"),
+            Map.of("op", "create", "key", "{user:42}:email", "value", "ada@example.com"),
+            Map.of("op", "delete", "key", "{user:42}:name")));
+
+        client.post()
+            .uri("/api/redis/_batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(request)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.results[0].status").isEqualTo(201)
+            .jsonPath("$.results[1].status").isEqualTo(201)
+            .jsonPath("$.results[2].status").isEqualTo(200);
+
+        assertThat(redisTemplate.opsForValue().get("{user:42}:email")).isEqualTo("ada@example.com");
+        assertThat(redisTemplate.hasKey("{user:42}:name")).isFalse();
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "redis.topology", matches = "cluster")
+    void shouldRejectAtomicBatchAcrossSlotsOnCluster() {
+        var request = Map.of("atomic", true, "operations", List.of(
+            Map.of("op", "create", "key", "user:1", "value", "1"),
+            Map.of("op", "create", "key", "user:2", "value", "2")));
+
+        client.post()
+            .uri("/api/redis/_batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(request)
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("Cross-slot batch");
+
+        assertThat(redisTemplate.hasKey("user:1")).isFalse();
+    }
+
+    @Test
+    void shouldRejectBatchAboveConfiguredLimit() {
+        List<Map<String, String>> operations = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            operations.add(Map.of("op", "get", "key", "key" + i));
+        }
+
+        client.post()
+            .uri("/api/redis/_batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Map.of("operations", operations))
+            .exchange()
+            .expectStatus().isEqualTo(413)
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("Batch too large")
+            .jsonPath("$.count").isEqualTo(11);
+    }
+
+    @Test
+    void shouldRejectEmptyBatch() {
+        client.post()
+            .uri("/api/redis/_batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Map.of("operations", List.of()))
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("Empty batch");
+    }
+}
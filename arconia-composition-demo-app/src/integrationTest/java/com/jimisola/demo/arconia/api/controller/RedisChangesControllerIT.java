@@ -0,0 +1,152 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.client.RestTestClient;
+
+import com.jimisola.demo.arconia.redis.KeyspaceChanges;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "demo.redis.changes.enabled=true",
+    "demo.redis.changes.heartbeat=1s"
+})
+@AutoConfigureRestTestClient
+class RedisChangesControllerIT {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private RestTestClient client;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private KeyspaceChanges changes;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final List<CompletableFuture<?>> subscriptions = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Clean up Redis before each test
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        subscriptions.forEach(subscription -> subscription.cancel(true));
+    }
+
+    @Test
+    void shouldPushSetAndDeleteWithValues() {
+        List<String> lines = subscribe("/api/redis/_changes?match=feed:*&values=true", null);
+
+        create("feed:1", "v1");
+        create("other:1", "ignored");
+        client.delete().uri("/api/redis/feed:1").exchange().expectStatus().isOk();
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> assertThat(lines)
+            .contains("event:set", "data:{\"type\":\"set\",\"key\":\"feed:1\",\"value\":\"v1\"}",
+                "event:delete", "data:{\"type\":\"delete\",\"key\":\"feed:1\"}"));
+        assertThat(lines).noneMatch(line -> line.contains("other:1"));
+    }
+
+    @Test
+    void shouldResumeAfterLastEventId() {
+        List<String> first = subscribe("/api/redis/_changes?match=resume:*", null);
+        create("resume:1", "v1");
+        await().atMost(Duration.ofSeconds(10)).until(() -> first.stream().anyMatch(line -> line.startsWith("id:")));
+        String lastId = first.stream().filter(line -> line.startsWith("id:")).findFirst().orElseThrow().substring(3);
+
+        create("resume:2", "v2");
+
+        List<String> resumed = subscribe("/api/redis/_changes?match=resume:*", lastId);
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> assertThat(resumed)
+            .contains("data:{\"type\":\"set\",\"key\":\"resume:2\"}")
+            .doesNotContain("data:{\"type\":\"set\",\"key\":\"resume:1\"}"));
+    }
+
+    @Test
+    void shouldResetInsteadOfReplayingMoreThanTheSubscriberQueue() {
+        List<String> first = subscribe("/api/redis/_changes?match=gap:*", null);
+        create("gap:1", "v1");
+        await().atMost(Duration.ofSeconds(10)).until(() -> first.stream().anyMatch(line -> line.startsWith("id:")));
+        String lastId = first.stream().filter(line -> line.startsWith("id:")).findFirst().orElseThrow().substring(3);
+
+        // More changes than the default subscriber-queue of 1000, which the first subscription filters out
+        for (int i = 0; i < 1100; i++) {
+            redisTemplate.opsForValue().set("noise:" + i, "v");
+        }
+        create("gap:2", "v2");
+        await().atMost(Duration.ofSeconds(30)).until(() -> first.contains("data:{\"type\":\"set\",\"key\":\"gap:2\"}"));
+
+        // Without a match, replaying all of them would overflow the new subscriber's queue
+        int before = changes.subscribers();
+        List<String> resumed = subscribe("/api/redis/_changes", lastId);
+        create("gap:3", "v3");
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> assertThat(resumed)
+            .contains("event:reset", "data:{\"type\":\"set\",\"key\":\"gap:3\"}")
+            .doesNotContain("data:{\"type\":\"set\",\"key\":\"gap:2\"}")
+            .noneMatch(line -> line.contains("noise:")));
+        assertThat(changes.subscribers()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void shouldStartWithResetForUnknownLastEventId() {
+        List<String> lines = subscribe("/api/redis/_changes", "unknown-1");
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> assertThat(lines).contains("event:reset"));
+    }
+
+    private List<String> subscribe(String path, String lastEventId) {
+        int before = changes.subscribers();
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+            .header("Accept", MediaType.TEXT_EVENT_STREAM_VALUE);
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+
+        List<String> lines = new CopyOnWriteArrayList<>();
+        subscriptions.add(httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofLines())
+            .thenAccept(response -> {
+                try (Stream<String> body = response.body()) {
+                    body.forEach(lines::add);
+                }
+            }));
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> changes.subscribers() > before);
+        return lines;
+    }
+
+    private void create(String key, String value) {
+        client.post()
+            .uri("/api/redis/" + key)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(new ValueRequest(value))
+            .exchange()
+            .expectStatus().isCreated();
+    }
+}
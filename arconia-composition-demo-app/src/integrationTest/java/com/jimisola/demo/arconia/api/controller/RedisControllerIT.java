@@ -1,8 +1,12 @@
 package com.jimisola.demo.arconia.api.controller;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 
+import java.time.Duration;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,6 +16,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.client.RestTestClient;
+import org.springframework.test.web.servlet.client.RestTestClient.BodyContentSpec;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureRestTestClient
@@ -123,7 +128,104 @@ class RedisControllerIT {
             .expectStatus().isOk()
             .expectBody()
             .jsonPath("$.count").isEqualTo(0)
-            .jsonPath("$.data").isEmpty();
+            .jsonPath("$.data").isEmpty()
+            .jsonPath("$.cursor").isEqualTo("0");
+    }
+
+    @Test
+    void shouldPageThroughAllKeysWithCursor() {
+        // Setup
+        for (int i = 0; i < 25; i++) {
+            redisTemplate.opsForValue().set("page:" + i, "value" + i);
+        }
+
+        Set<String> seen = new HashSet<>();
+        String cursor = "0";
+        do {
+            Map<?, ?> page = client.get()
+                .uri("/api/redis?cursor={cursor}&count=10", cursor)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Map.class)
+                .returnResult()
+                .getResponseBody();
+
+            Map<?, ?> data = (Map<?, ?>) page.get("data");
+            data.forEach((key, value) -> {
+                assertThat(value).isEqualTo("value" + ((String) key).substring("page:".length()));
+                seen.add((String) key);
+            });
+            cursor = (String) page.get("cursor");
+        } while (!"0".equals(cursor));
+
+        assertThat(seen).hasSize(25);
+    }
+
+    @Test
+    void shouldReturnShortPagesForSparseMatch() {
+        // Setup
+        for (int i = 0; i < 5000; i++) {
+            redisTemplate.opsForValue().set("noise:" + i, "value");
+        }
+        redisTemplate.opsForValue().set("needle", "found");
+
+        Map<?, ?> first = client.get()
+            .uri("/api/redis?match=needle&count=10")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(Map.class)
+            .returnResult()
+            .getResponseBody();
+
+        // A bounded number of SCAN calls cannot cover 5000 keys, so the scan is not complete yet
+        assertThat(first.get("cursor")).isNotEqualTo("0");
+
+        Set<String> seen = new HashSet<>();
+        String cursor = "0";
+        do {
+            Map<?, ?> page = client.get()
+                .uri("/api/redis?cursor={cursor}&match=needle&count=10", cursor)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Map.class)
+                .returnResult()
+                .getResponseBody();
+
+            ((Map<?, ?>) page.get("data")).keySet().forEach(key -> seen.add((String) key));
+            cursor = (String) page.get("cursor");
+        } while (!"0".equals(cursor));
+
+        assertThat(seen).containsExactly("needle");
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        client.get()
+            .uri("/api/redis?cursor=not-a-cursor")
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("Invalid cursor")
+            .jsonPath("$.cursor").isEqualTo("not-a-cursor");
+    }
+
+    @Test
+    void shouldFilterKeysByMatchPattern() {
+        // Setup
+        redisTemplate.opsForValue().set("user:1", "alice");
+        redisTemplate.opsForValue().set("user:2", "bob");
+        redisTemplate.opsForValue().set("order:1", "book");
+
+        client.get()
+            .uri("/api/redis?match=user:*")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.count").isEqualTo(2)
+            .jsonPath("$.data['user:1']").isEqualTo("alice")
+            .jsonPath("$.data['user:2']").isEqualTo("bob")
+            .jsonPath("$.data['order:1']").doesNotExist()
+            .jsonPath("$.cursor").isEqualTo("0");
     }
 
     @Test
@@ -165,6 +267,64 @@ class RedisControllerIT {
             .jsonPath("$.message").isEqualTo("Cannot update non-existent key. Use POST to create a new key");
     }
 
+    @Test
+    void shouldUpdateWhenIfMatchMatchesCurrentVersion() {
+        // Setup
+        redisTemplate.opsForValue().set("casKey", "v1");
+
+        String etag = client.get()
+            .uri("/api/redis/casKey")
+            .exchange()
+            .expectStatus().isOk()
+            .returnResult(Map.class)
+            .getResponseHeaders()
+            .getETag();
+
+        assertThat(etag).isNotBlank();
+
+        client.put()
+            .uri("/api/redis/casKey")
+            .header("If-Match", etag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Map.of("value", "v2"))
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().exists("ETag")
+            .expectBody()
+            .jsonPath("$.value").isEqualTo("v2");
+
+        assertThat(redisTemplate.opsForValue().get("casKey")).isEqualTo("v2");
+
+        // The old version is now stale
+        client.put()
+            .uri("/api/redis/casKey")
+            .header("If-Match", etag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Map.of("value", "v3"))
+            .exchange()
+            .expectStatus().isEqualTo(412)
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("Version mismatch")
+            .jsonPath("$.key").isEqualTo("casKey");
+
+        assertThat(redisTemplate.opsForValue().get("casKey")).isEqualTo("v2");
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenIfMatchTargetsNonExistentKey() {
+        client.put()
+            .uri("/api/redis/nonExistentKey")
+            .header("If-Match", "\"0123456789abcdef0123456789abcdef01234567\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Map.of("value", "newValue"))
+            .exchange()
+            .expectStatus().isNotFound()
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("Key not found");
+
+        assertThat(redisTemplate.hasKey("nonExistentKey")).isFalse();
+    }
+
     @Test
     void shouldDeleteKey() {
         // Setup
@@ -202,12 +362,10 @@ class RedisControllerIT {
         redisTemplate.opsForValue().set("key2", "value2");
         redisTemplate.opsForValue().set("key3", "value3");
 
-        client.delete()
-            .uri("/api/redis")
-            .exchange()
-            .expectStatus().isOk()
-            .expectBody()
-            .jsonPath("$.message").isEqualTo("All keys deleted successfully")
+        String jobId = startDeleteAll("/api/redis");
+
+        awaitJobCompleted(jobId)
+            .jsonPath("$.match").isEqualTo("*")
             .jsonPath("$.count").isEqualTo("3");
 
         // Verify all keys were deleted
@@ -216,12 +374,77 @@ class RedisControllerIT {
 
     @Test
     void shouldHandleDeleteAllWhenNoKeys() {
-        client.delete()
-            .uri("/api/redis")
+        String jobId = startDeleteAll("/api/redis");
+
+        awaitJobCompleted(jobId)
+            .jsonPath("$.count").isEqualTo("0");
+    }
+
+    @Test
+    void shouldDeleteOnlyKeysMatchingPattern() {
+        // Setup
+        for (int i = 0; i < 2500; i++) {
+            redisTemplate.opsForValue().set("tenant:a:" + i, "value");
+        }
+        redisTemplate.opsForValue().set("tenant:b:1", "value");
+
+        String jobId = startDeleteAll("/api/redis?match=tenant:a:*");
+
+        awaitJobCompleted(jobId)
+            .jsonPath("$.match").isEqualTo("tenant:a:*")
+            .jsonPath("$.count").isEqualTo("2500");
+
+        assertThat(redisTemplate.keys("*")).containsExactly("tenant:b:1");
+    }
+
+    @Test
+    void shouldReturnNotFoundForPrefixWithoutKeyIndex() {
+        client.get()
+            .uri("/api/redis?prefix=user:")
+            .exchange()
+            .expectStatus().isNotFound()
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("Key index disabled")
+            .jsonPath("$.prefix").isEqualTo("user:");
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownJob() {
+        client.get()
+            .uri("/api/redis/_jobs/unknown")
+            .exchange()
+            .expectStatus().isNotFound()
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("Job not found")
+            .jsonPath("$.jobId").isEqualTo("unknown");
+    }
+
+    private String startDeleteAll(String uri) {
+        Map<?, ?> response = client.delete()
+            .uri(uri)
+            .exchange()
+            .expectStatus().isAccepted()
+            .expectHeader().exists("Location")
+            .expectBody(Map.class)
+            .returnResult()
+            .getResponseBody();
+
+        assertThat(response.get("message")).isEqualTo("Deletion started");
+        return (String) response.get("jobId");
+    }
+
+    private BodyContentSpec awaitJobCompleted(String jobId) {
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> client.get()
+            .uri("/api/redis/_jobs/{id}", jobId)
             .exchange()
             .expectStatus().isOk()
             .expectBody()
-            .jsonPath("$.message").isEqualTo("All keys deleted successfully")
-            .jsonPath("$.count").isEqualTo("0");
+            .jsonPath("$.status").isEqualTo("COMPLETED"));
+
+        return client.get()
+            .uri("/api/redis/_jobs/{id}", jobId)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody();
     }
 }
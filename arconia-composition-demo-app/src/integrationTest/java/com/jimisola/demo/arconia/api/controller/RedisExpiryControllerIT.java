@@ -0,0 +1,191 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.client.RestTestClient;
+
+import com.jimisola.demo.arconia.redis.ConditionalWrites;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "demo.redis.expiry.defaults[session:]=30m"
+})
+@AutoConfigureRestTestClient
+class RedisExpiryControllerIT {
+
+    @Autowired
+    private RestTestClient client;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Clean up Redis before each test
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+    }
+
+    @Test
+    void shouldSetRequestedTtlOnCreate() {
+        client.post()
+            .uri("/api/redis/shortLived")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(new ValueRequest("value", 60L))
+            .exchange()
+            .expectStatus().isCreated()
+            .expectBody()
+            .jsonPath("$.ttlSeconds").isEqualTo("60");
+
+        assertThat(redisTemplate.getExpire("shortLived", TimeUnit.SECONDS)).isBetween(55L, 60L);
+    }
+
+    @Test
+    void shouldApplyPrefixDefaultOnlyToMatchingKeys() {
+        client.post()
+            .uri("/api/redis/session:1")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(new ValueRequest("value"))
+            .exchange()
+            .expectStatus().isCreated();
+
+        client.post()
+            .uri("/api/redis/user:1")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(new ValueRequest("value"))
+            .exchange()
+            .expectStatus().isCreated();
+
+        assertThat(redisTemplate.getExpire("session:1", TimeUnit.MINUTES)).isBetween(29L, 30L);
+        assertThat(redisTemplate.getExpire("user:1")).isEqualTo(-1L);
+    }
+
+    @Test
+    void shouldKeepTtlOnUpdateWithoutOne() {
+        client.post()
+            .uri("/api/redis/kept")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(new ValueRequest("v1", 120L))
+            .exchange()
+            .expectStatus().isCreated();
+
+        client.put()
+            .uri("/api/redis/kept")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(new ValueRequest("v2"))
+            .exchange()
+            .expectStatus().isOk();
+
+        assertThat(redisTemplate.getExpire("kept", TimeUnit.SECONDS)).isBetween(115L, 120L);
+
+        // A conditional update keeps it as well
+        client.put()
+            .uri("/api/redis/kept")
+            .header("If-Match", "\"" + ConditionalWrites.version("v2") + "\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(new ValueRequest("v3"))
+            .exchange()
+            .expectStatus().isOk();
+
+        assertThat(redisTemplate.getExpire("kept", TimeUnit.SECONDS)).isBetween(115L, 120L);
+        assertThat(redisTemplate.opsForValue().get("kept")).isEqualTo("v3");
+    }
+
+    @Test
+    void shouldRejectNonPositiveTtl() {
+        client.post()
+            .uri("/api/redis/invalid")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(new ValueRequest("value", 0L))
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("Invalid TTL");
+
+        assertThat(redisTemplate.hasKey("invalid")).isFalse();
+    }
+
+    @Test
+    void shouldRejectTtlBeyondMaximum() {
+        client.post()
+            .uri("/api/redis/invalid")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(new ValueRequest("value", Long.MAX_VALUE))
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("Invalid TTL");
+
+        redisTemplate.opsForValue().set("existing", "value");
+        client.put()
+            .uri("/api/redis/existing/ttl")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(new TtlRequest(Long.MAX_VALUE))
+            .exchange()
+            .expectStatus().isBadRequest();
+
+        assertThat(redisTemplate.hasKey("invalid")).isFalse();
+        assertThat(redisTemplate.getExpire("existing")).isEqualTo(-1);
+    }
+
+    @Test
+    void shouldReadChangeAndRemoveTtl() {
+        redisTemplate.opsForValue().set("managed", "value");
+
+        client.get()
+            .uri("/api/redis/managed/ttl")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.ttlSeconds").doesNotExist()
+            .jsonPath("$.message").isEqualTo("Key does not expire");
+
+        client.put()
+            .uri("/api/redis/managed/ttl")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(new TtlRequest(300L))
+            .exchange()
+            .expectStatus().isOk();
+
+        client.get()
+            .uri("/api/redis/managed/ttl")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.ttlSeconds").value(ttl -> assertThat(Long.parseLong((String) ttl)).isBetween(295L, 300L));
+
+        client.delete()
+            .uri("/api/redis/managed/ttl")
+            .exchange()
+            .expectStatus().isOk();
+
+        assertThat(redisTemplate.getExpire("managed")).isEqualTo(-1L);
+    }
+
+    @Test
+    void shouldReturnNotFoundForMissingKey() {
+        client.get()
+            .uri("/api/redis/missing/ttl")
+            .exchange()
+            .expectStatus().isNotFound();
+
+        client.put()
+            .uri("/api/redis/missing/ttl")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(new TtlRequest(60L))
+            .exchange()
+            .expectStatus().isNotFound();
+
+        client.delete()
+            .uri("/api/redis/missing/ttl")
+            .exchange()
+            .expectStatus().isNotFound();
+    }
+}
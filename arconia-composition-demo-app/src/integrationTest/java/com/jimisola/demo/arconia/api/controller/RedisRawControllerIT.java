@@ -0,0 +1,116 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.client.RestTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureRestTestClient
+class RedisRawControllerIT {
+
+    @Autowired
+    private RestTestClient client;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Clean up Redis before each test
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+    }
+
+    @Test
+    void shouldRoundTripArbitraryBytes() {
+        // Not valid UTF-8, so it would not survive a String round trip
+        byte[] value = {0, 1, 2, (byte) 0xC3, (byte) 0x28, (byte) 0xFF, (byte) 0xFE};
+
+        client.post()
+            .uri("/api/redis/binaryKey/raw")
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .body(value)
+            .exchange()
+            .expectStatus().isCreated()
+            .expectHeader().exists("ETag")
+            .expectBody()
+            .jsonPath("$.key").isEqualTo("binaryKey");
+
+        client.get()
+            .uri("/api/redis/binaryKey/raw")
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .expectBody(byte[].class).isEqualTo(value);
+    }
+
+    @Test
+    void shouldServeTextValuesWithTheSameETagAsTheJsonEndpoint() {
+        redisTemplate.opsForValue().set("textKey", "héllo");
+
+        String jsonETag = client.get()
+            .uri("/api/redis/textKey")
+            .exchange()
+            .returnResult(Map.class)
+            .getResponseHeaders()
+            .getETag();
+
+        client.get()
+            .uri("/api/redis/textKey/raw")
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().valueEquals("ETag", jsonETag)
+            .expectBody(byte[].class).isEqualTo("héllo".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldUpdateExistingKeyOnly() {
+        client.put()
+            .uri("/api/redis/missing/raw")
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .body(new byte[] {1})
+            .exchange()
+            .expectStatus().isNotFound()
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("Key not found");
+
+        redisTemplate.opsForValue().set("existingKey", "old");
+
+        client.put()
+            .uri("/api/redis/existingKey/raw")
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .body("new".getBytes(StandardCharsets.UTF_8))
+            .exchange()
+            .expectStatus().isOk();
+
+        assertThat(redisTemplate.opsForValue().get("existingKey")).isEqualTo("new");
+    }
+
+    @Test
+    void shouldReturnConflictAndNotFound() {
+        redisTemplate.opsForValue().set("existingKey", "existingValue");
+
+        client.post()
+            .uri("/api/redis/existingKey/raw")
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .body(new byte[] {1})
+            .exchange()
+            .expectStatus().isEqualTo(409);
+
+        client.get()
+            .uri("/api/redis/missing/raw")
+            .exchange()
+            .expectStatus().isNotFound()
+            .expectBody()
+            .jsonPath("$.message").isEqualTo("The specified key does not exist in Redis");
+    }
+}
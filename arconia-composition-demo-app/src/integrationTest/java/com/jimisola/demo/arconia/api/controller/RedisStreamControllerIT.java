@@ -0,0 +1,195 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.client.RestTestClient;
+
+// Small chunks so every value below spans many of them
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "demo.redis.streaming.chunk-size=1KB",
+    "demo.redis.streaming.max-size=64KB"
+})
+@AutoConfigureRestTestClient
+class RedisStreamControllerIT {
+
+    @Autowired
+    private RestTestClient client;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Clean up Redis before each test
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+    }
+
+    @Test
+    void shouldRoundTripValueSpanningManyChunks() {
+        byte[] value = randomBytes(10_000);
+
+        upload("largeKey", value);
+
+        client.get()
+            .uri("/api/redis/largeKey/stream")
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .expectHeader().contentLength(value.length)
+            .expectHeader().valueEquals("Accept-Ranges", "bytes")
+            .expectBody(byte[].class).isEqualTo(value);
+
+        // The value is a plain string, readable through the other endpoints
+        client.get()
+            .uri("/api/redis/largeKey/raw")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(byte[].class).isEqualTo(value);
+    }
+
+    @Test
+    void shouldServeByteRanges() {
+        byte[] value = randomBytes(5_000);
+        upload("rangedKey", value);
+
+        client.get()
+            .uri("/api/redis/rangedKey/stream")
+            .header("Range", "bytes=1000-2999")
+            .exchange()
+            .expectStatus().isEqualTo(206)
+            .expectHeader().valueEquals("Content-Range", "bytes 1000-2999/5000")
+            .expectBody(byte[].class).isEqualTo(Arrays.copyOfRange(value, 1000, 3000));
+
+        client.get()
+            .uri("/api/redis/rangedKey/stream")
+            .header("Range", "bytes=-100")
+            .exchange()
+            .expectStatus().isEqualTo(206)
+            .expectBody(byte[].class).isEqualTo(Arrays.copyOfRange(value, 4900, 5000));
+
+        client.get()
+            .uri("/api/redis/rangedKey/stream")
+            .header("Range", "bytes=6000-")
+            .exchange()
+            .expectStatus().isEqualTo(416)
+            .expectHeader().valueEquals("Content-Range", "bytes */5000");
+    }
+
+    @Test
+    void shouldKeepValuesThatLookCompressed() {
+        // Starts with the compression header magic bytes
+        byte[] value = randomBytes(3_000);
+        value[0] = 0x00;
+        value[1] = 'Z';
+        value[2] = 'V';
+        value[3] = 1;
+        upload("magicKey", value);
+
+        client.get()
+            .uri("/api/redis/magicKey/stream")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(byte[].class).isEqualTo(value);
+
+        client.get()
+            .uri("/api/redis/magicKey/stream")
+            .header("Range", "bytes=0-9")
+            .exchange()
+            .expectStatus().isEqualTo(206)
+            .expectBody(byte[].class).isEqualTo(Arrays.copyOf(value, 10));
+
+        client.get()
+            .uri("/api/redis/magicKey/raw")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(byte[].class).isEqualTo(value);
+    }
+
+    @Test
+    void shouldCreateOnlyOnceAndUpdateExistingKeyOnly() {
+        client.put()
+            .uri("/api/redis/missing/stream")
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .body(new byte[] {1})
+            .exchange()
+            .expectStatus().isNotFound()
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("Key not found");
+
+        upload("existingKey", randomBytes(100));
+
+        client.post()
+            .uri("/api/redis/existingKey/stream")
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .body(new byte[] {1})
+            .exchange()
+            .expectStatus().isEqualTo(409);
+
+        byte[] replacement = randomBytes(2_500);
+        client.put()
+            .uri("/api/redis/existingKey/stream")
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .body(replacement)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.key").isEqualTo("existingKey");
+
+        client.get()
+            .uri("/api/redis/existingKey/stream")
+            .exchange()
+            .expectBody(byte[].class).isEqualTo(replacement);
+
+        // Only the target remains; uploads were moved onto it or removed
+        assertThat(redisTemplate.keys("*")).containsExactly("existingKey");
+    }
+
+    @Test
+    void shouldRejectValuesAboveMaxSize() {
+        client.post()
+            .uri("/api/redis/hugeKey/stream")
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .body(randomBytes(65 * 1024))
+            .exchange()
+            .expectStatus().isEqualTo(413)
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("Value too large");
+
+        assertThat(redisTemplate.keys("*")).isEmpty();
+    }
+
+    @Test
+    void shouldReturnNotFoundForMissingKey() {
+        client.get()
+            .uri("/api/redis/missing/stream")
+            .exchange()
+            .expectStatus().isNotFound()
+            .expectBody()
+            .jsonPath("$.message").isEqualTo("The specified key does not exist in Redis");
+    }
+
+    private void upload(String key, byte[] value) {
+        client.post()
+            .uri("/api/redis/" + key + "/stream")
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .body(value)
+            .exchange()
+            .expectStatus().isCreated();
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] value = new byte[length];
+        new Random(length).nextBytes(value);
+        return value;
+    }
+}
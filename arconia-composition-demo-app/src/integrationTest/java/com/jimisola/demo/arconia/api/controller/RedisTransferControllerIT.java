@@ -0,0 +1,106 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.client.RestTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureRestTestClient
+class RedisTransferControllerIT {
+
+    @Autowired
+    private RestTestClient client;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Clean up Redis before each test
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+    }
+
+    @Test
+    void shouldExportAndReimportAllKeys() {
+        // Setup
+        for (int i = 0; i < 2500; i++) {
+            redisTemplate.opsForValue().set("key" + i, "value" + i);
+        }
+        redisTemplate.opsForValue().set("expiring", "soon", Duration.ofMinutes(10));
+
+        String snapshot = client.get()
+            .uri("/api/redis/_export")
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+            .expectBody(String.class)
+            .returnResult()
+            .getResponseBody();
+
+        assertThat(snapshot.lines()).hasSize(2501);
+
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+
+        client.post()
+            .uri("/api/redis/_import")
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(snapshot)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.message").isEqualTo("Entries imported successfully")
+            .jsonPath("$.count").isEqualTo(2501);
+
+        assertThat(redisTemplate.opsForValue().get("key1234")).isEqualTo("value1234");
+        assertThat(redisTemplate.getExpire("key1234")).isEqualTo(-1);
+        assertThat(redisTemplate.opsForValue().get("expiring")).isEqualTo("soon");
+        assertThat(redisTemplate.getExpire("expiring", TimeUnit.SECONDS)).isBetween(1L, 600L);
+    }
+
+    @Test
+    void shouldExportOnlyMatchingKeys() {
+        // Setup
+        redisTemplate.opsForValue().set("user:1", "alice");
+        redisTemplate.opsForValue().set("order:1", "book");
+
+        client.get()
+            .uri("/api/redis/_export?match=user:*")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(String.class)
+            .isEqualTo("{\"key\":\"user:1\",\"value\":\"alice\",\"ttl\":-1}\n");
+    }
+
+    @Test
+    void shouldRejectMalformedLineAndKeepEarlierEntries() {
+        String body = """
+            {"key":"first","value":"one"}
+            not json
+            {"key":"third","value":"three"}
+            """;
+
+        client.post()
+            .uri("/api/redis/_import")
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body)
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("Invalid NDJSON entry")
+            .jsonPath("$.line").isEqualTo(2)
+            .jsonPath("$.count").isEqualTo(1);
+
+        assertThat(redisTemplate.opsForValue().get("first")).isEqualTo("one");
+        assertThat(redisTemplate.hasKey("third")).isFalse();
+    }
+}
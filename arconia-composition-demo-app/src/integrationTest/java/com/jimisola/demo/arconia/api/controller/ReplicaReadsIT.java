@@ -0,0 +1,93 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.client.RestTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "demo.redis.replica-reads.enabled=true",
+    "demo.redis.replica-reads.read-from=replica",
+    "demo.redis.replica-reads.read-your-writes=5s"
+})
+@AutoConfigureRestTestClient
+// Needs replicas to read from: ./gradlew integrationTest -Predis.topology=replicated
+@EnabledIfSystemProperty(named = "redis.topology", matches = "replicated")
+class ReplicaReadsIT {
+
+    @Autowired
+    private RestTestClient client;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Clean up Redis before each test
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+    }
+
+    @Test
+    void shouldReadValuesOnceReplicated() {
+        // Written by another client, so only a replica answers and the value shows up once replicated
+        redisTemplate.opsForValue().set("replicated", "value");
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertValue("replicated", "value"));
+    }
+
+    @Test
+    void shouldReadOwnWritesImmediately() {
+        // Reading back every write straight away would hit a stale replica sooner or later without read-your-writes
+        for (int i = 0; i < 50; i++) {
+            String value = "v" + i;
+            client.put()
+                .uri("/api/redis/mine")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("value", value))
+                .exchange()
+                .expectStatus().isOk();
+
+            assertValue("mine", value);
+        }
+    }
+
+    @Test
+    void shouldNotFindOwnDeletes() {
+        // Setup
+        client.put()
+            .uri("/api/redis/gone")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Map.of("value", "soon"))
+            .exchange()
+            .expectStatus().isOk();
+
+        client.delete()
+            .uri("/api/redis/gone")
+            .exchange()
+            .expectStatus().isOk();
+
+        client.get()
+            .uri("/api/redis/gone")
+            .exchange()
+            .expectStatus().isNotFound();
+    }
+
+    private void assertValue(String key, String expected) {
+        client.get()
+            .uri("/api/redis/{key}", key)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.value").isEqualTo(expected);
+    }
+}
@@ -0,0 +1,90 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.client.RestTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "demo.redis.write-coalescing.enabled=true")
+@AutoConfigureRestTestClient
+class WriteCoalescingIT {
+
+    @Autowired
+    private RestTestClient client;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Clean up Redis before each test
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+    }
+
+    @Test
+    void shouldGiveEachConcurrentWriterItsOwnResult() throws Exception {
+        List<Future<Integer>> statuses = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // 20 writers race for each of 10 keys; exactly one per key may win
+            for (int i = 0; i < 200; i++) {
+                String key = "contended" + (i % 10);
+                String value = "writer" + i;
+                statuses.add(executor.submit(() -> client.post()
+                    .uri("/api/redis/{key}", key)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("value", value))
+                    .exchange()
+                    .returnResult(Map.class)
+                    .getStatus()
+                    .value()));
+            }
+        }
+
+        List<Integer> results = new ArrayList<>();
+        for (Future<Integer> status : statuses) {
+            results.add(status.get());
+        }
+
+        assertThat(results).filteredOn(status -> status == 201).hasSize(10);
+        assertThat(results).filteredOn(status -> status == 409).hasSize(190);
+    }
+
+    @Test
+    void shouldUpdateAndDeleteThroughCoalescer() {
+        // Setup
+        redisTemplate.opsForValue().set("key", "old");
+
+        client.put()
+            .uri("/api/redis/key")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Map.of("value", "new"))
+            .exchange()
+            .expectStatus().isOk();
+
+        assertThat(redisTemplate.opsForValue().get("key")).isEqualTo("new");
+
+        client.delete()
+            .uri("/api/redis/key")
+            .exchange()
+            .expectStatus().isOk();
+
+        client.delete()
+            .uri("/api/redis/key")
+            .exchange()
+            .expectStatus().isNotFound();
+    }
+}
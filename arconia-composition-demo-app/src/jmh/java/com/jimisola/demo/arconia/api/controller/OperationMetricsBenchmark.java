@@ -0,0 +1,116 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import com.jimisola.demo.arconia.api.hotkeys.HotKeys;
+import com.jimisola.demo.arconia.redis.KeyspaceChanges;
+import com.jimisola.demo.arconia.redis.RedisApiProperties;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
+
+/**
+ * Cost of the per-request instrumentation in {@link RedisController}, against a real SDK meter so
+ * aggregation is included. Run with {@code -prof gc}: the {@link OperationMetrics} benchmarks should
+ * report ~0 B/op, while building {@link Attributes} per call allocates on every request. That includes
+ * counting the key towards the {@link HotKeys}, for a key that is already among the hot keys.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperationMetricsBenchmark {
+
+    private SdkMeterProvider meterProvider;
+    private LongCounter redisOperationsCounter;
+    private OperationMetrics metrics;
+    private OperationMetrics trackingMetrics;
+    private HotKeys hotKeys;
+    private String key;
+    private String value;
+
+    @Setup
+    public void setUp() {
+        meterProvider = SdkMeterProvider.builder()
+            .registerMetricReader(InMemoryMetricReader.create())
+            .build();
+
+        redisOperationsCounter = meterProvider.get("benchmark")
+            .counterBuilder("redis.operations.total")
+            .setUnit("operations")
+            .build();
+
+        metrics = new OperationMetrics(meterProvider.get("benchmark"), Attributes.empty());
+
+        RedisApiProperties properties = new Binder(new MapConfigurationPropertySource())
+            .bindOrCreate("demo.redis", RedisApiProperties.class);
+        hotKeys = new HotKeys(properties, new DefaultListableBeanFactory().getBeanProvider(KeyspaceChanges.class),
+            meterProvider.get("benchmark"));
+        trackingMetrics = new OperationMetrics(meterProvider.get("benchmark"), Attributes.empty(), hotKeys);
+        key = "benchmark:key";
+        value = "x".repeat(1024);
+    }
+
+    @TearDown
+    public void tearDown() {
+        hotKeys.close();
+        meterProvider.close();
+    }
+
+    /**
+     * Baseline: a new attribute set for every increment.
+     */
+    @Benchmark
+    public void attributesPerCall() {
+        redisOperationsCounter.add(1, Attributes.builder()
+            .put("operation", "get")
+            .put("status", "success")
+            .build());
+    }
+
+    @Benchmark
+    public void prebuiltAttributes() {
+        metrics.count(OperationMetrics.Operation.GET, OperationMetrics.Status.SUCCESS);
+    }
+
+    /**
+     * Everything a GET records: Redis latency, value size, the counter and end-to-end latency.
+     */
+    @Benchmark
+    public void recordRequest() {
+        long start = System.nanoTime();
+        metrics.redisCall(OperationMetrics.Operation.GET, start);
+        metrics.valueSize(OperationMetrics.Operation.GET, value);
+        metrics.completed(OperationMetrics.Operation.GET, OperationMetrics.Status.SUCCESS, start);
+    }
+
+    /**
+     * Everything a GET records with hot key tracking enabled: the access count and value size of the key too.
+     */
+    @Benchmark
+    public void recordRequestWithHotKeys() {
+        long start = System.nanoTime();
+        trackingMetrics.redisCall(OperationMetrics.Operation.GET, start, key, value);
+        trackingMetrics.completed(OperationMetrics.Operation.GET, OperationMetrics.Status.SUCCESS, start);
+    }
+}
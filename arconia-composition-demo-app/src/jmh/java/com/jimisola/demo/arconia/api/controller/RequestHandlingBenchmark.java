@@ -0,0 +1,67 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Per-request work in {@link RedisController} that does not touch Redis: binding the
+ * {@link ValueRequest} body, building the response map and writing it back as JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestHandlingBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    private int valueSize;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private String value;
+    private byte[] requestBody;
+    private Map<String, String> response;
+
+    @Setup
+    public void setUp() {
+        value = "x".repeat(valueSize);
+        requestBody = ("{\"value\":\"" + value + "\"}").getBytes(StandardCharsets.UTF_8);
+        response = buildResponse();
+    }
+
+    @Benchmark
+    public ValueRequest bindValueRequest() {
+        return jsonMapper.readValue(requestBody, ValueRequest.class);
+    }
+
+    @Benchmark
+    public Map<String, String> buildResponse() {
+        Map<String, String> response = new HashMap<>();
+        response.put("key", "benchmark");
+        response.put("value", value);
+        return response;
+    }
+
+    @Benchmark
+    public byte[] writeResponse() {
+        return jsonMapper.writeValueAsBytes(response);
+    }
+}
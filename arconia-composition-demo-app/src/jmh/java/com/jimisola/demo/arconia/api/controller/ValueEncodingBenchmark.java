@@ -0,0 +1,72 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * What serving a value costs after Redis has returned its bytes: the JSON endpoint decodes
+ * them to a String and Jackson encodes a response map, while {@link RedisRawController}
+ * writes the bytes as they are. Compare {@code gc.alloc.rate.norm} with {@code -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueEncodingBenchmark {
+
+    @Param({"1024", "1048576"})
+    private int valueSize;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    // Discards everything; unlike OutputStream.nullOutputStream() it stays usable after Jackson closes it
+    private final OutputStream servletOutput = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private byte[] redisReply;
+
+    @Setup
+    public void setUp() {
+        redisReply = "x".repeat(valueSize).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void json() {
+        String value = new String(redisReply, StandardCharsets.UTF_8);
+        Map<String, String> response = new HashMap<>();
+        response.put("key", "benchmark");
+        response.put("value", value);
+        jsonMapper.writeValue(servletOutput, response);
+    }
+
+    @Benchmark
+    public void raw() throws IOException {
+        servletOutput.write(redisReply);
+    }
+}
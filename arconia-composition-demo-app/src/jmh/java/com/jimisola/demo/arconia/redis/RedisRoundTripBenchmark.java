@@ -0,0 +1,74 @@
+package com.jimisola.demo.arconia.redis;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.redis.testcontainers.RedisContainer;
+
+/**
+ * GET and SET round trips through the same {@code RedisTemplate} operations the controller uses,
+ * against a Redis started with Testcontainers. Requires a running Docker daemon.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class RedisRoundTripBenchmark {
+
+    @Param({"16", "1024"})
+    private int valueSize;
+
+    private RedisContainer redis;
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private String value;
+
+    @Setup
+    public void setUp() {
+        redis = new RedisContainer(RedisContainer.DEFAULT_IMAGE_NAME.withTag(RedisContainer.DEFAULT_TAG));
+        redis.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(redis.getHost(), redis.getFirstMappedPort()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+
+        value = "x".repeat(valueSize);
+        redisTemplate.opsForValue().set("benchmark", value);
+    }
+
+    @TearDown
+    public void tearDown() {
+        connectionFactory.destroy();
+        redis.stop();
+    }
+
+    @Benchmark
+    public String get() {
+        return redisTemplate.opsForValue().get("benchmark");
+    }
+
+    @Benchmark
+    public void set() {
+        redisTemplate.opsForValue().set("benchmark", value);
+    }
+}
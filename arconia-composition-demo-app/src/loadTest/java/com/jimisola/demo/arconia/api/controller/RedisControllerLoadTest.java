@@ -0,0 +1,140 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import com.jimisola.demo.arconia.load.LatencyBudget;
+import com.jimisola.demo.arconia.load.LoadGenerator;
+import com.jimisola.demo.arconia.load.LoadResult;
+
+/**
+ * Throughput and latency of the key/value endpoints, checked against latency-budget.properties.
+ *
+ * Tune with -Pload.concurrency, -Pload.rate (requests/s), -Pload.warmup-seconds and -Pload.duration-seconds.
+ * Full percentile distributions are written as .hgrm files to the load report directory.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class RedisControllerLoadTest {
+
+    private static final int SEEDED_KEYS = 1000;
+    private static final String VALUE = "{\"value\":\"" + "x".repeat(256) + "\"}";
+
+    private static final LatencyBudget BUDGET = LatencyBudget.load("latency-budget.properties");
+    private static final Path REPORT_DIRECTORY = Path.of(System.getProperty("load.report-dir", "build/reports/load"));
+    private static final HttpClient HTTP = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    private final int concurrency = Integer.getInteger("load.concurrency", 32);
+    private final int rate = Integer.getInteger("load.rate", 500);
+    private final LoadGenerator generator = new LoadGenerator(
+        Duration.ofSeconds(Integer.getInteger("load.warmup-seconds", 5)),
+        Duration.ofSeconds(Integer.getInteger("load.duration-seconds", 20)));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+
+        Map<String, String> seed = new HashMap<>();
+        for (int i = 0; i < SEEDED_KEYS; i++) {
+            seed.put("load:" + i, VALUE);
+        }
+        redisTemplate.opsForValue().multiSet(seed);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        HTTP.close();
+    }
+
+    @ParameterizedTest(name = "{0} at concurrency")
+    @ValueSource(strings = {"get", "get_all", "create", "update", "delete"})
+    void closedLoop(String endpoint, TestReporter reporter) throws Exception {
+        LoadResult result = generator.closedLoop(endpoint + ".closed", concurrency, request(endpoint), expectedStatus(endpoint));
+
+        assertWithinBudget(result, reporter);
+    }
+
+    @ParameterizedTest(name = "{0} at fixed rate")
+    @ValueSource(strings = {"get", "get_all", "create", "update", "delete"})
+    void openLoop(String endpoint, TestReporter reporter) throws Exception {
+        LoadResult result = generator.openLoop(endpoint + ".open", rate, request(endpoint), expectedStatus(endpoint));
+
+        assertWithinBudget(result, reporter);
+    }
+
+    private LoadGenerator.Request request(String endpoint) {
+        if (endpoint.equals("delete")) {
+            // A fresh key per request, created untimed, so every measured delete removes a key instead of answering 404
+            return new LoadGenerator.Request() {
+                @Override
+                public void prepare(long sequence) {
+                    redisTemplate.opsForValue().set("load:deleted:" + sequence, VALUE);
+                }
+
+                @Override
+                public int send(long sequence) throws Exception {
+                    HttpRequest request = get("/api/redis/load:deleted:" + sequence).DELETE().build();
+                    return HTTP.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                }
+            };
+        }
+        return sequence -> {
+            String seededKey = "load:" + (sequence % SEEDED_KEYS);
+            HttpRequest request = switch (endpoint) {
+                case "get" -> get("/api/redis/" + seededKey).build();
+                case "get_all" -> get("/api/redis?count=100").build();
+                case "create" -> json("/api/redis/load:created:" + sequence).POST(HttpRequest.BodyPublishers.ofString(VALUE)).build();
+                case "update" -> json("/api/redis/" + seededKey).PUT(HttpRequest.BodyPublishers.ofString(VALUE)).build();
+                default -> throw new IllegalArgumentException(endpoint);
+            };
+            return HTTP.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        };
+    }
+
+    private static IntPredicate expectedStatus(String endpoint) {
+        return switch (endpoint) {
+            case "create" -> status -> status == 201;
+            default -> status -> status == 200;
+        };
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+    }
+
+    private HttpRequest.Builder json(String path) {
+        return get(path).header("Content-Type", "application/json");
+    }
+
+    private static void assertWithinBudget(LoadResult result, TestReporter reporter) throws Exception {
+        Path distribution = result.writeDistribution(REPORT_DIRECTORY);
+        reporter.publishEntry(Map.of(result.scenario(), result.summary(), "distribution", distribution.toString()));
+
+        assertThat(result.errors()).as("%s unexpected responses", result.scenario()).isZero();
+        assertThat(BUDGET.violations(result)).isEmpty();
+    }
+}
@@ -0,0 +1,55 @@
+package com.jimisola.demo.arconia.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Checked-in latency budgets, in milliseconds, keyed by {@code <scenario>.<p50|p99|p99.9>}.
+ *
+ * A scenario without a budget for a percentile is only reported, never failed.
+ */
+public final class LatencyBudget {
+
+    private static final String[] PERCENTILES = {"p50", "p99", "p99.9"};
+
+    private final Properties budgets;
+
+    private LatencyBudget(Properties budgets) {
+        this.budgets = budgets;
+    }
+
+    public static LatencyBudget load(String resource) {
+        Properties budgets = new Properties();
+        try (InputStream in = LatencyBudget.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Latency budget not found on the classpath: " + resource);
+            }
+            budgets.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new LatencyBudget(budgets);
+    }
+
+    /**
+     * Describe every percentile of {@code result} that is over its budget; empty when within budget.
+     */
+    public List<String> violations(LoadResult result) {
+        List<String> violations = new ArrayList<>();
+        for (String percentile : PERCENTILES) {
+            String budget = budgets.getProperty(result.scenario() + "." + percentile);
+            if (budget == null) {
+                continue;
+            }
+            double measured = result.percentileMillis(Double.parseDouble(percentile.substring(1)));
+            if (measured > Double.parseDouble(budget)) {
+                violations.add("%s %s was %.3f ms, budget is %s ms".formatted(result.scenario(), percentile, measured, budget));
+            }
+        }
+        return violations;
+    }
+}
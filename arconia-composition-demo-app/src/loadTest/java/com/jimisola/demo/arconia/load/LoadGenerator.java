@@ -0,0 +1,147 @@
+package com.jimisola.demo.arconia.load;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntPredicate;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Drives a request against the application and records its latency in microseconds.
+ *
+ * Closed loop: a fixed number of workers each send the next request as soon as the previous one
+ * returns. Open loop: requests are started on a fixed schedule no matter how many are still in
+ * flight, and latency is measured from the scheduled start, so a stalled server shows up as high
+ * latency instead of silently lowering the send rate (coordinated omission).
+ */
+public final class LoadGenerator {
+
+    /**
+     * One request; returns the HTTP status code, which {@code expected} checks for success.
+     */
+    @FunctionalInterface
+    public interface Request {
+        int send(long sequence) throws Exception;
+
+        /**
+         * Untimed work before {@link #send}, such as creating the key it deletes. In an open loop it runs on the
+         * scheduling thread ahead of the request's start, so it must take well under the interval between requests.
+         */
+        default void prepare(long sequence) throws Exception {
+        }
+    }
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Duration warmup;
+    private final Duration duration;
+    // Never reset, so requests that need a fresh key get one across warm-up and measurement
+    private final AtomicLong sequence = new AtomicLong();
+
+    public LoadGenerator(Duration warmup, Duration duration) {
+        this.warmup = warmup;
+        this.duration = duration;
+    }
+
+    /**
+     * Run {@code concurrency} workers back to back for the warm-up and then the measured duration.
+     */
+    public LoadResult closedLoop(String scenario, int concurrency, Request request, IntPredicate expected) {
+        closedLoop(concurrency, warmup, request, expected, null);
+        Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        long errors = closedLoop(concurrency, duration, request, expected, histogram);
+        return new LoadResult(scenario, histogram, errors, duration);
+    }
+
+    /**
+     * Start {@code ratePerSecond} requests per second on a fixed schedule for the warm-up and then the measured duration.
+     */
+    public LoadResult openLoop(String scenario, int ratePerSecond, Request request, IntPredicate expected) {
+        openLoop(ratePerSecond, warmup, request, expected, null);
+        Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        long errors = openLoop(ratePerSecond, duration, request, expected, histogram);
+        return new LoadResult(scenario, histogram, errors, duration);
+    }
+
+    private long closedLoop(int concurrency, Duration runFor, Request request, IntPredicate expected,
+            Histogram histogram) {
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + runFor.toNanos();
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.execute(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long next = sequence.getAndIncrement();
+                        if (!prepare(request, next, errors)) {
+                            continue;
+                        }
+                        long start = System.nanoTime();
+                        send(request, next, expected, errors);
+                        record(histogram, start);
+                    }
+                });
+            }
+        }
+        return errors.get();
+    }
+
+    private long openLoop(int ratePerSecond, Duration runFor, Request request, IntPredicate expected,
+            Histogram histogram) {
+        AtomicLong errors = new AtomicLong();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long total = runFor.toNanos() / intervalNanos;
+        long begin = System.nanoTime();
+
+        try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < total; i++) {
+                long intendedStart = begin + i * intervalNanos;
+                long next = sequence.getAndIncrement();
+                boolean prepared = prepare(request, next, errors);
+                long wait = intendedStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (!prepared) {
+                    continue;
+                }
+                senders.execute(() -> {
+                    send(request, next, expected, errors);
+                    record(histogram, intendedStart);
+                });
+            }
+        }
+        return errors.get();
+    }
+
+    private static boolean prepare(Request request, long sequence, AtomicLong errors) {
+        try {
+            request.prepare(sequence);
+            return true;
+        } catch (Exception e) {
+            errors.incrementAndGet();
+            return false;
+        }
+    }
+
+    private static void send(Request request, long sequence, IntPredicate expected, AtomicLong errors) {
+        try {
+            if (!expected.test(request.send(sequence))) {
+                errors.incrementAndGet();
+            }
+        } catch (Exception e) {
+            errors.incrementAndGet();
+        }
+    }
+
+    private static void record(Histogram histogram, long startNanos) {
+        if (histogram != null) {
+            histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos), HIGHEST_TRACKABLE_MICROS));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.jimisola.demo.arconia.load;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency distribution (microseconds) and error count of one load scenario.
+ */
+public record LoadResult(String scenario, Histogram histogram, long errors, Duration duration) {
+
+    public long requests() {
+        return histogram.getTotalCount();
+    }
+
+    public double throughput() {
+        return requests() / (duration.toMillis() / 1000.0);
+    }
+
+    public double percentileMillis(double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    public String summary() {
+        return "%-20s %8d req %9.1f req/s  p50 %8.3f ms  p99 %8.3f ms  p99.9 %8.3f ms  max %8.3f ms  errors %d".formatted(
+            scenario, requests(), throughput(), percentileMillis(50), percentileMillis(99), percentileMillis(99.9),
+            histogram.getMaxValue() / 1000.0, errors);
+    }
+
+    /**
+     * Write the full percentile distribution in HdrHistogram's .hgrm format, scaled to milliseconds.
+     */
+    public Path writeDistribution(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(scenario + ".hgrm");
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+        return file;
+    }
+}
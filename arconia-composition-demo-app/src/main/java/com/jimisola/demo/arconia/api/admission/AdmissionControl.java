@@ -0,0 +1,153 @@
+package com.jimisola.demo.arconia.api.admission;
+
+import com.jimisola.demo.arconia.redis.RedisApiProperties;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.BatchCallback;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableLongMeasurement;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Sheds load on the {@code /api/redis} and {@code /api/redis-async} endpoints before it reaches Redis.
+ *
+ * Each request takes a permit from a {@link ConcurrencyLimiter} and returns it with its latency when it
+ * completes, so the limit follows how fast Redis answers. Requests beyond the limit are rejected at once
+ * with 503 and {@code Retry-After} instead of waiting on a servlet thread; when Redis slows down the
+ * limit shrinks and the requests that are admitted keep their latency.
+ *
+ * Handlers marked {@link Expensive} have their own limit. Streaming uploads and downloads are not limited,
+ * as their latency depends on the client's bandwidth rather than on Redis, and neither is the change feed,
+ * whose subscriptions stay open.
+ */
+@Component
+@ConditionalOnProperty(prefix = "demo.redis.admission", name = "enabled", havingValue = "true")
+public class AdmissionControl implements AsyncHandlerInterceptor, WebMvcConfigurer, AutoCloseable {
+
+    public enum Group { STANDARD, EXPENSIVE }
+
+    private static final AttributeKey<String> GROUP = AttributeKey.stringKey("group");
+    private static final Attributes STANDARD = Attributes.of(GROUP, "standard");
+    private static final Attributes EXPENSIVE = Attributes.of(GROUP, "expensive");
+
+    // The permit of a request, kept until its async processing (e.g. a streamed export) has finished as well
+    private static final String PERMIT_ATTRIBUTE = AdmissionControl.class.getName() + ".permit";
+
+    private final ConcurrencyLimiter standard;
+    private final ConcurrencyLimiter expensive;
+    private final String retryAfterSeconds;
+    private final JsonMapper jsonMapper;
+    private final LongCounter rejectedCounter;
+    private final BatchCallback callback;
+
+    public AdmissionControl(RedisApiProperties properties, JsonMapper jsonMapper, Meter meter) {
+        RedisApiProperties.Admission admission = properties.admission();
+        this.standard = limiter(admission.algorithm(), admission.standard());
+        this.expensive = limiter(admission.algorithm(), admission.expensive());
+        this.retryAfterSeconds = String.valueOf(Math.max(1, admission.retryAfter().toSeconds()));
+        this.jsonMapper = jsonMapper;
+
+        this.rejectedCounter = meter
+            .counterBuilder("redis.admission.rejected")
+            .setDescription("Number of requests rejected because the concurrency limit was reached")
+            .setUnit("requests")
+            .build();
+
+        ObservableLongMeasurement limit = meter
+            .gaugeBuilder("redis.admission.limit")
+            .setDescription("Current concurrency limit")
+            .setUnit("requests")
+            .ofLongs()
+            .buildObserver();
+        ObservableLongMeasurement inFlight = meter
+            .gaugeBuilder("redis.admission.in_flight")
+            .setDescription("Admitted requests that have not completed yet")
+            .setUnit("requests")
+            .ofLongs()
+            .buildObserver();
+        this.callback = meter.batchCallback(() -> {
+            limit.record(standard.limit(), STANDARD);
+            limit.record(expensive.limit(), EXPENSIVE);
+            inFlight.record(standard.inFlight(), STANDARD);
+            inFlight.record(expensive.inFlight(), EXPENSIVE);
+        }, limit, inFlight);
+    }
+
+    private static ConcurrencyLimiter limiter(ConcurrencyLimiter.Algorithm algorithm, RedisApiProperties.Admission.Limit limit) {
+        return new ConcurrencyLimiter(algorithm, limit.initial(), limit.min(), limit.max(), limit.latency());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this)
+            .addPathPatterns("/api/redis/**", "/api/redis-async/**")
+            .excludePathPatterns("/api/redis/*/stream", "/api/redis/_changes");
+    }
+
+    public ConcurrencyLimiter limiter(Group group) {
+        return group == Group.EXPENSIVE ? expensive : standard;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            // Admitted when the request first came in
+            return true;
+        }
+
+        boolean isExpensive = isExpensive(handler);
+        ConcurrencyLimiter limiter = isExpensive ? expensive : standard;
+        if (!limiter.tryAcquire()) {
+            rejectedCounter.add(1, isExpensive ? EXPENSIVE : STANDARD);
+            reject(response);
+            return false;
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, new Permit(limiter, System.nanoTime()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof Permit permit) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permit.limiter().release(System.nanoTime() - permit.start(), ex != null || response.getStatus() >= 500);
+        }
+    }
+
+    private static boolean isExpensive(Object handler) {
+        return handler instanceof HandlerMethod method
+            && (method.hasMethodAnnotation(Expensive.class) || method.getBeanType().isAnnotationPresent(Expensive.class));
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        jsonMapper.writeValue(response.getOutputStream(), Map.of(
+            "error", "Overloaded",
+            "message", "Too many concurrent requests, retry after " + retryAfterSeconds + "s"));
+    }
+
+    @Override
+    public void close() {
+        callback.close();
+    }
+
+    private record Permit(ConcurrencyLimiter limiter, long start) {}
+}
@@ -0,0 +1,130 @@
+package com.jimisola.demo.arconia.api.admission;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the number of requests in flight at a limit that adapts to how fast they complete.
+ *
+ * Two ways of moving the limit, both backing off by 10% when a request fails:
+ * <ul>
+ *     <li>{@link Algorithm#AIMD}: grows by one while requests finish within {@code latency} and the
+ *     limit is in use, and backs off when one takes longer. Predictable, but {@code latency} has to be tuned.</li>
+ *     <li>{@link Algorithm#GRADIENT}: compares each latency with a slowly moving average of past ones
+ *     and shrinks the limit by that ratio, so it finds the point where requests start to queue without
+ *     a fixed target. {@code latency} is not used.</li>
+ * </ul>
+ * The limit only grows while at least half of it is used, so it does not drift up when traffic is light.
+ */
+public class ConcurrencyLimiter {
+
+    public enum Algorithm { AIMD, GRADIENT }
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    // Latency up to this multiple of the long-term average counts as normal
+    private static final double GRADIENT_TOLERANCE = 1.5;
+
+    // Samples the long-term average of the gradient algorithm spans
+    private static final int GRADIENT_WINDOW = 100;
+
+    private static final double GRADIENT_SMOOTHING = 0.2;
+
+    private final Algorithm algorithm;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimatedLimit;
+    private double longLatencyNanos;
+
+    public ConcurrencyLimiter(Algorithm algorithm, int initialLimit, int minLimit, int maxLimit, Duration latency) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= max, got min " + minLimit + ", max " + maxLimit);
+        }
+        this.algorithm = algorithm;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyNanos = latency.toNanos();
+        this.estimatedLimit = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * @return whether the request may proceed; if so, {@link #release} must be called when it completes
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * @param latencyNanos how long the request took
+     * @param failed whether it failed in a way that suggests overload, such as a Redis timeout
+     */
+    public void release(long latencyNanos, boolean failed) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        update(latencyNanos, inFlightBefore, failed);
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long latency, int inFlightBefore, boolean failed) {
+        double next;
+        if (failed) {
+            next = estimatedLimit * BACKOFF_RATIO;
+        } else if (algorithm == Algorithm.AIMD) {
+            next = aimd(latency, inFlightBefore);
+        } else {
+            next = gradient(latency, inFlightBefore);
+        }
+        estimatedLimit = Math.clamp(next, minLimit, maxLimit);
+        limit = (int) estimatedLimit;
+    }
+
+    private double aimd(long latency, int inFlightBefore) {
+        if (latency > latencyNanos) {
+            return estimatedLimit * BACKOFF_RATIO;
+        }
+        return isUsed(inFlightBefore) ? estimatedLimit + 1 : estimatedLimit;
+    }
+
+    private double gradient(long latency, int inFlightBefore) {
+        longLatencyNanos = longLatencyNanos == 0
+            ? latency
+            : longLatencyNanos + (latency - longLatencyNanos) / GRADIENT_WINDOW;
+        // Under sustained overload the average creeps up to the queued latency; pull it back down
+        // once latency recovers so that the limit can grow again
+        if (longLatencyNanos > 2.0 * latency) {
+            longLatencyNanos *= 0.95;
+        }
+        if (!isUsed(inFlightBefore)) {
+            return estimatedLimit;
+        }
+
+        double gradient = Math.clamp(GRADIENT_TOLERANCE * longLatencyNanos / Math.max(latency, 1), 0.5, 1.0);
+        // The square root leaves room for a few queued requests, which is what lets the limit grow
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        return estimatedLimit * (1 - GRADIENT_SMOOTHING) + target * GRADIENT_SMOOTHING;
+    }
+
+    private boolean isUsed(int inFlightBefore) {
+        return inFlightBefore * 2 >= limit;
+    }
+}
@@ -0,0 +1,18 @@
+package com.jimisola.demo.arconia.api.admission;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler method, or all handler methods of a controller, whose requests do much more work in
+ * Redis than a single-key command. {@link AdmissionControl} admits them under the separate, smaller
+ * {@code demo.redis.admission.expensive} limit, so a burst of them cannot crowd out cheap requests.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Expensive {
+}
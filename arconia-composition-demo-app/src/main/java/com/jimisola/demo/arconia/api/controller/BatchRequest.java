@@ -0,0 +1,36 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Request body for running several key operations in one call.
+ *
+ * @param atomic run the operations as one Lua script instead of a plain pipeline; on Redis Cluster all keys must share a hash slot
+ * @param operations the operations, executed in order
+ */
+public record BatchRequest(boolean atomic, List<Operation> operations) {
+
+    /**
+     * A single operation of a batch.
+     *
+     * @param op one of {@code get}, {@code create}, {@code update} or {@code delete}
+     * @param key the Redis key
+     * @param value the value for {@code create} and {@code update}
+     * @param ttlSeconds optional expiry for {@code create} and {@code update}, as in {@link ValueRequest}
+     */
+    public record Operation(String op, String key, String value, Long ttlSeconds) {
+
+        public Operation(String op, String key, String value) {
+            this(op, key, value, null);
+        }
+
+        boolean hasValidTtl() {
+            return ttlSeconds == null || ValueRequest.isValidTtl(ttlSeconds);
+        }
+
+        Duration ttl() {
+            return ttlSeconds != null ? Duration.ofSeconds(ttlSeconds) : null;
+        }
+    }
+}
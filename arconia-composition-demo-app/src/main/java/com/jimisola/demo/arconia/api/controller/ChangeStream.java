@@ -0,0 +1,129 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import com.jimisola.demo.arconia.redis.KeyspaceChanges;
+import com.jimisola.demo.arconia.redis.KeyspaceChanges.Change;
+import org.springframework.http.MediaType;
+import org.springframework.util.PatternMatchUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One subscriber of {@code GET /api/redis/_changes}: changes are queued by the dispatcher without blocking
+ * and written to the client by a virtual thread of its own, so a slow client only delays itself.
+ *
+ * A client that falls {@code queueCapacity} changes behind is disconnected. Browsers' EventSource, and any
+ * client sending Last-Event-ID, reconnects and resumes from the changes buffered by {@link KeyspaceChanges}.
+ */
+final class ChangeStream implements KeyspaceChanges.Subscriber {
+
+    private final KeyspaceChanges changes;
+    private final SseEmitter emitter;
+    private final BlockingQueue<Change> queue;
+    private final String match;
+    private final boolean values;
+    private final long heartbeatNanos;
+    private final Runnable onOverflow;
+    private volatile Thread writer;
+    private volatile boolean closed;
+
+    /**
+     * @param match glob the keys have to match, only {@code *} is a wildcard; {@code null} for all keys
+     * @param onOverflow called when the client is disconnected for falling behind
+     */
+    ChangeStream(KeyspaceChanges changes, SseEmitter emitter, int queueCapacity, String match, boolean values,
+            Duration heartbeat, Runnable onOverflow) {
+        this.changes = changes;
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.match = match;
+        this.values = values;
+        this.heartbeatNanos = heartbeat.toNanos();
+        this.onOverflow = onOverflow;
+    }
+
+    /**
+     * Subscribe and start writing; changes after {@code lastEventId} are replayed first.
+     */
+    void start(String lastEventId) {
+        emitter.onCompletion(this::close);
+        emitter.onTimeout(this::close);
+        emitter.onError(error -> close());
+        changes.subscribe(this, lastEventId);
+        if (closed) {
+            // Closed before the subscription was in place, when close() had nothing to remove yet
+            changes.unsubscribe(this);
+        }
+        writer = Thread.ofVirtual().name("redis-changes-writer").start(this::run);
+    }
+
+    @Override
+    public boolean wantsValues() {
+        return values;
+    }
+
+    @Override
+    public void onChange(Change change) {
+        if (closed || (change.key() != null && match != null && !PatternMatchUtils.simpleMatch(match, change.key()))) {
+            return;
+        }
+        if (!queue.offer(change)) {
+            onOverflow.run();
+            close();
+        }
+    }
+
+    private void run() {
+        try {
+            while (!closed) {
+                Change change = queue.poll(heartbeatNanos, TimeUnit.NANOSECONDS);
+                if (change == null) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    emitter.send(SseEmitter.event()
+                        .id(change.id())
+                        .name(change.type().value())
+                        .data(data(change), MediaType.APPLICATION_JSON));
+                }
+            }
+            // Closed for falling behind; the client reconnects and resumes
+            emitter.complete();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or the emitter already completed
+            close();
+        }
+    }
+
+    private Map<String, String> data(Change change) {
+        Map<String, String> data = new LinkedHashMap<>();
+        data.put("type", change.type().value());
+        if (change.key() != null) {
+            data.put("key", change.key());
+        }
+        if (values && change.value() != null) {
+            data.put("value", change.value());
+        }
+        return data;
+    }
+
+    private void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        changes.unsubscribe(this);
+        Thread thread = writer;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+}
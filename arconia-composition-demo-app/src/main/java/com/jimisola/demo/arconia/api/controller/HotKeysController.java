@@ -0,0 +1,76 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import com.jimisola.demo.arconia.api.hotkeys.HotKeys;
+import com.jimisola.demo.arconia.api.hotkeys.TopK;
+import com.jimisola.demo.arconia.redis.RedisApiProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The keys taking the most traffic and holding the largest values, as tracked by {@link HotKeys}.
+ * Candidates for the near cache, for splitting, or for moving to a shard of their own.
+ */
+@RestController
+@RequestMapping("/api/redis")
+public class HotKeysController {
+
+    private final HotKeys hotKeys;
+    private final int topK;
+
+    public HotKeysController(ObjectProvider<HotKeys> hotKeys, RedisApiProperties properties) {
+        this.hotKeys = hotKeys.getIfAvailable();
+        this.topK = properties.hotKeys().topK();
+    }
+
+    /**
+     * Get the hot and big keys
+     * GET /api/redis/_hot-keys?limit=20
+     *
+     * accesses are estimated and aged, so they count recent traffic; share is their fraction of all recent
+     * single-key accesses. sizeBytes is the last size seen of the value, before compression.
+     */
+    @GetMapping("/_hot-keys")
+    public ResponseEntity<Map<String, Object>> get(@RequestParam(required = false) Integer limit) {
+        if (hotKeys == null) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Hot key tracking disabled");
+            errorResponse.put("message", "Set demo.redis.hot-keys.enabled=true to track hot and big keys");
+
+            return ResponseEntity.status(404).body(errorResponse);
+        }
+
+        int count = limit != null ? Math.clamp(limit, 1, topK) : topK;
+        long total = hotKeys.totalAccesses();
+
+        List<Map<String, Object>> hot = new ArrayList<>();
+        for (TopK.Entry entry : hotKeys.hot(count)) {
+            Map<String, Object> key = new LinkedHashMap<>();
+            key.put("key", entry.key());
+            key.put("accesses", entry.value());
+            key.put("share", total > 0 ? Math.min(1.0, (double) entry.value() / total) : 0.0);
+            hot.add(key);
+        }
+
+        List<Map<String, Object>> big = new ArrayList<>();
+        for (TopK.Entry entry : hotKeys.big(count)) {
+            Map<String, Object> key = new LinkedHashMap<>();
+            key.put("key", entry.key());
+            key.put("sizeBytes", entry.value());
+            big.add(key);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("totalAccesses", total);
+        response.put("hotKeys", hot);
+        response.put("bigKeys", big);
+
+        return ResponseEntity.ok(response);
+    }
+}
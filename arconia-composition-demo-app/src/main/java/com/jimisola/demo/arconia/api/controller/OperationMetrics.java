@@ -0,0 +1,319 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import com.jimisola.demo.arconia.api.hotkeys.HotKeys;
+import com.jimisola.demo.arconia.observability.RedisCallEvent;
+import com.jimisola.demo.arconia.observability.RedisOperationEvent;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.LongHistogram;
+import io.opentelemetry.api.metrics.Meter;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Per-operation metrics for the key/value endpoints.
+ *
+ * Every operation/status attribute set is built once up front, so recording a request only
+ * looks up prebuilt {@link Attributes} and allocates nothing on the request path.
+ *
+ * Operations and Redis calls are also committed as {@link RedisOperationEvent} and {@link RedisCallEvent}
+ * Flight Recorder events, which carry the key and value sizes of the individual request. With
+ * {@link HotKeys}, each key and value size is also counted towards the hot and big keys.
+ */
+final class OperationMetrics {
+
+    private static final AttributeKey<String> OPERATION = AttributeKey.stringKey("operation");
+    private static final AttributeKey<String> STATUS = AttributeKey.stringKey("status");
+
+    enum Operation {
+        CREATE("create"),
+        GET("get"),
+        GET_ALL("get_all"),
+        GET_PREFIX("get_prefix"),
+        UPDATE("update"),
+        DELETE("delete"),
+        DELETE_ALL("delete_all"),
+        DELETE_PREFIX("delete_prefix"),
+        BATCH("batch"),
+        EXPORT("export"),
+        IMPORT("import"),
+        GET_TTL("get_ttl"),
+        EXPIRE("expire"),
+        PERSIST("persist");
+
+        private final String value;
+
+        Operation(String value) {
+            this.value = value;
+        }
+    }
+
+    enum Status {
+        SUCCESS("success"),
+        NOT_FOUND("not_found"),
+        CONFLICT("conflict"),
+        PRECONDITION_FAILED("precondition_failed"),
+        ACCEPTED("accepted"),
+        BAD_REQUEST("bad_request"),
+        TOO_LARGE("too_large");
+
+        private final String value;
+
+        Status(String value) {
+            this.value = value;
+        }
+    }
+
+    private final LongCounter operationsCounter;
+    private final DoubleHistogram operationDuration;
+    private final DoubleHistogram commandDuration;
+    private final LongHistogram valueSize;
+    private final Attributes[] operationAttributes;
+    private final Attributes[][] outcomeAttributes;
+    private final HotKeys hotKeys;
+
+    /**
+     * @param common attributes added to every measurement, e.g. the execution mode
+     */
+    OperationMetrics(Meter meter, Attributes common) {
+        this(meter, common, null);
+    }
+
+    /**
+     * @param common attributes added to every measurement, e.g. the execution mode
+     * @param hotKeys where single-key accesses are counted, or {@code null}
+     */
+    OperationMetrics(Meter meter, Attributes common, HotKeys hotKeys) {
+        this.hotKeys = hotKeys;
+
+        this.operationsCounter = meter
+            .counterBuilder("redis.operations.total")
+            .setDescription("Total number of Redis operations")
+            .setUnit("operations")
+            .build();
+
+        this.operationDuration = meter
+            .histogramBuilder("redis.operation.duration")
+            .setDescription("Time to handle a request, from receiving it to building the response")
+            .setUnit("ms")
+            .setExplicitBucketBoundariesAdvice(List.of(0.1, 0.25, 0.5, 1.0, 2.5, 5.0, 10.0, 25.0, 50.0, 100.0, 250.0, 500.0, 1000.0))
+            .build();
+
+        this.commandDuration = meter
+            .histogramBuilder("redis.command.duration")
+            .setDescription("Time spent waiting for Redis while handling a request")
+            .setUnit("ms")
+            .setExplicitBucketBoundariesAdvice(List.of(0.1, 0.25, 0.5, 1.0, 2.5, 5.0, 10.0, 25.0, 50.0, 100.0, 250.0, 500.0, 1000.0))
+            .build();
+
+        this.valueSize = meter
+            .histogramBuilder("redis.value.size")
+            .setDescription("Size of values read or written, in bytes as the client sent or received them, before compression")
+            .setUnit("By")
+            .ofLongs()
+            .setExplicitBucketBoundariesAdvice(List.of(16L, 64L, 256L, 1024L, 4096L, 16384L, 65536L, 262144L, 1048576L, 4194304L))
+            .build();
+
+        Operation[] operations = Operation.values();
+        Status[] statuses = Status.values();
+        this.operationAttributes = new Attributes[operations.length];
+        this.outcomeAttributes = new Attributes[operations.length][statuses.length];
+        for (Operation operation : operations) {
+            operationAttributes[operation.ordinal()] = common.toBuilder()
+                .put(OPERATION, operation.value)
+                .build();
+            for (Status status : statuses) {
+                outcomeAttributes[operation.ordinal()][status.ordinal()] = common.toBuilder()
+                    .put(OPERATION, operation.value)
+                    .put(STATUS, status.value)
+                    .build();
+            }
+        }
+    }
+
+    /**
+     * Record the Redis call(s) of an operation that started at {@code startNanos} ({@link System#nanoTime()}).
+     */
+    void redisCall(Operation operation, long startNanos) {
+        redisCall(operation, startNanos, -1, -1);
+    }
+
+    /**
+     * Record the Redis call(s) of an operation on {@code key} that wrote or read no value.
+     */
+    void redisCall(Operation operation, long startNanos, String key) {
+        redisCall(operation, startNanos, utf8Length(key), -1);
+        if (hotKeys != null) {
+            hotKeys.accessed(key);
+            if (operation == Operation.DELETE) {
+                hotKeys.removed(key);
+            }
+        }
+    }
+
+    /**
+     * Record the Redis call(s) of an operation on {@code key} together with the size of the value
+     * it read or wrote, like {@link #valueSize(Operation, String)}.
+     */
+    void redisCall(Operation operation, long startNanos, String key, String value) {
+        long size = value != null ? utf8Length(value) : -1;
+        redisCall(operation, startNanos, utf8Length(key), size);
+        if (value != null) {
+            valueSize.record(size, operationAttributes[operation.ordinal()]);
+        }
+        keyAccessed(key, size);
+    }
+
+    /**
+     * Record the Redis call(s) of an operation on {@code key} together with the size of the binary value
+     * it read or wrote, like {@link #valueSize(Operation, byte[])}.
+     */
+    void redisCall(Operation operation, long startNanos, String key, byte[] value) {
+        redisCall(operation, startNanos, utf8Length(key), value != null ? value.length : -1);
+        if (value != null) {
+            valueSize.record(value.length, operationAttributes[operation.ordinal()]);
+        }
+        keyAccessed(key, value != null ? value.length : -1);
+    }
+
+    /**
+     * Record the Redis call(s) of an operation that wrote {@code value} to {@code key}, or tried to.
+     * Only a value that was {@code written} counts towards the value sizes; after a conflict or a
+     * failed precondition the key still holds what it held before.
+     */
+    void redisCall(Operation operation, long startNanos, String key, String value, boolean written) {
+        long size = utf8Length(value);
+        redisCall(operation, startNanos, utf8Length(key), size);
+        if (written) {
+            valueSize.record(size, operationAttributes[operation.ordinal()]);
+        }
+        keyAccessed(key, written ? size : -1);
+    }
+
+    /**
+     * Record the Redis call(s) of an operation that wrote the binary {@code value} to {@code key}, or tried to,
+     * like {@link #redisCall(Operation, long, String, String, boolean)}.
+     */
+    void redisCall(Operation operation, long startNanos, String key, byte[] value, boolean written) {
+        redisCall(operation, startNanos, utf8Length(key), value.length);
+        if (written) {
+            valueSize.record(value.length, operationAttributes[operation.ordinal()]);
+        }
+        keyAccessed(key, written ? value.length : -1);
+    }
+
+    /**
+     * Record a read of {@code key} that was served without a Redis call, e.g. from the near cache.
+     * Counts towards the value sizes and hot keys, but not the Redis command duration.
+     */
+    void servedLocally(Operation operation, String key, String value) {
+        long size = utf8Length(value);
+        valueSize.record(size, operationAttributes[operation.ordinal()]);
+        keyAccessed(key, size);
+    }
+
+    /**
+     * Forget the value sizes of keys that were deleted, or overwritten without their new size being recorded.
+     */
+    void keysRemoved(Collection<String> keys) {
+        if (hotKeys != null) {
+            keys.forEach(hotKeys::removed);
+        }
+    }
+
+    private void keyAccessed(String key, long valueSize) {
+        if (hotKeys != null) {
+            hotKeys.accessed(key);
+            if (valueSize >= 0) {
+                hotKeys.valueSize(key, valueSize);
+            }
+        }
+    }
+
+    private void redisCall(Operation operation, long startNanos, long keySize, long valueSize) {
+        long nanos = System.nanoTime() - startNanos;
+        commandDuration.record(nanos / 1_000_000.0, operationAttributes[operation.ordinal()]);
+        RedisCallEvent.commit(operation.value, keySize, valueSize, nanos);
+    }
+
+    /**
+     * Record the size of a value read or written by an operation; null values are ignored.
+     */
+    void valueSize(Operation operation, String value) {
+        if (value != null) {
+            valueSize.record(utf8Length(value), operationAttributes[operation.ordinal()]);
+        }
+    }
+
+    /**
+     * Record the size of a binary value read or written by an operation; null values are ignored.
+     */
+    void valueSize(Operation operation, byte[] value) {
+        if (value != null) {
+            valueSize.record(value.length, operationAttributes[operation.ordinal()]);
+        }
+    }
+
+    /**
+     * Record the size of a value that was streamed rather than held in memory.
+     */
+    void valueSize(Operation operation, long bytes) {
+        valueSize.record(bytes, operationAttributes[operation.ordinal()]);
+    }
+
+    /**
+     * Record the size of the value of {@code key} that was streamed rather than held in memory.
+     */
+    void valueSize(Operation operation, String key, long bytes) {
+        valueSize(operation, bytes);
+        if (hotKeys != null) {
+            hotKeys.valueSize(key, bytes);
+        }
+    }
+
+    /**
+     * Count an operation without timing it, e.g. one operation inside a batch.
+     */
+    void count(Operation operation, Status status) {
+        operationsCounter.add(1, outcomeAttributes[operation.ordinal()][status.ordinal()]);
+    }
+
+    /**
+     * Count a finished operation and record how long it took since {@code startNanos}.
+     */
+    void completed(Operation operation, Status status, long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        Attributes attributes = outcomeAttributes[operation.ordinal()][status.ordinal()];
+        operationsCounter.add(1, attributes);
+        operationDuration.record(nanos / 1_000_000.0, attributes);
+        RedisOperationEvent.commit(operation.value, status.value, nanos);
+    }
+
+    /**
+     * Number of bytes {@code value} takes as UTF-8, without encoding it.
+     */
+    static int utf8Length(String value) {
+        int length = value.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                bytes += 1;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                // A surrogate pair is two chars and four bytes
+                bytes += 2;
+                i++;
+            } else if (!Character.isSurrogate(c)) {
+                bytes += 2;
+            }
+            // A lone surrogate is replaced with a single '?' byte
+        }
+        return bytes;
+    }
+}
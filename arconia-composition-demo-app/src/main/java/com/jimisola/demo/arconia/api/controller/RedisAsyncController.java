@@ -0,0 +1,269 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import com.jimisola.demo.arconia.api.controller.OperationMetrics.Operation;
+import com.jimisola.demo.arconia.api.controller.OperationMetrics.Status;
+import com.jimisola.demo.arconia.api.hotkeys.HotKeys;
+import com.jimisola.demo.arconia.redis.CoalescingReads;
+import com.jimisola.demo.arconia.redis.ConditionalWrites;
+import com.jimisola.demo.arconia.redis.ExpiryPolicy;
+import com.jimisola.demo.arconia.redis.KeyIndex;
+import com.jimisola.demo.arconia.redis.NativeConnection;
+import com.jimisola.demo.arconia.redis.NearCache;
+import com.jimisola.demo.arconia.redis.ReplicaReads;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Non-blocking variant of the single-key endpoints in {@link RedisController}.
+ *
+ * Handlers return as soon as the command is written to the Lettuce connection; the servlet
+ * thread is released and the response is completed from the Lettuce event loop.
+ * Responses, status codes, ETags and If-Match match the blocking endpoints, and writes invalidate
+ * the near cache and pin replica reads the same way.
+ *
+ * Updates with If-Match and, with the key index enabled, creates and deletes run a script through
+ * the same blocking code as the blocking endpoints, on a virtual thread so that no servlet thread waits.
+ * Reads always go to the primary, past the near cache, replica reads and read coalescing, and writes
+ * are never coalesced: this is the plain path that the execution modes are compared on.
+ */
+@RestController
+@RequestMapping("/api/redis-async")
+public class RedisAsyncController implements DisposableBean {
+
+    private final RedisClusterAsyncCommands<String, String> commands;
+    private final ConditionalWrites conditionalWrites;
+    private final ExpiryPolicy expiryPolicy;
+    private final NearCache nearCache;
+    private final ReplicaReads replicaReads;
+    private final CoalescingReads coalescingReads;
+    private final KeyIndex keyIndex;
+    private final ExecutorService blockingCalls = Executors.newVirtualThreadPerTaskExecutor();
+    private final OperationMetrics metrics;
+    private final LongCounter redisKeysCreatedCounter;
+    private final LongCounter redisKeysDeletedCounter;
+
+    public RedisAsyncController(NativeConnection<String, String> nativeRedisConnection, ConditionalWrites conditionalWrites,
+            ExpiryPolicy expiryPolicy, ObjectProvider<NearCache> nearCache, ObjectProvider<ReplicaReads> replicaReads,
+            CoalescingReads coalescingReads, ObjectProvider<KeyIndex> keyIndex, ObjectProvider<HotKeys> hotKeys, Meter meter) {
+        this.commands = nativeRedisConnection.async();
+        this.conditionalWrites = conditionalWrites;
+        this.expiryPolicy = expiryPolicy;
+        this.nearCache = nearCache.getIfAvailable();
+        this.replicaReads = replicaReads.getIfAvailable();
+        this.coalescingReads = coalescingReads;
+        this.keyIndex = keyIndex.getIfAvailable();
+
+        this.metrics = new OperationMetrics(meter, Attributes.of(AttributeKey.stringKey("mode"), "async"), hotKeys.getIfAvailable());
+
+        this.redisKeysCreatedCounter = meter
+            .counterBuilder("redis.keys.created")
+            .setDescription("Number of keys created in Redis")
+            .setUnit("keys")
+            .build();
+
+        this.redisKeysDeletedCounter = meter
+            .counterBuilder("redis.keys.deleted")
+            .setDescription("Number of keys deleted from Redis")
+            .setUnit("keys")
+            .build();
+    }
+
+    /**
+     * Create a key-value pair
+     * POST /api/redis-async/{key}
+     */
+    @PostMapping("/{key}")
+    public CompletableFuture<ResponseEntity<Map<String, String>>> create(@PathVariable String key, @RequestBody ValueRequest request) {
+        long start = System.nanoTime();
+        if (!request.hasValidTtl()) {
+            metrics.completed(Operation.CREATE, Status.BAD_REQUEST, start);
+            return CompletableFuture.completedFuture(invalidTtl(key));
+        }
+
+        Duration ttl = expiryPolicy.forCreate(key, request.ttl());
+        CompletableFuture<Boolean> write = keyIndex != null
+            ? CompletableFuture.supplyAsync(() -> keyIndex.createIfAbsent(key, request.value(), ttl), blockingCalls)
+            : commands.set(key, request.value(), expiring(SetArgs.Builder.nx(), ttl)).toCompletableFuture().thenApply("OK"::equals);
+        return write.thenApply(created -> {
+            metrics.redisCall(Operation.CREATE, start, key, request.value(), created);
+            afterWrite(key);
+
+            if (!created) {
+                metrics.completed(Operation.CREATE, Status.CONFLICT, start);
+                return error(409, "Key already exists", key, "Use PUT to update existing key");
+            }
+
+            redisKeysCreatedCounter.add(1);
+
+            Map<String, String> response = new HashMap<>();
+            response.put("message", "Key-value pair stored successfully");
+            response.put("key", key);
+            if (ttl != null) {
+                response.put("ttlSeconds", String.valueOf(ttl.toSeconds()));
+            }
+
+            metrics.completed(Operation.CREATE, Status.SUCCESS, start);
+            return ResponseEntity.status(201)
+                .eTag(ConditionalWrites.version(request.value()))
+                .body(response);
+        });
+    }
+
+    /**
+     * Get value by key
+     * GET /api/redis-async/{key}
+     */
+    @GetMapping("/{key}")
+    public CompletableFuture<ResponseEntity<Map<String, String>>> get(@PathVariable String key) {
+        long start = System.nanoTime();
+        return commands.get(key).toCompletableFuture().thenApply(value -> {
+            metrics.redisCall(Operation.GET, start, key, value);
+
+            if (value == null) {
+                metrics.completed(Operation.GET, Status.NOT_FOUND, start);
+                return error(404, "Key not found", key, "The specified key does not exist in Redis");
+            }
+
+            Map<String, String> response = new HashMap<>();
+            response.put("key", key);
+            response.put("value", value);
+
+            metrics.completed(Operation.GET, Status.SUCCESS, start);
+            return ResponseEntity.ok()
+                .eTag(ConditionalWrites.version(value))
+                .body(response);
+        });
+    }
+
+    /**
+     * Update a key-value pair
+     * PUT /api/redis-async/{key}
+     *
+     * With an If-Match header the value is only replaced if its current ETag matches.
+     */
+    @PutMapping("/{key}")
+    public CompletableFuture<ResponseEntity<Map<String, String>>> update(@PathVariable String key,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody ValueRequest request) {
+        long start = System.nanoTime();
+        if (!request.hasValidTtl()) {
+            metrics.completed(Operation.UPDATE, Status.BAD_REQUEST, start);
+            return CompletableFuture.completedFuture(invalidTtl(key));
+        }
+        String expectedVersion = RedisController.parseETag(ifMatch);
+
+        CompletableFuture<ConditionalWrites.Result> write = expectedVersion != null
+            ? CompletableFuture.supplyAsync(
+                () -> conditionalWrites.compareAndSet(key, expectedVersion, request.value(), request.ttl()), blockingCalls)
+            : commands.set(key, request.value(), expiring(SetArgs.Builder.xx(), request.ttl())).toCompletableFuture()
+                .thenApply(reply -> "OK".equals(reply) ? ConditionalWrites.Result.UPDATED : ConditionalWrites.Result.NOT_FOUND);
+        return write.thenApply(result -> {
+            metrics.redisCall(Operation.UPDATE, start, key, request.value(), result == ConditionalWrites.Result.UPDATED);
+            afterWrite(key);
+
+            if (result == ConditionalWrites.Result.NOT_FOUND) {
+                metrics.completed(Operation.UPDATE, Status.NOT_FOUND, start);
+                return error(404, "Key not found", key, "Cannot update non-existent key. Use POST to create a new key");
+            }
+
+            if (result == ConditionalWrites.Result.VERSION_MISMATCH) {
+                metrics.completed(Operation.UPDATE, Status.PRECONDITION_FAILED, start);
+                return error(412, "Version mismatch", key, "The value was modified since it was read. Fetch it again and retry");
+            }
+
+            Map<String, String> response = new HashMap<>();
+            response.put("message", "Key-value pair updated successfully");
+            response.put("key", key);
+            response.put("value", request.value());
+
+            metrics.completed(Operation.UPDATE, Status.SUCCESS, start);
+            return ResponseEntity.ok()
+                .eTag(ConditionalWrites.version(request.value()))
+                .body(response);
+        });
+    }
+
+    /**
+     * Delete a key-value pair
+     * DELETE /api/redis-async/{key}
+     */
+    @DeleteMapping("/{key}")
+    public CompletableFuture<ResponseEntity<Map<String, String>>> delete(@PathVariable String key) {
+        long start = System.nanoTime();
+        CompletableFuture<Boolean> write = keyIndex != null
+            ? CompletableFuture.supplyAsync(() -> keyIndex.delete(key), blockingCalls)
+            : commands.del(key).toCompletableFuture().thenApply(deleted -> deleted != null && deleted > 0);
+        return write.thenApply(deleted -> {
+            metrics.redisCall(Operation.DELETE, start, key);
+            afterWrite(key);
+
+            if (!deleted) {
+                metrics.completed(Operation.DELETE, Status.NOT_FOUND, start);
+                return error(404, "Key not found", key, "Cannot delete non-existent key");
+            }
+
+            redisKeysDeletedCounter.add(1);
+
+            Map<String, String> response = new HashMap<>();
+            response.put("message", "Key deleted successfully");
+            response.put("key", key);
+
+            metrics.completed(Operation.DELETE, Status.SUCCESS, start);
+            return ResponseEntity.ok(response);
+        });
+    }
+
+    /**
+     * Keep local read paths consistent with a write that was just made, as {@link RedisController} does.
+     */
+    private void afterWrite(String key) {
+        if (nearCache != null) {
+            nearCache.invalidate(key);
+        }
+        if (replicaReads != null) {
+            replicaReads.written(key);
+        }
+        coalescingReads.written(key);
+    }
+
+    /**
+     * SET with the given TTL, or KEEPTTL so an update without one does not drop the key's expiry.
+     */
+    private static SetArgs expiring(SetArgs args, Duration ttl) {
+        return ttl != null ? args.px(ttl) : args.keepttl();
+    }
+
+    private static ResponseEntity<Map<String, String>> invalidTtl(String key) {
+        return error(400, "Invalid TTL", key, "ttlSeconds must be a positive number of seconds, at most " + ValueRequest.MAX_TTL_SECONDS);
+    }
+
+    private static ResponseEntity<Map<String, String>> error(int status, String error, String key, String message) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", error);
+        errorResponse.put("key", key);
+        errorResponse.put("message", message);
+
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+
+    @Override
+    public void destroy() {
+        blockingCalls.shutdownNow();
+    }
+}
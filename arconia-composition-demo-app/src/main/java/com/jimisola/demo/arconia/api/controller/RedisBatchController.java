@@ -0,0 +1,251 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import com.jimisola.demo.arconia.api.admission.Expensive;
+import com.jimisola.demo.arconia.api.controller.OperationMetrics.Operation;
+import com.jimisola.demo.arconia.api.controller.OperationMetrics.Status;
+import com.jimisola.demo.arconia.api.hotkeys.HotKeys;
+import com.jimisola.demo.arconia.redis.BatchExecutor;
+import com.jimisola.demo.arconia.redis.CoalescingReads;
+import com.jimisola.demo.arconia.redis.ExpiryPolicy;
+import com.jimisola.demo.arconia.redis.KeyCommand;
+import com.jimisola.demo.arconia.redis.NearCache;
+import com.jimisola.demo.arconia.redis.RedisApiProperties;
+import com.jimisola.demo.arconia.redis.ReplicaReads;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.LongHistogram;
+import io.opentelemetry.api.metrics.Meter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Several get/create/update/delete operations in one HTTP call and one Redis round trip.
+ *
+ * Every operation gets its own result with the same status code the single-key endpoint would return.
+ */
+@Expensive
+@RestController
+@RequestMapping("/api/redis")
+public class RedisBatchController {
+
+    private static final Attributes ATOMIC = Attributes.of(AttributeKey.booleanKey("atomic"), true);
+    private static final Attributes PIPELINED = Attributes.of(AttributeKey.booleanKey("atomic"), false);
+
+    private final BatchExecutor batchExecutor;
+    private final ExpiryPolicy expiryPolicy;
+    private final NearCache nearCache;
+    private final ReplicaReads replicaReads;
+    private final CoalescingReads coalescingReads;
+    private final int maxOperations;
+    private final OperationMetrics metrics;
+    private final LongCounter redisKeysCreatedCounter;
+    private final LongCounter redisKeysDeletedCounter;
+    private final LongHistogram redisBatchSizeHistogram;
+
+    public RedisBatchController(BatchExecutor batchExecutor, ExpiryPolicy expiryPolicy, ObjectProvider<NearCache> nearCache,
+            ObjectProvider<ReplicaReads> replicaReads, CoalescingReads coalescingReads, ObjectProvider<HotKeys> hotKeys,
+            RedisApiProperties properties, Meter meter) {
+        this.batchExecutor = batchExecutor;
+        this.expiryPolicy = expiryPolicy;
+        this.nearCache = nearCache.getIfAvailable();
+        this.replicaReads = replicaReads.getIfAvailable();
+        this.coalescingReads = coalescingReads;
+        this.maxOperations = properties.batch().maxOperations();
+
+        this.metrics = new OperationMetrics(meter, Attributes.empty(), hotKeys.getIfAvailable());
+
+        this.redisKeysCreatedCounter = meter
+            .counterBuilder("redis.keys.created")
+            .setDescription("Number of keys created in Redis")
+            .setUnit("keys")
+            .build();
+
+        this.redisKeysDeletedCounter = meter
+            .counterBuilder("redis.keys.deleted")
+            .setDescription("Number of keys deleted from Redis")
+            .setUnit("keys")
+            .build();
+
+        this.redisBatchSizeHistogram = meter
+            .histogramBuilder("redis.batch.size")
+            .setDescription("Number of operations per batch request")
+            .setUnit("operations")
+            .ofLongs()
+            .setExplicitBucketBoundariesAdvice(List.of(1L, 5L, 10L, 25L, 50L, 100L, 250L, 500L, 1000L))
+            .build();
+    }
+
+    /**
+     * Run a batch of operations
+     * POST /api/redis/_batch
+     */
+    @PostMapping("/_batch")
+    public ResponseEntity<Map<String, Object>> batch(@RequestBody BatchRequest request) {
+        long start = System.nanoTime();
+        List<BatchRequest.Operation> operations = request.operations() != null ? request.operations() : List.of();
+
+        if (operations.isEmpty() || operations.size() > maxOperations) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", operations.isEmpty() ? "Empty batch" : "Batch too large");
+            errorResponse.put("count", operations.size());
+            errorResponse.put("message", "A batch must contain between 1 and " + maxOperations + " operations");
+
+            metrics.completed(Operation.BATCH, operations.isEmpty() ? Status.BAD_REQUEST : Status.TOO_LARGE, start);
+            return ResponseEntity.status(operations.isEmpty() ? 400 : 413).body(errorResponse);
+        }
+
+        redisBatchSizeHistogram.record(operations.size(), request.atomic() ? ATOMIC : PIPELINED);
+
+        // Invalid operations are answered directly and never sent to Redis
+        List<Map<String, Object>> results = new ArrayList<>(operations.size());
+        List<KeyCommand> commands = new ArrayList<>(operations.size());
+        List<Integer> commandIndexes = new ArrayList<>(operations.size());
+        for (BatchRequest.Operation operation : operations) {
+            KeyCommand command = toCommand(operation);
+            if (command == null) {
+                results.add(invalid(operation));
+            } else {
+                results.add(null);
+                commands.add(command);
+                commandIndexes.add(results.size() - 1);
+            }
+        }
+
+        if (request.atomic() && !batchExecutor.canRunAtomically(commands)) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Cross-slot batch");
+            errorResponse.put("count", operations.size());
+            errorResponse.put("message", "On Redis Cluster the keys of an atomic batch must share a hash slot; "
+                + "give them a common hash tag such as {user:42}");
+
+            metrics.completed(Operation.BATCH, Status.BAD_REQUEST, start);
+            return ResponseEntity.status(400).body(errorResponse);
+        }
+
+        if (!commands.isEmpty()) {
+            long redisStart = System.nanoTime();
+            List<Object> replies = request.atomic()
+                ? batchExecutor.atomic(commands)
+                : batchExecutor.pipelined(commands);
+            metrics.redisCall(Operation.BATCH, redisStart);
+
+            for (int i = 0; i < commands.size(); i++) {
+                KeyCommand command = commands.get(i);
+                if (command.type() != KeyCommand.Type.GET) {
+                    if (nearCache != null) {
+                        nearCache.invalidate(command.key());
+                    }
+                    if (replicaReads != null) {
+                        replicaReads.written(command.key());
+                    }
+                    coalescingReads.written(command.key());
+                }
+                results.set(commandIndexes.get(i), toResult(command, replies.get(i)));
+            }
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("count", results.size());
+        response.put("results", results);
+
+        metrics.completed(Operation.BATCH, Status.SUCCESS, start);
+        return ResponseEntity.ok(response);
+    }
+
+    private KeyCommand toCommand(BatchRequest.Operation operation) {
+        if (operation.op() == null || operation.key() == null || operation.key().isEmpty()) {
+            return null;
+        }
+
+        KeyCommand.Type type = switch (operation.op().toLowerCase(Locale.ROOT)) {
+            case "get" -> KeyCommand.Type.GET;
+            case "create" -> KeyCommand.Type.CREATE;
+            case "update" -> KeyCommand.Type.UPDATE;
+            case "delete" -> KeyCommand.Type.DELETE;
+            default -> null;
+        };
+
+        if (type == null) {
+            return null;
+        }
+        if ((type == KeyCommand.Type.CREATE || type == KeyCommand.Type.UPDATE) && operation.value() == null) {
+            return null;
+        }
+        if (!operation.hasValidTtl()) {
+            return null;
+        }
+
+        // As on the single-key endpoints: new keys fall back to their prefix's TTL, updates keep the current one
+        Duration ttl = type == KeyCommand.Type.CREATE ? expiryPolicy.forCreate(operation.key(), operation.ttl()) : operation.ttl();
+        return new KeyCommand(type, operation.key(), operation.value(), ttl);
+    }
+
+    private Map<String, Object> toResult(KeyCommand command, Object reply) {
+        boolean success = switch (command.type()) {
+            case GET -> reply != null;
+            case CREATE, UPDATE -> Boolean.TRUE.equals(reply);
+            case DELETE -> reply instanceof Number number ? number.longValue() > 0 : Boolean.TRUE.equals(reply);
+        };
+
+        int status = switch (command.type()) {
+            case GET, UPDATE, DELETE -> success ? 200 : 404;
+            case CREATE -> success ? 201 : 409;
+        };
+
+        String op = command.type().name().toLowerCase(Locale.ROOT);
+        Map<String, Object> result = new HashMap<>();
+        result.put("op", op);
+        result.put("key", command.key());
+        result.put("status", status);
+        if (success && command.type() == KeyCommand.Type.GET) {
+            result.put("value", reply);
+        }
+        if (!success) {
+            result.put("error", status == 409 ? "Key already exists" : "Key not found");
+        }
+
+        if (success && command.type() == KeyCommand.Type.CREATE) {
+            redisKeysCreatedCounter.add(1);
+        }
+        if (success && command.type() == KeyCommand.Type.DELETE) {
+            redisKeysDeletedCounter.add(1);
+        }
+        Operation operation = switch (command.type()) {
+            case GET -> Operation.GET;
+            case CREATE -> Operation.CREATE;
+            case UPDATE -> Operation.UPDATE;
+            case DELETE -> Operation.DELETE;
+        };
+        metrics.count(operation, success ? Status.SUCCESS : status == 409 ? Status.CONFLICT : Status.NOT_FOUND);
+        if (command.type() == KeyCommand.Type.GET) {
+            metrics.valueSize(operation, reply instanceof String value ? value : null);
+        } else if (success && command.type() == KeyCommand.Type.DELETE) {
+            metrics.keysRemoved(List.of(command.key()));
+        } else if (success) {
+            // A value that was not written leaves the key, and its size, as they were
+            metrics.valueSize(operation, command.key(), OperationMetrics.utf8Length(command.value()));
+        }
+
+        return result;
+    }
+
+    private static Map<String, Object> invalid(BatchRequest.Operation operation) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("op", operation.op());
+        result.put("key", operation.key());
+        result.put("status", 400);
+        result.put("error", "Invalid operation");
+        result.put("message", "op must be get, create, update or delete; key is required; create and update require a value; "
+            + "ttlSeconds must be positive and at most " + ValueRequest.MAX_TTL_SECONDS);
+        return result;
+    }
+}
@@ -0,0 +1,75 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import com.jimisola.demo.arconia.redis.KeyspaceChanges;
+import com.jimisola.demo.arconia.redis.RedisApiProperties;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pushes changes to keys as server-sent events, instead of clients polling {@code GET /api/redis}.
+ *
+ * All subscribers share one keyspace notification subscription; see {@link KeyspaceChanges}.
+ */
+@RestController
+@RequestMapping("/api/redis")
+public class RedisChangesController {
+
+    private final KeyspaceChanges changes;
+    private final RedisApiProperties.Changes properties;
+    private final LongCounter slowSubscribersCounter;
+
+    public RedisChangesController(ObjectProvider<KeyspaceChanges> changes, RedisApiProperties properties, Meter meter) {
+        this.changes = changes.getIfAvailable();
+        this.properties = properties.changes();
+
+        this.slowSubscribersCounter = meter
+            .counterBuilder("redis.changes.slow_subscribers")
+            .setDescription("Number of subscribers disconnected because they fell too far behind")
+            .setUnit("subscribers")
+            .build();
+    }
+
+    /**
+     * Subscribe to changes
+     * GET /api/redis/_changes?match=user:*&values=true
+     *
+     * Each change is an event named set, delete, expire (TTL set or removed), expired or evicted, with
+     * {"type", "key"} as data and, with values=true, "value" for a set key whose value is small enough.
+     * A reset event means changes were lost; read the keys again. Reconnecting with the Last-Event-ID
+     * header resumes after that change while it is still buffered, else starts with a reset.
+     */
+    @GetMapping("/_changes")
+    public ResponseEntity<?> subscribe(
+            @RequestParam(required = false) String match,
+            @RequestParam(defaultValue = "false") boolean values,
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        if (changes == null) {
+            return error(404, "Change feed disabled", "Set demo.redis.changes.enabled=true to subscribe to changes");
+        }
+        if (changes.subscribers() >= properties.maxSubscribers()) {
+            return error(503, "Too many subscribers", "The change feed is serving its maximum number of subscribers");
+        }
+
+        SseEmitter emitter = new SseEmitter(properties.timeout().toMillis());
+        ChangeStream stream = new ChangeStream(changes, emitter, properties.subscriberQueue(),
+            match != null && !match.equals("*") ? match : null, values, properties.heartbeat(),
+            () -> slowSubscribersCounter.add(1));
+        stream.start(lastEventId);
+        return ResponseEntity.ok(emitter);
+    }
+
+    private static ResponseEntity<Map<String, String>> error(int status, String error, String message) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", error);
+        errorResponse.put("message", message);
+
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+}
@@ -1,33 +1,78 @@
 package com.jimisola.demo.arconia.api.controller;
 
+import com.jimisola.demo.arconia.api.admission.Expensive;
+import com.jimisola.demo.arconia.api.controller.OperationMetrics.Operation;
+import com.jimisola.demo.arconia.api.controller.OperationMetrics.Status;
+import com.jimisola.demo.arconia.api.hotkeys.HotKeys;
+import com.jimisola.demo.arconia.redis.CoalescingReads;
+import com.jimisola.demo.arconia.redis.ConditionalWrites;
+import com.jimisola.demo.arconia.redis.DeletionJob;
+import com.jimisola.demo.arconia.redis.ExpiryPolicy;
+import com.jimisola.demo.arconia.redis.KeyCommand;
+import com.jimisola.demo.arconia.redis.KeyIndex;
+import com.jimisola.demo.arconia.redis.KeyspaceDeleter;
+import com.jimisola.demo.arconia.redis.KeyspaceScanner;
+import com.jimisola.demo.arconia.redis.NearCache;
+import com.jimisola.demo.arconia.redis.ReplicaReads;
+import com.jimisola.demo.arconia.redis.ScanPage;
+import com.jimisola.demo.arconia.redis.WriteCoalescer;
+import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.metrics.LongCounter;
 import io.opentelemetry.api.metrics.Meter;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/redis")
 public class RedisController {
 
+    private static final String DEFAULT_PAGE_SIZE = "100";
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final RedisTemplate<String, String> stringRedisTemplate;
-    private final LongCounter redisOperationsCounter;
+    private final KeyspaceScanner keyspaceScanner;
+    private final KeyspaceDeleter keyspaceDeleter;
+    private final ConditionalWrites conditionalWrites;
+    private final ExpiryPolicy expiryPolicy;
+    private final NearCache nearCache;
+    private final ReplicaReads replicaReads;
+    private final CoalescingReads coalescingReads;
+    private final WriteCoalescer writeCoalescer;
+    private final KeyIndex keyIndex;
+    private final OperationMetrics metrics;
     private final LongCounter redisKeysCreatedCounter;
     private final LongCounter redisKeysDeletedCounter;
 
-    public RedisController(RedisTemplate<String, String> stringRedisTemplate, Meter meter) {
+    public RedisController(RedisTemplate<String, String> stringRedisTemplate, KeyspaceScanner keyspaceScanner,
+            KeyspaceDeleter keyspaceDeleter, ConditionalWrites conditionalWrites, ExpiryPolicy expiryPolicy,
+            ObjectProvider<NearCache> nearCache, ObjectProvider<ReplicaReads> replicaReads, CoalescingReads coalescingReads,
+            ObjectProvider<WriteCoalescer> writeCoalescer, ObjectProvider<KeyIndex> keyIndex, ObjectProvider<HotKeys> hotKeys,
+            Meter meter) {
         this.stringRedisTemplate = stringRedisTemplate;
+        this.keyspaceScanner = keyspaceScanner;
+        this.keyspaceDeleter = keyspaceDeleter;
+        this.conditionalWrites = conditionalWrites;
+        this.expiryPolicy = expiryPolicy;
+        this.nearCache = nearCache.getIfAvailable();
+        this.replicaReads = replicaReads.getIfAvailable();
+        this.coalescingReads = coalescingReads;
+        this.writeCoalescer = writeCoalescer.getIfAvailable();
+        this.keyIndex = keyIndex.getIfAvailable();
         
         // OpenTelemetry metrics - demonstrating direct OTel API usage alongside Micrometer
-        this.redisOperationsCounter = meter
-            .counterBuilder("redis.operations.total")
-            .setDescription("Total number of Redis operations")
-            .setUnit("operations")
-            .build();
+        this.metrics = new OperationMetrics(meter, Attributes.empty(), hotKeys.getIfAvailable());
             
         this.redisKeysCreatedCounter = meter
             .counterBuilder("redis.keys.created")
@@ -45,17 +90,34 @@ public class RedisController {
     /**
      * Create a key-value pair
      * POST /api/redis/{key}
+     *
+     * Uses SET NX so the existence check and the write are one atomic round trip.
+     * The TTL (ttlSeconds, else the default for the key's prefix) is set by the same SET.
+     * With the key index enabled the key is indexed by the same script, rather than through write coalescing.
      */
     @PostMapping("/{key}")
     public ResponseEntity<Map<String, String>> create(@PathVariable String key, @RequestBody ValueRequest request) {
-        // Check if key already exists
-        boolean exists = Boolean.TRUE.equals(stringRedisTemplate.hasKey(key));
-        
-        if (exists) {
-            redisOperationsCounter.add(1, io.opentelemetry.api.common.Attributes.builder()
-                .put("operation", "create")
-                .put("status", "conflict")
-                .build());
+        long start = System.nanoTime();
+        if (!request.hasValidTtl()) {
+            metrics.completed(Operation.CREATE, Status.BAD_REQUEST, start);
+            return invalidTtl(key);
+        }
+        
+        Duration ttl = expiryPolicy.forCreate(key, request.ttl());
+        long redisStart = System.nanoTime();
+        boolean created;
+        if (keyIndex != null) {
+            created = keyIndex.createIfAbsent(key, request.value(), ttl);
+        } else if (writeCoalescer != null) {
+            created = writeCoalescer.execute(new KeyCommand(KeyCommand.Type.CREATE, key, request.value(), ttl));
+        } else {
+            created = conditionalWrites.createIfAbsent(key, request.value(), ttl);
+        }
+        metrics.redisCall(Operation.CREATE, redisStart, key, request.value(), created);
+        afterWrite(key);
+        
+        if (!created) {
+            metrics.completed(Operation.CREATE, Status.CONFLICT, start);
             
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", "Key already exists");
@@ -65,20 +127,20 @@ public class RedisController {
             return ResponseEntity.status(409).body(errorResponse);
         }
         
-        stringRedisTemplate.opsForValue().set(key, request.value());
-        
         // Increment OpenTelemetry metrics
-        redisOperationsCounter.add(1, io.opentelemetry.api.common.Attributes.builder()
-            .put("operation", "create")
-            .put("status", "success")
-            .build());
         redisKeysCreatedCounter.add(1);
         
         Map<String, String> response = new HashMap<>();
         response.put("message", "Key-value pair stored successfully");
         response.put("key", key);
+        if (ttl != null) {
+            response.put("ttlSeconds", String.valueOf(ttl.toSeconds()));
+        }
         
-        return ResponseEntity.status(201).body(response);
+        metrics.completed(Operation.CREATE, Status.SUCCESS, start);
+        return ResponseEntity.status(201)
+            .eTag(ConditionalWrites.version(request.value()))
+            .body(response);
     }
 
     /**
@@ -87,12 +149,15 @@ public class RedisController {
      */
     @GetMapping("/{key}")
     public ResponseEntity<Map<String, String>> get(@PathVariable String key) {
-        String value = stringRedisTemplate.opsForValue().get(key);
-        
-        redisOperationsCounter.add(1, io.opentelemetry.api.common.Attributes.builder()
-            .put("operation", "get")
-            .put("status", value != null ? "success" : "not_found")
-            .build());
+        long start = System.nanoTime();
+        String value = nearCache != null ? nearCache.getIfCached(key) : null;
+        if (value != null) {
+            metrics.servedLocally(Operation.GET, key, value);
+        } else {
+            long redisStart = System.nanoTime();
+            value = nearCache != null ? nearCache.fetch(key) : coalescingReads.get(key);
+            metrics.redisCall(Operation.GET, redisStart, key, value);
+        }
         
         if (value == null) {
             Map<String, String> errorResponse = new HashMap<>();
@@ -100,6 +165,7 @@ public class RedisController {
             errorResponse.put("key", key);
             errorResponse.put("message", "The specified key does not exist in Redis");
             
+            metrics.completed(Operation.GET, Status.NOT_FOUND, start);
             return ResponseEntity.status(404).body(errorResponse);
         }
         
@@ -107,68 +173,181 @@ public class RedisController {
         response.put("key", key);
         response.put("value", value);
         
-        return ResponseEntity.ok(response);
+        metrics.completed(Operation.GET, Status.SUCCESS, start);
+        return ResponseEntity.ok()
+            .eTag(ConditionalWrites.version(value))
+            .body(response);
     }
 
     /**
-     * Get all keys with their values
-     * GET /api/redis
+     * Get one page of keys with their values
+     * GET /api/redis?cursor=0&count=100&match=*
+     *
+     * Keys are walked with SCAN and the values of each page are fetched with a single MGET.
+     * Pass the returned cursor to fetch the next page; a cursor of "0" means the scan is complete.
+     * A page is cut short after a bounded number of SCAN calls, so with a sparse match it can hold
+     * fewer than count keys, or none, before the scan is complete.
      */
+    @Expensive
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAll() {
-        Set<String> keys = stringRedisTemplate.keys("*");
-        
-        Map<String, String> data = new HashMap<>();
-        if (keys != null) {
-            for (String key : keys) {
-                String value = stringRedisTemplate.opsForValue().get(key);
-                data.put(key, value);
-            }
+    public ResponseEntity<Map<String, Object>> getAll(
+            @RequestParam(defaultValue = ScanPage.INITIAL_CURSOR) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int count,
+            @RequestParam(defaultValue = "*") String match) {
+        long start = System.nanoTime();
+        long redisStart = System.nanoTime();
+        ScanPage page;
+        try {
+            page = keyspaceScanner.scanValues(cursor, match, Math.clamp(count, 1, MAX_PAGE_SIZE));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Invalid cursor");
+            errorResponse.put("cursor", cursor);
+            errorResponse.put("message", "Pass 0 to start a scan, or the cursor returned by the previous page");
+            
+            metrics.completed(Operation.GET_ALL, Status.BAD_REQUEST, start);
+            return ResponseEntity.status(400).body(errorResponse);
         }
+        List<String> values = page.keys().isEmpty() ? List.of() : coalescingReads.multiGet(page.keys());
+        metrics.redisCall(Operation.GET_ALL, redisStart);
         
-        redisOperationsCounter.add(1, io.opentelemetry.api.common.Attributes.builder()
-            .put("operation", "get_all")
-            .put("status", "success")
-            .build());
+        Map<String, String> data = new LinkedHashMap<>();
+        for (int i = 0; i < page.keys().size(); i++) {
+            String value = values != null ? values.get(i) : null;
+            // Keys can expire or be deleted between SCAN and MGET
+            if (value != null) {
+                metrics.valueSize(Operation.GET_ALL, value);
+                data.put(page.keys().get(i), value);
+            }
+        }
         
         Map<String, Object> response = new HashMap<>();
         response.put("count", data.size());
         response.put("data", data);
+        response.put("cursor", page.cursor());
         
+        metrics.completed(Operation.GET_ALL, Status.SUCCESS, start);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get one page of the keys under a prefix with their values
+     * GET /api/redis?prefix=user:123:&limit=100&after=
+     *
+     * Keys come from the key index in lexicographic order, so a page costs O(log N + limit) however
+     * many keys there are; their values are fetched with a single MGET. Pass the returned after to
+     * fetch the next page; it is left out on the last page. The prefix must start with a namespace,
+     * e.g. user: for user:123:name.
+     */
+    @GetMapping(params = "prefix")
+    public ResponseEntity<Map<String, Object>> getByPrefix(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String after) {
+        long start = System.nanoTime();
+        if (keyIndex == null) {
+            metrics.completed(Operation.GET_PREFIX, Status.NOT_FOUND, start);
+            return ResponseEntity.status(404).body(new HashMap<>(keyIndexDisabled(prefix)));
+        }
+        if (KeyIndex.namespace(prefix) == null) {
+            metrics.completed(Operation.GET_PREFIX, Status.BAD_REQUEST, start);
+            return ResponseEntity.status(400).body(new HashMap<>(invalidPrefix(prefix)));
+        }
+
+        long redisStart = System.nanoTime();
+        KeyIndex.Page page = keyIndex.range(prefix, after, Math.clamp(limit, 1, MAX_PAGE_SIZE));
+        List<String> values = page.keys().isEmpty() ? List.of() : coalescingReads.multiGet(page.keys());
+        metrics.redisCall(Operation.GET_PREFIX, redisStart);
+
+        Map<String, String> data = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < page.keys().size(); i++) {
+            String value = values != null ? values.get(i) : null;
+            if (value != null) {
+                metrics.valueSize(Operation.GET_PREFIX, value);
+                data.put(page.keys().get(i), value);
+            } else {
+                // Expired, evicted or deleted without going through the index
+                missing.add(page.keys().get(i));
+            }
+        }
+        keyIndex.prune(prefix, missing);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("count", data.size());
+        response.put("data", data);
+        if (page.after() != null) {
+            response.put("after", page.after());
+        }
+
+        metrics.completed(Operation.GET_PREFIX, Status.SUCCESS, start);
         return ResponseEntity.ok(response);
     }
 
     /**
      * Update a key-value pair
      * PUT /api/redis/{key}
+     *
+     * Uses SET XX so the existence check and the write are one atomic round trip.
+     * With an If-Match header the value is only replaced if its current ETag matches,
+     * which lets clients do read-modify-write without a lock.
+     * Without ttlSeconds the key keeps its current TTL (SET KEEPTTL).
      */
     @PutMapping("/{key}")
-    public ResponseEntity<Map<String, String>> update(@PathVariable String key, @RequestBody ValueRequest request) {
-        // Check if key exists
-        boolean exists = Boolean.TRUE.equals(stringRedisTemplate.hasKey(key));
+    public ResponseEntity<Map<String, String>> update(@PathVariable String key,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody ValueRequest request) {
+        long start = System.nanoTime();
+        if (!request.hasValidTtl()) {
+            metrics.completed(Operation.UPDATE, Status.BAD_REQUEST, start);
+            return invalidTtl(key);
+        }
+        String expectedVersion = parseETag(ifMatch);
         
-        redisOperationsCounter.add(1, io.opentelemetry.api.common.Attributes.builder()
-            .put("operation", "update")
-            .put("status", exists ? "success" : "not_found")
-            .build());
+        long redisStart = System.nanoTime();
+        ConditionalWrites.Result result;
+        if (expectedVersion == null) {
+            boolean updated = writeCoalescer != null
+                ? writeCoalescer.execute(new KeyCommand(KeyCommand.Type.UPDATE, key, request.value(), request.ttl()))
+                : conditionalWrites.updateIfPresent(key, request.value(), request.ttl());
+            result = updated
+                ? ConditionalWrites.Result.UPDATED
+                : ConditionalWrites.Result.NOT_FOUND;
+        } else {
+            result = conditionalWrites.compareAndSet(key, expectedVersion, request.value(), request.ttl());
+        }
+        metrics.redisCall(Operation.UPDATE, redisStart, key, request.value(), result == ConditionalWrites.Result.UPDATED);
+        afterWrite(key);
         
-        if (!exists) {
+        if (result == ConditionalWrites.Result.NOT_FOUND) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", "Key not found");
             errorResponse.put("key", key);
             errorResponse.put("message", "Cannot update non-existent key. Use POST to create a new key");
             
+            metrics.completed(Operation.UPDATE, Status.NOT_FOUND, start);
             return ResponseEntity.status(404).body(errorResponse);
         }
         
-        stringRedisTemplate.opsForValue().set(key, request.value());
+        if (result == ConditionalWrites.Result.VERSION_MISMATCH) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Version mismatch");
+            errorResponse.put("key", key);
+            errorResponse.put("message", "The value was modified since it was read. Fetch it again and retry");
+            
+            metrics.completed(Operation.UPDATE, Status.PRECONDITION_FAILED, start);
+            return ResponseEntity.status(412).body(errorResponse);
+        }
         
         Map<String, String> response = new HashMap<>();
         response.put("message", "Key-value pair updated successfully");
         response.put("key", key);
         response.put("value", request.value());
         
-        return ResponseEntity.ok(response);
+        metrics.completed(Operation.UPDATE, Status.SUCCESS, start);
+        return ResponseEntity.ok()
+            .eTag(ConditionalWrites.version(request.value()))
+            .body(response);
     }
 
     /**
@@ -177,13 +356,17 @@ public class RedisController {
      */
     @DeleteMapping("/{key}")
     public ResponseEntity<Map<String, String>> delete(@PathVariable String key) {
-        Boolean deleted = stringRedisTemplate.delete(key);
-        
-        boolean wasDeleted = Boolean.TRUE.equals(deleted);
-        redisOperationsCounter.add(1, io.opentelemetry.api.common.Attributes.builder()
-            .put("operation", "delete")
-            .put("status", wasDeleted ? "success" : "not_found")
-            .build());
+        long start = System.nanoTime();
+        boolean wasDeleted;
+        if (keyIndex != null) {
+            wasDeleted = keyIndex.delete(key);
+        } else if (writeCoalescer != null) {
+            wasDeleted = writeCoalescer.execute(new KeyCommand(KeyCommand.Type.DELETE, key, null));
+        } else {
+            wasDeleted = Boolean.TRUE.equals(stringRedisTemplate.delete(key));
+        }
+        metrics.redisCall(Operation.DELETE, start, key);
+        afterWrite(key);
         
         if (wasDeleted) {
             redisKeysDeletedCounter.add(1);
@@ -195,6 +378,7 @@ public class RedisController {
             errorResponse.put("key", key);
             errorResponse.put("message", "Cannot delete non-existent key");
             
+            metrics.completed(Operation.DELETE, Status.NOT_FOUND, start);
             return ResponseEntity.status(404).body(errorResponse);
         }
         
@@ -202,32 +386,160 @@ public class RedisController {
         response.put("message", "Key deleted successfully");
         response.put("key", key);
         
+        metrics.completed(Operation.DELETE, Status.SUCCESS, start);
         return ResponseEntity.ok(response);
     }
 
     /**
-     * Delete all keys
-     * DELETE /api/redis
+     * Delete all keys matching a pattern in the background
+     * DELETE /api/redis?match=*
+     *
+     * Returns 202 Accepted with a job id; poll GET /api/redis/_jobs/{id} for progress.
      */
+    @Expensive
     @DeleteMapping
-    public ResponseEntity<Map<String, String>> deleteAll() {
-        Set<String> keys = stringRedisTemplate.keys("*");
-        int deletedCount = 0;
-        if (keys != null && !keys.isEmpty()) {
-            deletedCount = keys.size();
-            stringRedisTemplate.delete(keys);
+    public ResponseEntity<Map<String, String>> deleteAll(@RequestParam(defaultValue = "*") String match) {
+        long start = System.nanoTime();
+        DeletionJob job = keyspaceDeleter.start(match, this::keysDeleted);
+        
+        Map<String, String> response = jobResponse(job);
+        response.put("message", "Deletion started");
+        
+        metrics.completed(Operation.DELETE_ALL, Status.ACCEPTED, start);
+        return ResponseEntity.accepted()
+            .location(URI.create("/api/redis/_jobs/" + job.id()))
+            .body(response);
+    }
+
+    /**
+     * Delete all keys under a prefix in the background
+     * DELETE /api/redis?prefix=user:123:
+     *
+     * Like DELETE /api/redis?match=..., but the keys are taken from the key index instead of a scan
+     * of the whole keyspace, so only keys created through POST /api/redis/{key} are deleted.
+     */
+    @Expensive
+    @DeleteMapping(params = "prefix")
+    public ResponseEntity<Map<String, String>> deleteByPrefix(@RequestParam String prefix) {
+        long start = System.nanoTime();
+        if (keyIndex == null) {
+            metrics.completed(Operation.DELETE_PREFIX, Status.NOT_FOUND, start);
+            return ResponseEntity.status(404).body(keyIndexDisabled(prefix));
         }
+        if (KeyIndex.namespace(prefix) == null) {
+            metrics.completed(Operation.DELETE_PREFIX, Status.BAD_REQUEST, start);
+            return ResponseEntity.status(400).body(invalidPrefix(prefix));
+        }
+
+        DeletionJob job = keyspaceDeleter.start(keyIndex, prefix, this::keysDeleted);
+
+        Map<String, String> response = jobResponse(job);
+        response.put("message", "Deletion started");
+
+        metrics.completed(Operation.DELETE_PREFIX, Status.ACCEPTED, start);
+        return ResponseEntity.accepted()
+            .location(URI.create("/api/redis/_jobs/" + job.id()))
+            .body(response);
+    }
+
+    /**
+     * Get progress of a background deletion
+     * GET /api/redis/_jobs/{id}
+     */
+    @GetMapping("/_jobs/{id}")
+    public ResponseEntity<Map<String, String>> getJob(@PathVariable String id) {
+        Optional<DeletionJob> job = keyspaceDeleter.find(id);
         
-        redisOperationsCounter.add(1, io.opentelemetry.api.common.Attributes.builder()
-            .put("operation", "delete_all")
-            .put("status", "success")
-            .build());
-        redisKeysDeletedCounter.add(deletedCount);
+        if (job.isEmpty()) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Job not found");
+            errorResponse.put("jobId", id);
+            errorResponse.put("message", "The specified job does not exist or has expired");
+            
+            return ResponseEntity.status(404).body(errorResponse);
+        }
         
+        return ResponseEntity.ok(jobResponse(job.get()));
+    }
+
+    private static Map<String, String> jobResponse(DeletionJob job) {
         Map<String, String> response = new HashMap<>();
-        response.put("message", "All keys deleted successfully");
-        response.put("count", String.valueOf(deletedCount));
+        response.put("jobId", job.id());
+        response.put("match", job.match());
+        response.put("status", job.status().name());
+        response.put("count", String.valueOf(job.deleted()));
+        response.put("startedAt", job.startedAt().toString());
+        if (job.finishedAt() != null) {
+            response.put("finishedAt", job.finishedAt().toString());
+        }
+        if (job.error() != null) {
+            response.put("error", job.error());
+        }
+        return response;
+    }
+
+    private static ResponseEntity<Map<String, String>> invalidTtl(String key) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Invalid TTL");
+        errorResponse.put("key", key);
+        errorResponse.put("message", "ttlSeconds must be a positive number of seconds, at most " + ValueRequest.MAX_TTL_SECONDS);
         
-        return ResponseEntity.ok(response);
+        return ResponseEntity.status(400).body(errorResponse);
+    }
+
+    private void keysDeleted(List<String> keys, long unlinked) {
+        redisKeysDeletedCounter.add(unlinked);
+        metrics.keysRemoved(keys);
+        keys.forEach(coalescingReads::written);
+    }
+
+    private static Map<String, String> keyIndexDisabled(String prefix) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Key index disabled");
+        errorResponse.put("prefix", prefix);
+        errorResponse.put("message", "Set demo.redis.key-index.enabled=true to list and delete keys by prefix");
+
+        return errorResponse;
+    }
+
+    private static Map<String, String> invalidPrefix(String prefix) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Invalid prefix");
+        errorResponse.put("prefix", prefix);
+        errorResponse.put("message", "prefix must start with a namespace followed by ':', e.g. user:");
+
+        return errorResponse;
+    }
+
+    /**
+     * Drop a key we just wrote from the near cache, so this instance reads its own write
+     * without waiting for Redis' invalidation message, read it from the primary for a while
+     * if replica reads with read-your-writes are on, and stop sharing a read of it that started before the write.
+     */
+    private void afterWrite(String key) {
+        if (nearCache != null) {
+            nearCache.invalidate(key);
+        }
+        if (replicaReads != null) {
+            replicaReads.written(key);
+        }
+        coalescingReads.written(key);
+    }
+
+    /**
+     * Extract the version from an If-Match header, or null when any existing value may be replaced.
+     */
+    static String parseETag(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String etag = ifMatch.trim();
+        if (etag.startsWith("W/")) {
+            etag = etag.substring(2);
+        }
+        if (etag.length() >= 2 && etag.startsWith("\"") && etag.endsWith("\"")) {
+            etag = etag.substring(1, etag.length() - 1);
+        }
+        return etag;
     }
 }
@@ -0,0 +1,125 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import com.jimisola.demo.arconia.api.controller.OperationMetrics.Operation;
+import com.jimisola.demo.arconia.api.controller.OperationMetrics.Status;
+import com.jimisola.demo.arconia.api.hotkeys.HotKeys;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.Meter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Read and change the TTL of existing keys, whichever endpoint wrote them.
+ */
+@RestController
+@RequestMapping("/api/redis")
+public class RedisExpiryController {
+
+    private final RedisTemplate<String, String> stringRedisTemplate;
+    private final OperationMetrics metrics;
+
+    public RedisExpiryController(RedisTemplate<String, String> stringRedisTemplate, ObjectProvider<HotKeys> hotKeys,
+            Meter meter) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.metrics = new OperationMetrics(meter, Attributes.empty(), hotKeys.getIfAvailable());
+    }
+
+    /**
+     * Get the remaining TTL of a key
+     * GET /api/redis/{key}/ttl
+     *
+     * ttlSeconds is left out when the key does not expire.
+     */
+    @GetMapping("/{key}/ttl")
+    public ResponseEntity<Map<String, String>> get(@PathVariable String key) {
+        long start = System.nanoTime();
+        Long ttl = stringRedisTemplate.getExpire(key);
+        metrics.redisCall(Operation.GET_TTL, start, key);
+
+        // TTL replies -2 for a missing key and -1 for a key without expiry
+        if (ttl == null || ttl == -2) {
+            metrics.completed(Operation.GET_TTL, Status.NOT_FOUND, start);
+            return error(404, "Key not found", key, "The specified key does not exist in Redis");
+        }
+
+        Map<String, String> response = new HashMap<>();
+        response.put("key", key);
+        if (ttl >= 0) {
+            response.put("ttlSeconds", String.valueOf(ttl));
+        } else {
+            response.put("message", "Key does not expire");
+        }
+
+        metrics.completed(Operation.GET_TTL, Status.SUCCESS, start);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Set the TTL of an existing key
+     * PUT /api/redis/{key}/ttl
+     */
+    @PutMapping("/{key}/ttl")
+    public ResponseEntity<Map<String, String>> expire(@PathVariable String key, @RequestBody TtlRequest request) {
+        long start = System.nanoTime();
+        if (!request.hasValidTtl()) {
+            metrics.completed(Operation.EXPIRE, Status.BAD_REQUEST, start);
+            return error(400, "Invalid TTL", key, "ttlSeconds must be a positive number of seconds, at most " + ValueRequest.MAX_TTL_SECONDS);
+        }
+
+        boolean updated = Boolean.TRUE.equals(stringRedisTemplate.expire(key, Duration.ofSeconds(request.ttlSeconds())));
+        metrics.redisCall(Operation.EXPIRE, start, key);
+
+        if (!updated) {
+            metrics.completed(Operation.EXPIRE, Status.NOT_FOUND, start);
+            return error(404, "Key not found", key, "Cannot set the TTL of a non-existent key");
+        }
+
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "TTL updated successfully");
+        response.put("key", key);
+        response.put("ttlSeconds", String.valueOf(request.ttlSeconds()));
+
+        metrics.completed(Operation.EXPIRE, Status.SUCCESS, start);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Remove the TTL of a key so it no longer expires
+     * DELETE /api/redis/{key}/ttl
+     */
+    @DeleteMapping("/{key}/ttl")
+    public ResponseEntity<Map<String, String>> persist(@PathVariable String key) {
+        long start = System.nanoTime();
+        // PERSIST replies 0 both for a missing key and for one without a TTL
+        boolean persisted = Boolean.TRUE.equals(stringRedisTemplate.persist(key))
+            || Boolean.TRUE.equals(stringRedisTemplate.hasKey(key));
+        metrics.redisCall(Operation.PERSIST, start, key);
+
+        if (!persisted) {
+            metrics.completed(Operation.PERSIST, Status.NOT_FOUND, start);
+            return error(404, "Key not found", key, "The specified key does not exist in Redis");
+        }
+
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Key no longer expires");
+        response.put("key", key);
+
+        metrics.completed(Operation.PERSIST, Status.SUCCESS, start);
+        return ResponseEntity.ok(response);
+    }
+
+    private static ResponseEntity<Map<String, String>> error(int status, String error, String key, String message) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", error);
+        errorResponse.put("key", key);
+        errorResponse.put("message", message);
+
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+}
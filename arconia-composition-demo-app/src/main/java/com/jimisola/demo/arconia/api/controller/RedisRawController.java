@@ -0,0 +1,162 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import com.jimisola.demo.arconia.api.controller.OperationMetrics.Operation;
+import com.jimisola.demo.arconia.api.controller.OperationMetrics.Status;
+import com.jimisola.demo.arconia.api.hotkeys.HotKeys;
+import com.jimisola.demo.arconia.redis.CoalescingReads;
+import com.jimisola.demo.arconia.redis.ConditionalWrites;
+import com.jimisola.demo.arconia.redis.ExpiryPolicy;
+import com.jimisola.demo.arconia.redis.NativeConnection;
+import com.jimisola.demo.arconia.redis.NearCache;
+import com.jimisola.demo.arconia.redis.ReplicaReads;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.cluster.api.sync.RedisClusterCommands;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binary variant of the single-key endpoints: the body is the value itself as application/octet-stream.
+ *
+ * Values are read into and written from the byte arrays Lettuce uses, with no String decoding,
+ * response map or JSON encoding in between, so large values are copied far less often.
+ * Reads always go to Redis; the near cache only holds values read through the JSON endpoints.
+ * New keys get their prefix's default TTL and updates keep the current TTL; use
+ * {@code /api/redis/{key}/ttl} to change it.
+ */
+@RestController
+@RequestMapping("/api/redis")
+public class RedisRawController {
+
+    private final RedisClusterCommands<byte[], byte[]> commands;
+    private final ExpiryPolicy expiryPolicy;
+    private final NearCache nearCache;
+    private final ReplicaReads replicaReads;
+    private final CoalescingReads coalescingReads;
+    private final OperationMetrics metrics;
+    private final LongCounter redisKeysCreatedCounter;
+
+    public RedisRawController(NativeConnection<byte[], byte[]> rawRedisConnection, ExpiryPolicy expiryPolicy,
+            ObjectProvider<NearCache> nearCache, ObjectProvider<ReplicaReads> replicaReads, CoalescingReads coalescingReads,
+            ObjectProvider<HotKeys> hotKeys, Meter meter) {
+        this.commands = rawRedisConnection.sync();
+        this.expiryPolicy = expiryPolicy;
+        this.nearCache = nearCache.getIfAvailable();
+        this.replicaReads = replicaReads.getIfAvailable();
+        this.coalescingReads = coalescingReads;
+        this.metrics = new OperationMetrics(meter, Attributes.of(AttributeKey.stringKey("encoding"), "raw"), hotKeys.getIfAvailable());
+
+        this.redisKeysCreatedCounter = meter
+            .counterBuilder("redis.keys.created")
+            .setDescription("Number of keys created in Redis")
+            .setUnit("keys")
+            .build();
+    }
+
+    /**
+     * Get the raw bytes of a value
+     * GET /api/redis/{key}/raw
+     */
+    @GetMapping("/{key}/raw")
+    public ResponseEntity<?> get(@PathVariable String key) {
+        long start = System.nanoTime();
+        byte[] value = commands.get(key.getBytes(StandardCharsets.UTF_8));
+        metrics.redisCall(Operation.GET, start, key, value);
+
+        if (value == null) {
+            metrics.completed(Operation.GET, Status.NOT_FOUND, start);
+            return error(404, "Key not found", key, "The specified key does not exist in Redis");
+        }
+
+        metrics.completed(Operation.GET, Status.SUCCESS, start);
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .eTag(ConditionalWrites.version(value))
+            .body(value);
+    }
+
+    /**
+     * Create a key from raw bytes
+     * POST /api/redis/{key}/raw
+     */
+    @PostMapping(value = "/{key}/raw", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Map<String, String>> create(@PathVariable String key, @RequestBody byte[] value) {
+        long start = System.nanoTime();
+        Duration ttl = expiryPolicy.forCreate(key, null);
+        SetArgs args = ttl != null ? SetArgs.Builder.nx().px(ttl) : SetArgs.Builder.nx();
+        boolean created = "OK".equals(commands.set(key.getBytes(StandardCharsets.UTF_8), value, args));
+        metrics.redisCall(Operation.CREATE, start, key, value, created);
+        afterWrite(key);
+
+        if (!created) {
+            metrics.completed(Operation.CREATE, Status.CONFLICT, start);
+            return error(409, "Key already exists", key, "Use PUT to update existing key");
+        }
+
+        redisKeysCreatedCounter.add(1);
+
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Key-value pair stored successfully");
+        response.put("key", key);
+
+        metrics.completed(Operation.CREATE, Status.SUCCESS, start);
+        return ResponseEntity.status(201)
+            .eTag(ConditionalWrites.version(value))
+            .body(response);
+    }
+
+    /**
+     * Replace an existing key with raw bytes
+     * PUT /api/redis/{key}/raw
+     */
+    @PutMapping(value = "/{key}/raw", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Map<String, String>> update(@PathVariable String key, @RequestBody byte[] value) {
+        long start = System.nanoTime();
+        boolean updated = "OK".equals(commands.set(key.getBytes(StandardCharsets.UTF_8), value, SetArgs.Builder.xx().keepttl()));
+        metrics.redisCall(Operation.UPDATE, start, key, value, updated);
+        afterWrite(key);
+
+        if (!updated) {
+            metrics.completed(Operation.UPDATE, Status.NOT_FOUND, start);
+            return error(404, "Key not found", key, "Cannot update non-existent key. Use POST to create a new key");
+        }
+
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Key-value pair updated successfully");
+        response.put("key", key);
+
+        metrics.completed(Operation.UPDATE, Status.SUCCESS, start);
+        return ResponseEntity.ok()
+            .eTag(ConditionalWrites.version(value))
+            .body(response);
+    }
+
+    private void afterWrite(String key) {
+        if (nearCache != null) {
+            nearCache.invalidate(key);
+        }
+        if (replicaReads != null) {
+            replicaReads.written(key);
+        }
+        coalescingReads.written(key);
+    }
+
+    private static ResponseEntity<Map<String, String>> error(int status, String error, String key, String message) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", error);
+        errorResponse.put("key", key);
+        errorResponse.put("message", message);
+
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(errorResponse);
+    }
+}
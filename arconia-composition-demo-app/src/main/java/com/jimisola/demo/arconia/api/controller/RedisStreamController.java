@@ -0,0 +1,173 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import com.jimisola.demo.arconia.api.controller.OperationMetrics.Operation;
+import com.jimisola.demo.arconia.api.controller.OperationMetrics.Status;
+import com.jimisola.demo.arconia.api.hotkeys.HotKeys;
+import com.jimisola.demo.arconia.redis.ChunkedValues;
+import com.jimisola.demo.arconia.redis.CoalescingReads;
+import com.jimisola.demo.arconia.redis.ExpiryPolicy;
+import com.jimisola.demo.arconia.redis.NearCache;
+import com.jimisola.demo.arconia.redis.RedisApiProperties;
+import com.jimisola.demo.arconia.redis.ReplicaReads;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Streaming variant of the binary endpoints for values too large to hold in memory.
+ *
+ * Request bodies are read and written to Redis in chunks as they arrive, and responses are
+ * written as they are read back, so heap use per request does not grow with the value.
+ * GET honours {@code Range} headers (single and multiple byte ranges) and only fetches the
+ * requested bytes from Redis. New keys get their prefix's default TTL and replaced keys keep theirs.
+ *
+ * Response bodies are written after the handler returns, so the operation duration of a GET
+ * covers locating the value, not transferring it.
+ */
+@RestController
+@RequestMapping("/api/redis")
+public class RedisStreamController {
+
+    private final ChunkedValues chunkedValues;
+    private final ExpiryPolicy expiryPolicy;
+    private final NearCache nearCache;
+    private final ReplicaReads replicaReads;
+    private final CoalescingReads coalescingReads;
+    private final OperationMetrics metrics;
+    private final LongCounter redisKeysCreatedCounter;
+    private final long maxSize;
+
+    public RedisStreamController(ChunkedValues chunkedValues, ExpiryPolicy expiryPolicy, ObjectProvider<NearCache> nearCache,
+            ObjectProvider<ReplicaReads> replicaReads, CoalescingReads coalescingReads, ObjectProvider<HotKeys> hotKeys,
+            RedisApiProperties properties, Meter meter) {
+        this.chunkedValues = chunkedValues;
+        this.expiryPolicy = expiryPolicy;
+        this.nearCache = nearCache.getIfAvailable();
+        this.replicaReads = replicaReads.getIfAvailable();
+        this.coalescingReads = coalescingReads;
+        this.metrics = new OperationMetrics(meter, Attributes.of(AttributeKey.stringKey("encoding"), "stream"), hotKeys.getIfAvailable());
+        this.maxSize = properties.streaming().maxSize().toBytes();
+
+        this.redisKeysCreatedCounter = meter
+            .counterBuilder("redis.keys.created")
+            .setDescription("Number of keys created in Redis")
+            .setUnit("keys")
+            .build();
+    }
+
+    /**
+     * Stream a value, or the requested byte ranges of it
+     * GET /api/redis/{key}/stream
+     */
+    @GetMapping("/{key}/stream")
+    public ResponseEntity<?> get(@PathVariable String key) throws IOException {
+        long start = System.nanoTime();
+        Optional<Resource> value = chunkedValues.open(key);
+        metrics.redisCall(Operation.GET, start, key);
+
+        if (value.isEmpty()) {
+            metrics.completed(Operation.GET, Status.NOT_FOUND, start);
+            return error(404, "Key not found", key, "The specified key does not exist in Redis");
+        }
+
+        metrics.valueSize(Operation.GET, key, value.get().contentLength());
+        metrics.completed(Operation.GET, Status.SUCCESS, start);
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .body(value.get());
+    }
+
+    /**
+     * Create a key from a streamed body
+     * POST /api/redis/{key}/stream
+     */
+    @PostMapping(value = "/{key}/stream", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Map<String, String>> create(@PathVariable String key, InputStream body) throws IOException {
+        long start = System.nanoTime();
+        ChunkedValues.Upload upload = chunkedValues.write(key, body, ChunkedValues.Mode.CREATE, expiryPolicy.forCreate(key, null));
+        metrics.redisCall(Operation.CREATE, start, key);
+
+        if (upload.outcome() == ChunkedValues.Outcome.TOO_LARGE) {
+            return tooLarge(Operation.CREATE, key, start);
+        }
+        if (upload.outcome() == ChunkedValues.Outcome.EXISTS) {
+            metrics.completed(Operation.CREATE, Status.CONFLICT, start);
+            return error(409, "Key already exists", key, "Use PUT to update existing key");
+        }
+
+        metrics.valueSize(Operation.CREATE, key, upload.length());
+        afterWrite(key);
+        redisKeysCreatedCounter.add(1);
+
+        metrics.completed(Operation.CREATE, Status.SUCCESS, start);
+        return ResponseEntity.status(201).body(stored(key, "Key-value pair stored successfully"));
+    }
+
+    /**
+     * Replace an existing key with a streamed body
+     * PUT /api/redis/{key}/stream
+     */
+    @PutMapping(value = "/{key}/stream", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Map<String, String>> update(@PathVariable String key, InputStream body) throws IOException {
+        long start = System.nanoTime();
+        ChunkedValues.Upload upload = chunkedValues.write(key, body, ChunkedValues.Mode.UPDATE, null);
+        metrics.redisCall(Operation.UPDATE, start, key);
+
+        if (upload.outcome() == ChunkedValues.Outcome.TOO_LARGE) {
+            return tooLarge(Operation.UPDATE, key, start);
+        }
+        if (upload.outcome() == ChunkedValues.Outcome.NOT_FOUND) {
+            metrics.completed(Operation.UPDATE, Status.NOT_FOUND, start);
+            return error(404, "Key not found", key, "Cannot update non-existent key. Use POST to create a new key");
+        }
+
+        metrics.valueSize(Operation.UPDATE, key, upload.length());
+        afterWrite(key);
+
+        metrics.completed(Operation.UPDATE, Status.SUCCESS, start);
+        return ResponseEntity.ok(stored(key, "Key-value pair updated successfully"));
+    }
+
+    private ResponseEntity<Map<String, String>> tooLarge(Operation operation, String key, long start) {
+        metrics.completed(operation, Status.TOO_LARGE, start);
+        return error(413, "Value too large", key, "Streamed values are limited to " + maxSize + " bytes");
+    }
+
+    private void afterWrite(String key) {
+        if (nearCache != null) {
+            nearCache.invalidate(key);
+        }
+        if (replicaReads != null) {
+            replicaReads.written(key);
+        }
+        coalescingReads.written(key);
+    }
+
+    private static Map<String, String> stored(String key, String message) {
+        Map<String, String> response = new HashMap<>();
+        response.put("message", message);
+        response.put("key", key);
+        return response;
+    }
+
+    private static ResponseEntity<Map<String, String>> error(int status, String error, String key, String message) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", error);
+        errorResponse.put("key", key);
+        errorResponse.put("message", message);
+
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(errorResponse);
+    }
+}
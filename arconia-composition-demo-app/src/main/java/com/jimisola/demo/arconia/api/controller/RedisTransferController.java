@@ -0,0 +1,242 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import com.jimisola.demo.arconia.api.admission.Expensive;
+import com.jimisola.demo.arconia.api.controller.OperationMetrics.Operation;
+import com.jimisola.demo.arconia.api.controller.OperationMetrics.Status;
+import com.jimisola.demo.arconia.api.hotkeys.HotKeys;
+import com.jimisola.demo.arconia.redis.BulkTransfer;
+import com.jimisola.demo.arconia.redis.ChunkedValues;
+import com.jimisola.demo.arconia.redis.KeyValueEntry;
+import com.jimisola.demo.arconia.redis.KeyspaceScanner;
+import com.jimisola.demo.arconia.redis.ScanPage;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Snapshot and restore of the keyspace as NDJSON, one {@code {"key","value","ttl"}} object per line.
+ *
+ * Both directions work one batch at a time, so heap use does not depend on the number of keys.
+ * Export batches are also capped by the stored size of their values, checked with STRLEN before they are
+ * read, and a value above the cap is streamed into its line through {@link ChunkedValues} on its own.
+ */
+@Expensive
+@RestController
+@RequestMapping("/api/redis")
+public class RedisTransferController {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final long MAX_BATCH_BYTES = 4 * 1024 * 1024;
+
+    private final KeyspaceScanner keyspaceScanner;
+    private final BulkTransfer bulkTransfer;
+    private final ChunkedValues chunkedValues;
+    private final JsonMapper jsonMapper;
+    private final ObjectWriter lineWriter;
+    private final OperationMetrics metrics;
+    private final LongCounter redisEntriesExportedCounter;
+    private final LongCounter redisEntriesImportedCounter;
+
+    public RedisTransferController(KeyspaceScanner keyspaceScanner, BulkTransfer bulkTransfer, ChunkedValues chunkedValues,
+            JsonMapper jsonMapper, ObjectProvider<HotKeys> hotKeys, Meter meter) {
+        this.keyspaceScanner = keyspaceScanner;
+        this.bulkTransfer = bulkTransfer;
+        this.chunkedValues = chunkedValues;
+        this.jsonMapper = jsonMapper;
+        // Streamed lines are written to the response, which must stay open for the next one
+        this.lineWriter = jsonMapper.writer().without(StreamWriteFeature.AUTO_CLOSE_TARGET);
+
+        this.metrics = new OperationMetrics(meter, Attributes.empty(), hotKeys.getIfAvailable());
+
+        this.redisEntriesExportedCounter = meter
+            .counterBuilder("redis.entries.exported")
+            .setDescription("Number of key/value entries streamed out by export")
+            .setUnit("entries")
+            .build();
+
+        this.redisEntriesImportedCounter = meter
+            .counterBuilder("redis.entries.imported")
+            .setDescription("Number of key/value entries written by import")
+            .setUnit("entries")
+            .build();
+    }
+
+    /**
+     * Stream all matching keys as NDJSON
+     * GET /api/redis/_export?match=*
+     */
+    @GetMapping(value = "/_export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "*") String match) {
+        long start = System.nanoTime();
+        StreamingResponseBody body = outputStream -> {
+            String cursor = ScanPage.INITIAL_CURSOR;
+            ScanPage page;
+            do {
+                page = keyspaceScanner.scanValues(cursor, match, BATCH_SIZE);
+                export(outputStream, page.keys());
+                cursor = page.cursor();
+            } while (!page.finished());
+
+            metrics.completed(Operation.EXPORT, Status.SUCCESS, start);
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Restore keys from an NDJSON body, overwriting existing keys
+     * POST /api/redis/_import
+     *
+     * Lines are parsed as they arrive and written in pipelined batches.
+     * Entries before a malformed line have already been written when the error is reported.
+     */
+    @PostMapping(value = "/_import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Map<String, Object>> importEntries(InputStream inputStream) throws IOException {
+        long start = System.nanoTime();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        List<KeyValueEntry> batch = new ArrayList<>(BATCH_SIZE);
+        long imported = 0;
+        long lineNumber = 0;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            KeyValueEntry entry;
+            try {
+                entry = jsonMapper.readValue(line, KeyValueEntry.class);
+            } catch (JacksonException e) {
+                entry = null;
+            }
+
+            if (entry == null || entry.key() == null || entry.value() == null
+                    || entry.ttl() > ValueRequest.MAX_TTL_SECONDS * 1000) {
+                imported += write(batch);
+
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("error", "Invalid NDJSON entry");
+                errorResponse.put("line", lineNumber);
+                errorResponse.put("count", imported);
+                errorResponse.put("message", "Each line must be a JSON object with key, value and optional ttl, at most "
+                    + ValueRequest.MAX_TTL_SECONDS * 1000 + "ms");
+
+                metrics.completed(Operation.IMPORT, Status.BAD_REQUEST, start);
+                return ResponseEntity.badRequest().body(errorResponse);
+            }
+
+            batch.add(entry);
+            if (batch.size() == BATCH_SIZE) {
+                imported += write(batch);
+                batch.clear();
+            }
+        }
+
+        imported += write(batch);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Entries imported successfully");
+        response.put("count", imported);
+
+        metrics.completed(Operation.IMPORT, Status.SUCCESS, start);
+        return ResponseEntity.ok(response);
+    }
+
+    private int write(List<KeyValueEntry> batch) {
+        bulkTransfer.write(batch);
+        redisEntriesImportedCounter.add(batch.size());
+        // Overwritten keys no longer have the value size recorded for them
+        metrics.keysRemoved(batch.stream().map(KeyValueEntry::key).toList());
+        return batch.size();
+    }
+
+    /**
+     * Write the lines of {@code keys} in batches of at most {@link #MAX_BATCH_BYTES} stored bytes.
+     */
+    private void export(OutputStream outputStream, List<String> keys) throws IOException {
+        long[] sizes = bulkTransfer.sizes(keys);
+        List<String> batch = new ArrayList<>();
+        long batchBytes = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            if (sizes[i] < 0) {
+                continue;
+            }
+            if (sizes[i] > MAX_BATCH_BYTES) {
+                exportStreamed(outputStream, keys.get(i));
+                continue;
+            }
+            if (batchBytes + sizes[i] > MAX_BATCH_BYTES) {
+                exportBatch(outputStream, batch);
+                batch.clear();
+                batchBytes = 0;
+            }
+            batch.add(keys.get(i));
+            batchBytes += sizes[i];
+        }
+        exportBatch(outputStream, batch);
+    }
+
+    private void exportBatch(OutputStream outputStream, List<String> keys) throws IOException {
+        List<KeyValueEntry> entries = bulkTransfer.read(keys);
+        writeLines(outputStream, entries);
+        redisEntriesExportedCounter.add(entries.size());
+    }
+
+    /**
+     * Write the line of one large value, reading the value chunk by chunk while it is written.
+     */
+    private void exportStreamed(OutputStream outputStream, String key) throws IOException {
+        long ttl = bulkTransfer.ttl(key);
+        Optional<Resource> value = chunkedValues.open(key);
+        if (ttl == -2 || value.isEmpty()) {
+            return;
+        }
+
+        try (Reader reader = new InputStreamReader(value.get().getInputStream(), StandardCharsets.UTF_8);
+                JsonGenerator generator = lineWriter.createGenerator(outputStream)) {
+            generator.writeStartObject();
+            generator.writeStringProperty("key", key);
+            generator.writeName("value");
+            generator.writeString(reader, -1);
+            generator.writeNumberProperty("ttl", ttl);
+            generator.writeEndObject();
+        }
+        outputStream.write('\n');
+        outputStream.flush();
+        redisEntriesExportedCounter.add(1);
+    }
+
+    private void writeLines(OutputStream outputStream, List<KeyValueEntry> entries) throws IOException {
+        for (KeyValueEntry entry : entries) {
+            outputStream.write(jsonMapper.writeValueAsBytes(entry));
+            outputStream.write('\n');
+        }
+        outputStream.flush();
+    }
+}
@@ -0,0 +1,13 @@
+package com.jimisola.demo.arconia.api.controller;
+
+/**
+ * Request body for changing the TTL of an existing key.
+ *
+ * @param ttlSeconds the new TTL, counted from now
+ */
+public record TtlRequest(Long ttlSeconds) {
+
+    boolean hasValidTtl() {
+        return ttlSeconds != null && ValueRequest.isValidTtl(ttlSeconds);
+    }
+}
@@ -1,6 +1,41 @@
 package com.jimisola.demo.arconia.api.controller;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Duration;
+
 /**
  * Request body for creating or updating a Redis value.
+ *
+ * @param value the value to store
+ * @param ttlSeconds optional expiry, set in the same SET; when omitted a new key gets its prefix's
+ *                   default TTL and an updated key keeps its current TTL
  */
-public record ValueRequest(String value) {}
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ValueRequest(String value, Long ttlSeconds) {
+
+    /**
+     * Longest TTL accepted, 100 years. Redis rejects expiries whose time in milliseconds overflows,
+     * and Duration.toMillis() overflows well before Long.MAX_VALUE seconds.
+     */
+    static final long MAX_TTL_SECONDS = Duration.ofDays(36_500).toSeconds();
+
+    public ValueRequest(String value) {
+        this(value, null);
+    }
+
+    boolean hasValidTtl() {
+        return ttlSeconds == null || isValidTtl(ttlSeconds);
+    }
+
+    static boolean isValidTtl(long ttlSeconds) {
+        return ttlSeconds > 0 && ttlSeconds <= MAX_TTL_SECONDS;
+    }
+
+    /**
+     * The requested TTL, or null when none was given.
+     */
+    Duration ttl() {
+        return ttlSeconds != null ? Duration.ofSeconds(ttlSeconds) : null;
+    }
+}
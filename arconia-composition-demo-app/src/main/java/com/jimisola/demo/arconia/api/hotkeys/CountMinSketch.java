@@ -0,0 +1,109 @@
+package com.jimisola.demo.arconia.api.hotkeys;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Approximate access counts of any number of keys in fixed memory.
+ *
+ * Each key increments one counter in each of four rows of {@code width} counters; its estimate is the
+ * smallest of those four. Collisions can only make an estimate too high, never too low, and with a width
+ * of a few thousand the error stays small for the keys that matter here, the most frequent ones.
+ *
+ * The rows are indexed by double hashing, {@code h1 + row * h2}, with both halves of one 64-bit hash
+ * of the key's chars (FNV-1a, then mixed so that both halves depend on every char). Keys only share
+ * all four counters when those 64 bits collide, unlike with {@link String#hashCode()}, where e.g. "Aa"
+ * and "BB" collide in every row. Hashing the chars rather than encoded bytes keeps a count allocation-free.
+ *
+ * Updates are lock-free. {@link #halve()} ages all counts, so estimates follow recent traffic.
+ */
+public final class CountMinSketch {
+
+    private static final int ROWS = 4;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final AtomicLongArray counters;
+    private final int width;
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * @param width counters per row, rounded up to a power of two
+     */
+    public CountMinSketch(int width) {
+        if (width < 1) {
+            throw new IllegalArgumentException("width must be positive, was " + width);
+        }
+        this.width = width == 1 ? 1 : Integer.highestOneBit(width - 1) << 1;
+        this.counters = new AtomicLongArray(ROWS * this.width);
+    }
+
+    /**
+     * Count one access of {@code key}.
+     *
+     * @return the estimated accesses of {@code key}, including this one
+     */
+    public long increment(String key) {
+        long hash = hash(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < ROWS; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(hash, row)));
+        }
+        total.increment();
+        return estimate;
+    }
+
+    /**
+     * @return the estimated accesses of {@code key}, 0 if it was never counted
+     */
+    public long estimate(String key) {
+        long hash = hash(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < ROWS; row++) {
+            estimate = Math.min(estimate, counters.get(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    /**
+     * @return accesses of all keys, aged like the counters
+     */
+    public long total() {
+        return total.sum();
+    }
+
+    /**
+     * Halve every count. Accesses counted concurrently may be halved or not.
+     */
+    public void halve() {
+        for (int i = 0; i < counters.length(); i++) {
+            long value;
+            do {
+                value = counters.get(i);
+            } while (value != 0 && !counters.compareAndSet(i, value, value >>> 1));
+        }
+        long sum = total.sumThenReset();
+        total.add(sum >>> 1);
+    }
+
+    static long hash(String key) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * FNV_PRIME;
+        }
+        // The final mix of MurmurHash3: FNV-1a alone spreads the last chars poorly into the high half, h2
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private int index(long hash, int row) {
+        int h1 = (int) hash;
+        // Odd, so that with a power-of-two width the rows never step through the same counters
+        int h2 = (int) (hash >>> 32) | 1;
+        return row * width + ((h1 + row * h2) & (width - 1));
+    }
+}
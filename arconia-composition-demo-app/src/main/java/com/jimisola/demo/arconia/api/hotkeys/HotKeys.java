@@ -0,0 +1,157 @@
+package com.jimisola.demo.arconia.api.hotkeys;
+
+import com.jimisola.demo.arconia.redis.KeyspaceChanges;
+import com.jimisola.demo.arconia.redis.RedisApiProperties;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.BatchCallback;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableLongMeasurement;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Finds the keys that take a disproportionate share of traffic (hot keys) and the largest values (big keys),
+ * from the single-key requests to {@code /api/redis}, in fixed memory.
+ *
+ * Accesses are counted in a {@link CountMinSketch}; a key whose estimate makes the top is kept in a
+ * {@link TopK} by name. Value sizes go straight into a second {@link TopK}, and a deleted key leaves it.
+ * With the change feed enabled, so do keys that expire, are evicted or are deleted by other clients;
+ * without it their last size stays until larger values push it out.
+ * Counts are halved every {@code halfLife}, so the hot keys are those of the last few half-lives.
+ *
+ * {@code redis.hot_keys.accesses} and {@code redis.big_keys.size} report the top {@code exported} keys
+ * by name, which bounds their cardinality; the full lists are served by {@code GET /api/redis/_hot-keys}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "demo.redis.hot-keys", name = "enabled", havingValue = "true")
+public class HotKeys implements AutoCloseable {
+
+    private static final AttributeKey<String> KEY = AttributeKey.stringKey("key");
+
+    private final CountMinSketch accesses;
+    private final TopK hot;
+    private final TopK big;
+    private final long halfLifeNanos;
+    private final AtomicLong nextHalving;
+    private final BatchCallback callback;
+    private final KeyspaceChanges changes;
+    private final KeyspaceChanges.Subscriber removals = new KeyspaceChanges.Subscriber() {
+        @Override
+        public boolean wantsValues() {
+            return false;
+        }
+
+        @Override
+        public void onChange(KeyspaceChanges.Change change) {
+            switch (change.type()) {
+                case DELETE, EXPIRED, EVICTED -> big.remove(change.key());
+                default -> {
+                    // A set by another client has no size to record
+                }
+            }
+        }
+    };
+
+    public HotKeys(RedisApiProperties properties, ObjectProvider<KeyspaceChanges> changes, Meter meter) {
+        RedisApiProperties.HotKeys hotKeys = properties.hotKeys();
+        this.accesses = new CountMinSketch(hotKeys.sketchWidth());
+        this.hot = new TopK(hotKeys.topK());
+        this.big = new TopK(hotKeys.topK());
+        this.halfLifeNanos = hotKeys.halfLife().toNanos();
+        this.nextHalving = new AtomicLong(System.nanoTime() + halfLifeNanos);
+
+        ObservableLongMeasurement hotAccesses = meter
+            .gaugeBuilder("redis.hot_keys.accesses")
+            .setDescription("Estimated recent accesses of the most accessed keys")
+            .setUnit("accesses")
+            .ofLongs()
+            .buildObserver();
+
+        ObservableLongMeasurement bigSize = meter
+            .gaugeBuilder("redis.big_keys.size")
+            .setDescription("Size of the largest values read or written, in bytes before compression")
+            .setUnit("By")
+            .ofLongs()
+            .buildObserver();
+
+        int exported = hotKeys.exported();
+        this.callback = meter.batchCallback(() -> {
+            for (TopK.Entry entry : hot.entries(exported)) {
+                hotAccesses.record(entry.value(), Attributes.of(KEY, entry.key()));
+            }
+            for (TopK.Entry entry : big.entries(exported)) {
+                bigSize.record(entry.value(), Attributes.of(KEY, entry.key()));
+            }
+        }, hotAccesses, bigSize);
+
+        this.changes = changes.getIfAvailable();
+        if (this.changes != null) {
+            this.changes.subscribe(removals, null);
+        }
+    }
+
+    /**
+     * Count one access of {@code key}.
+     */
+    public void accessed(String key) {
+        halveIfDue();
+        hot.offer(key, accesses.increment(key));
+    }
+
+    /**
+     * Record the size of the value of {@code key}, as read or written.
+     */
+    public void valueSize(String key, long bytes) {
+        big.offer(key, bytes);
+    }
+
+    /**
+     * Forget the value size of a deleted key.
+     */
+    public void removed(String key) {
+        big.remove(key);
+    }
+
+    /**
+     * @return up to {@code limit} keys by estimated recent accesses, most accessed first
+     */
+    public List<TopK.Entry> hot(int limit) {
+        return hot.entries(limit);
+    }
+
+    /**
+     * @return up to {@code limit} keys by value size, largest first
+     */
+    public List<TopK.Entry> big(int limit) {
+        return big.entries(limit);
+    }
+
+    /**
+     * @return recent accesses of all keys, aged like those of {@link #hot(int)}
+     */
+    public long totalAccesses() {
+        return accesses.total();
+    }
+
+    private void halveIfDue() {
+        long due = nextHalving.get();
+        // Only the caller that moves the deadline halves
+        if (System.nanoTime() - due >= 0 && nextHalving.compareAndSet(due, due + halfLifeNanos)) {
+            accesses.halve();
+            hot.halve();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (changes != null) {
+            changes.unsubscribe(removals);
+        }
+        callback.close();
+    }
+}
@@ -0,0 +1,137 @@
+package com.jimisola.demo.arconia.api.hotkeys;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code capacity} keys with the largest values offered so far, e.g. access estimates or value sizes.
+ *
+ * Each kept key holds its value in an {@link AtomicLong}, so an offer for a kept key is a map lookup and a
+ * plain write, and an offer for a key that is not kept and does not beat the smallest value kept is a map
+ * lookup and a read. Neither allocates or locks, so the keys already kept and the long tail of keys cost
+ * next to nothing. Only a key that makes it in takes the lock, to evict the smallest.
+ */
+public final class TopK {
+
+    public record Entry(String key, long value) {}
+
+    private static final Comparator<Entry> LARGEST_FIRST = Comparator.comparingLong(Entry::value).reversed();
+
+    private final int capacity;
+    private final Map<String, AtomicLong> entries;
+    // While full, at most the smallest value kept, else Long.MIN_VALUE. Raised only under the lock;
+    // lowered without it when a kept value shrinks below it, so that an offer it rejects cannot make it in.
+    private final AtomicLong threshold = new AtomicLong(Long.MIN_VALUE);
+
+    public TopK(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive, was " + capacity);
+        }
+        this.capacity = capacity;
+        this.entries = new ConcurrentHashMap<>(capacity * 2);
+    }
+
+    /**
+     * Keep {@code key} with {@code value} if it is among the largest, replacing a value kept for it before.
+     */
+    public void offer(String key, long value) {
+        AtomicLong kept = entries.get(key);
+        if (kept != null) {
+            kept.set(value);
+            lowerThreshold(value);
+            return;
+        }
+        if (value <= threshold.get()) {
+            return;
+        }
+
+        synchronized (this) {
+            kept = entries.get(key);
+            if (kept != null) {
+                kept.set(value);
+                lowerThreshold(value);
+                return;
+            }
+            if (entries.size() >= capacity) {
+                String smallest = smallest();
+                if (value <= entries.get(smallest).get()) {
+                    updateThreshold();
+                    return;
+                }
+                entries.remove(smallest);
+            }
+            entries.put(key, new AtomicLong(value));
+            updateThreshold();
+        }
+    }
+
+    public void remove(String key) {
+        if (!entries.containsKey(key)) {
+            return;
+        }
+        synchronized (this) {
+            if (entries.remove(key) != null) {
+                updateThreshold();
+            }
+        }
+    }
+
+    /**
+     * Halve every value kept, along with the {@link CountMinSketch} that produced them.
+     */
+    public synchronized void halve() {
+        for (AtomicLong kept : entries.values()) {
+            long value;
+            do {
+                value = kept.get();
+            } while (!kept.compareAndSet(value, value >>> 1));
+        }
+        updateThreshold();
+    }
+
+    /**
+     * @return up to {@code limit} entries, largest value first
+     */
+    public List<Entry> entries(int limit) {
+        List<Entry> sorted = new ArrayList<>(entries.size());
+        entries.forEach((key, value) -> sorted.add(new Entry(key, value.get())));
+        sorted.sort(LARGEST_FIRST);
+        return sorted.size() > limit ? List.copyOf(sorted.subList(0, limit)) : sorted;
+    }
+
+    private String smallest() {
+        String smallest = null;
+        long smallestValue = Long.MAX_VALUE;
+        for (Map.Entry<String, AtomicLong> entry : entries.entrySet()) {
+            long value = entry.getValue().get();
+            if (value < smallestValue) {
+                smallest = entry.getKey();
+                smallestValue = value;
+            }
+        }
+        return smallest;
+    }
+
+    private void lowerThreshold(long value) {
+        long current;
+        do {
+            current = threshold.get();
+        } while (value < current && !threshold.compareAndSet(current, value));
+    }
+
+    private void updateThreshold() {
+        if (entries.size() < capacity) {
+            threshold.set(Long.MIN_VALUE);
+            return;
+        }
+        long smallestValue = Long.MAX_VALUE;
+        for (AtomicLong kept : entries.values()) {
+            smallestValue = Math.min(smallestValue, kept.get());
+        }
+        threshold.set(smallestValue);
+    }
+}
@@ -0,0 +1,81 @@
+package com.jimisola.demo.arconia.observability;
+
+import jdk.jfr.SettingControl;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The threshold of an event that carries its duration in an {@code elapsed} field, enabled as
+ * {@code elapsedThreshold}: events that took less fail {@link jdk.jfr.Event#shouldCommit()}, so they are
+ * dropped before they reach a recording or stream. The built-in {@code threshold} cannot do this, as it
+ * compares the JFR duration, which these events do not have.
+ *
+ * Takes JFR timespans such as {@code 10 ms} or {@code 0 ns}; with several recordings the smallest applies,
+ * like the built-in threshold.
+ */
+public final class ElapsedThreshold extends SettingControl {
+
+    public static final String NAME = "elapsedThreshold";
+
+    private static final String NONE = "0 ns";
+
+    private String value = NONE;
+    private volatile long nanos;
+
+    @Override
+    public String combine(Set<String> values) {
+        String smallest = null;
+        long smallestNanos = Long.MAX_VALUE;
+        for (String candidate : values) {
+            long candidateNanos = parse(candidate);
+            if (candidateNanos < smallestNanos) {
+                smallest = candidate;
+                smallestNanos = candidateNanos;
+            }
+        }
+        return smallest != null ? smallest : NONE;
+    }
+
+    @Override
+    public void setValue(String value) {
+        this.nanos = parse(value);
+        this.value = value;
+    }
+
+    @Override
+    public String getValue() {
+        return value;
+    }
+
+    boolean accepts(long elapsedNanos) {
+        return elapsedNanos >= nanos;
+    }
+
+    static long parse(String timespan) {
+        String trimmed = timespan.trim().toLowerCase(Locale.ROOT);
+        if (trimmed.equals("infinity")) {
+            return Long.MAX_VALUE;
+        }
+        int unitStart = 0;
+        while (unitStart < trimmed.length() && Character.isDigit(trimmed.charAt(unitStart))) {
+            unitStart++;
+        }
+        if (unitStart == 0) {
+            throw new IllegalArgumentException("Not a timespan: " + timespan);
+        }
+        long amount = Long.parseLong(trimmed.substring(0, unitStart));
+        TimeUnit unit = switch (trimmed.substring(unitStart).trim()) {
+            case "ns" -> TimeUnit.NANOSECONDS;
+            case "us" -> TimeUnit.MICROSECONDS;
+            case "ms" -> TimeUnit.MILLISECONDS;
+            case "s" -> TimeUnit.SECONDS;
+            case "m" -> TimeUnit.MINUTES;
+            case "h" -> TimeUnit.HOURS;
+            case "d" -> TimeUnit.DAYS;
+            default -> throw new IllegalArgumentException("Not a timespan: " + timespan);
+        };
+        return unit.toNanos(amount);
+    }
+}
@@ -0,0 +1,156 @@
+package com.jimisola.demo.arconia.observability;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streams JDK Flight Recorder events into OpenTelemetry metrics, so that GC pauses, allocation, thread
+ * parking and lock contention show up next to the request metrics without opening a recording file.
+ *
+ * Uses an in-process {@link RecordingStream}; its events also go to any recording started with
+ * {@code -XX:StartFlightRecording}, e.g. the one the observability convention adds to {@code bootRun},
+ * where they can be looked at in detail. Parking, lock and Redis events are only recorded above their
+ * threshold, as those below it are frequent and rarely interesting.
+ *
+ * {@code demo.jfr.enabled=false} turns the stream off.
+ */
+@Component
+public class JfrMetrics implements AutoCloseable {
+
+    private static final AttributeKey<String> GC = AttributeKey.stringKey("gc");
+    private static final AttributeKey<String> MONITOR = AttributeKey.stringKey("monitor");
+    private static final AttributeKey<String> OPERATION = AttributeKey.stringKey("operation");
+    private static final AttributeKey<String> STATUS = AttributeKey.stringKey("status");
+
+    private static final List<Double> BUCKETS =
+        List.of(0.1, 0.25, 0.5, 1.0, 2.5, 5.0, 10.0, 25.0, 50.0, 100.0, 250.0, 500.0, 1000.0);
+
+    private final RecordingStream stream;
+    // Event fields are strings, so attribute sets are built once per distinct value
+    private final Map<String, Attributes> attributes = new ConcurrentHashMap<>();
+
+    public JfrMetrics(Meter meter,
+            @Value("${demo.jfr.enabled:true}") boolean enabled,
+            @Value("${demo.jfr.park-threshold:10ms}") Duration parkThreshold,
+            @Value("${demo.jfr.lock-threshold:10ms}") Duration lockThreshold,
+            @Value("${demo.jfr.slow-threshold:10ms}") Duration slowThreshold) {
+        if (!enabled) {
+            this.stream = null;
+            return;
+        }
+
+        DoubleHistogram gcPause = meter
+            .histogramBuilder("jfr.gc.pause")
+            .setDescription("Time application threads were stopped by a garbage collection")
+            .setUnit("ms")
+            .setExplicitBucketBoundariesAdvice(BUCKETS)
+            .build();
+
+        LongCounter allocated = meter
+            .counterBuilder("jfr.allocation")
+            .setDescription("Bytes allocated on the heap, estimated from allocation samples")
+            .setUnit("By")
+            .build();
+
+        DoubleHistogram threadPark = meter
+            .histogramBuilder("jfr.thread.park")
+            .setDescription("Time threads were parked, e.g. waiting for a lock or a connection, above the park threshold")
+            .setUnit("ms")
+            .setExplicitBucketBoundariesAdvice(BUCKETS)
+            .build();
+
+        DoubleHistogram lockContention = meter
+            .histogramBuilder("jfr.lock.contention")
+            .setDescription("Time threads waited to enter a synchronized block, above the lock threshold")
+            .setUnit("ms")
+            .setExplicitBucketBoundariesAdvice(BUCKETS)
+            .build();
+
+        LongCounter slowOperations = meter
+            .counterBuilder("redis.operations.slow")
+            .setDescription("Number of requests that took longer than the slow threshold")
+            .setUnit("operations")
+            .build();
+
+        LongCounter slowCommands = meter
+            .counterBuilder("redis.commands.slow")
+            .setDescription("Number of requests that waited for Redis longer than the slow threshold")
+            .setUnit("operations")
+            .build();
+
+        this.stream = new RecordingStream();
+        stream.setReuse(true);
+
+        stream.enable("jdk.GarbageCollection");
+        stream.onEvent("jdk.GarbageCollection", event ->
+            gcPause.record(millis(event.getDuration("sumOfPauses")), attributes(GC, event.getString("name"))));
+
+        stream.enable("jdk.ObjectAllocationSample");
+        stream.onEvent("jdk.ObjectAllocationSample", event -> allocated.add(event.getLong("weight")));
+
+        stream.enable("jdk.ThreadPark").withThreshold(parkThreshold).withoutStackTrace();
+        stream.onEvent("jdk.ThreadPark", event -> threadPark.record(millis(event.getDuration())));
+
+        stream.enable("jdk.JavaMonitorEnter").withThreshold(lockThreshold).withoutStackTrace();
+        stream.onEvent("jdk.JavaMonitorEnter", event ->
+            lockContention.record(millis(event.getDuration()), attributes(MONITOR, monitorClass(event))));
+
+        // The Redis events carry their duration in a field, so their threshold is an ElapsedThreshold.
+        // Faster requests are dropped at commit; those still seen here were asked for by another recording.
+        long slowNanos = slowThreshold.toNanos();
+        String elapsedThreshold = slowNanos + " ns";
+        stream.enable(RedisOperationEvent.NAME).with(ElapsedThreshold.NAME, elapsedThreshold);
+        stream.onEvent(RedisOperationEvent.NAME, event -> {
+            if (event.getLong("elapsed") >= slowNanos) {
+                slowOperations.add(1, attributes(OPERATION, event.getString("operation"), STATUS, event.getString("status")));
+            }
+        });
+
+        stream.enable(RedisCallEvent.NAME).with(ElapsedThreshold.NAME, elapsedThreshold);
+        stream.onEvent(RedisCallEvent.NAME, event -> {
+            if (event.getLong("elapsed") >= slowNanos) {
+                slowCommands.add(1, attributes(OPERATION, event.getString("operation")));
+            }
+        });
+
+        stream.startAsync();
+    }
+
+    private Attributes attributes(AttributeKey<String> key, String value) {
+        return attributes.computeIfAbsent(key.getKey() + '=' + value, unused -> Attributes.of(key, value));
+    }
+
+    private Attributes attributes(AttributeKey<String> key1, String value1, AttributeKey<String> key2, String value2) {
+        return attributes.computeIfAbsent(key1.getKey() + '=' + value1 + ',' + key2.getKey() + '=' + value2,
+            unused -> Attributes.of(key1, value1, key2, value2));
+    }
+
+    private static String monitorClass(RecordedEvent event) {
+        RecordedClass monitorClass = event.getClass("monitorClass");
+        return monitorClass != null ? monitorClass.getName() : "unknown";
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1_000_000.0;
+    }
+
+    @Override
+    public void close() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
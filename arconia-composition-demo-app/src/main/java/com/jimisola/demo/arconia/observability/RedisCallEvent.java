@@ -0,0 +1,60 @@
+package com.jimisola.demo.arconia.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.SettingDefinition;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * The Redis call(s) of one request, i.e. the part of a {@link RedisOperationEvent} spent waiting for Redis.
+ * Committed and filtered like {@link RedisOperationEvent}.
+ */
+@Name(RedisCallEvent.NAME)
+@Label("Redis Call")
+@Description("Time a request spent waiting for Redis")
+@Category({"Demo", "Redis"})
+@StackTrace(false)
+public class RedisCallEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.jimisola.demo.RedisCall";
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Key Size")
+    @DataAmount
+    public long keySize;
+
+    @Label("Value Size")
+    @DataAmount
+    public long valueSize;
+
+    @Label("Elapsed")
+    @Timespan
+    public long elapsed;
+
+    /**
+     * @param keySize UTF-8 bytes of the key, -1 for calls on many keys
+     * @param valueSize bytes of the value read or written, -1 when there is none
+     */
+    public static void commit(String operation, long keySize, long valueSize, long durationNanos) {
+        RedisCallEvent event = new RedisCallEvent();
+        event.elapsed = durationNanos;
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.keySize = keySize;
+            event.valueSize = valueSize;
+            event.commit();
+        }
+    }
+
+    @SettingDefinition
+    @Name(ElapsedThreshold.NAME)
+    protected boolean elapsedThreshold(ElapsedThreshold threshold) {
+        return threshold.accepts(elapsed);
+    }
+}
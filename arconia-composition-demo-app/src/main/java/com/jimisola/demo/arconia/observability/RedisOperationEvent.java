@@ -0,0 +1,55 @@
+package com.jimisola.demo.arconia.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.SettingDefinition;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One request to a key/value endpoint, from receiving it to building the response.
+ *
+ * Committed at the end with the measured duration as a field rather than as a durational event, since
+ * the start is only known as a {@link System#nanoTime()} value ({@code duration} is taken by JFR itself).
+ * The built-in threshold therefore does not apply; enable the event with an {@link ElapsedThreshold}
+ * instead, {@code elapsedThreshold}, and faster requests fail {@link #shouldCommit()} and are never
+ * written. Without a stack trace it costs a few hundred nanoseconds when written and next to nothing when
+ * not. Key and value sizes are on the {@link RedisCallEvent}s of the operation.
+ */
+@Name(RedisOperationEvent.NAME)
+@Label("Redis Operation")
+@Description("A request to a /api/redis endpoint")
+@Category({"Demo", "Redis"})
+@StackTrace(false)
+public class RedisOperationEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.jimisola.demo.RedisOperation";
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Status")
+    public String status;
+
+    @Label("Elapsed")
+    @Timespan
+    public long elapsed;
+
+    public static void commit(String operation, String status, long durationNanos) {
+        RedisOperationEvent event = new RedisOperationEvent();
+        event.elapsed = durationNanos;
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.status = status;
+            event.commit();
+        }
+    }
+
+    @SettingDefinition
+    @Name(ElapsedThreshold.NAME)
+    protected boolean elapsedThreshold(ElapsedThreshold threshold) {
+        return threshold.accepts(elapsed);
+    }
+}
@@ -0,0 +1,104 @@
+package com.jimisola.demo.arconia.redis;
+
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.RedisCommandTimeoutException;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.cluster.SlotHash;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Runs a list of single-key commands in one round trip.
+ *
+ * Replies are returned in command order: the value (or {@code null}) for GET,
+ * {@link Boolean} for SET NX / SET XX and {@link Long} for DEL.
+ */
+@Component
+public class BatchExecutor {
+
+    private static final LuaScript BATCH = LuaScript.load("scripts/batch.lua");
+
+    private final NativeConnection<String, String> connection;
+    private final RedisClusterAsyncCommands<String, String> commands;
+    private final Duration timeout;
+
+    public BatchExecutor(NativeConnection<String, String> nativeRedisConnection) {
+        this.connection = nativeRedisConnection;
+        this.commands = nativeRedisConnection.async();
+        this.timeout = nativeRedisConnection.getTimeout();
+    }
+
+    /**
+     * Send every command before waiting for any reply; other clients' commands may interleave with them.
+     * On a cluster each command goes to the node owning its key, so the nodes work on their share in parallel.
+     */
+    public List<Object> pipelined(List<KeyCommand> commands) {
+        List<RedisFuture<?>> futures = new ArrayList<>(commands.size());
+        for (KeyCommand command : commands) {
+            futures.add(switch (command.type()) {
+                case GET -> this.commands.get(command.key());
+                case CREATE, UPDATE -> this.commands.set(command.key(), command.value(), command.setArgs());
+                case DELETE -> this.commands.del(command.key());
+            });
+        }
+        if (!LettuceFutures.awaitAll(timeout, futures.toArray(RedisFuture[]::new))) {
+            throw new RedisCommandTimeoutException("Batch of " + futures.size() + " commands timed out after " + timeout);
+        }
+
+        List<Object> replies = new ArrayList<>(commands.size());
+        for (int i = 0; i < commands.size(); i++) {
+            Object reply = futures.get(i).resultNow();
+            // SET NX / SET XX reply OK when written and nil when the condition was not met
+            replies.add(isWrite(commands.get(i)) ? "OK".equals(reply) : reply);
+        }
+        return replies;
+    }
+
+    /**
+     * Whether {@link #atomic(List)} can run these commands: always on a single server,
+     * and on a cluster only when all keys hash to the same slot, for example through a shared {@code {hash tag}}.
+     */
+    public boolean canRunAtomically(List<KeyCommand> commands) {
+        if (!connection.isCluster()) {
+            return true;
+        }
+        return commands.stream().mapToInt(command -> SlotHash.getSlot(command.key())).distinct().count() <= 1;
+    }
+
+    /**
+     * Run the commands in one Lua script so that no other client's command runs in between.
+     * Each command keeps its own outcome; a failed SET NX does not roll back the others.
+     *
+     * @see #canRunAtomically(List)
+     */
+    public List<Object> atomic(List<KeyCommand> commands) {
+        String[] keys = new String[commands.size()];
+        String[] arguments = new String[commands.size() * 3];
+        for (int i = 0; i < commands.size(); i++) {
+            KeyCommand command = commands.get(i);
+            keys[i] = command.key();
+            arguments[3 * i] = command.type().name().toLowerCase(Locale.ROOT);
+            arguments[3 * i + 1] = command.value() != null ? command.value() : "";
+            arguments[3 * i + 2] = command.ttl() != null ? String.valueOf(command.ttl().toMillis()) : "";
+        }
+
+        List<Object> results = BATCH.eval(connection.sync(), ScriptOutputType.MULTI, keys, arguments);
+        List<Object> replies = new ArrayList<>(commands.size());
+        for (int i = 0; i < commands.size(); i++) {
+            Object reply = results.get(i);
+            // The script replies 1 when a SET was written and 0 when not
+            replies.add(isWrite(commands.get(i)) ? Long.valueOf(1).equals(reply) : reply);
+        }
+        return replies;
+    }
+
+    private static boolean isWrite(KeyCommand command) {
+        return command.type() == KeyCommand.Type.CREATE || command.type() == KeyCommand.Type.UPDATE;
+    }
+}
@@ -0,0 +1,122 @@
+package com.jimisola.demo.arconia.redis;
+
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.RedisCommandTimeoutException;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads and writes key/value pairs in batches, sending every command of a batch
+ * before waiting for any reply so that each batch costs a single round trip.
+ * On a cluster the MGET is split by slot and every node gets its part of the batch at once.
+ */
+@Component
+public class BulkTransfer {
+
+    private final RedisClusterAsyncCommands<String, String> commands;
+    private final Duration timeout;
+
+    public BulkTransfer(NativeConnection<String, String> nativeRedisConnection) {
+        this.commands = nativeRedisConnection.async();
+        this.timeout = nativeRedisConnection.getTimeout();
+    }
+
+    /**
+     * The stored size in bytes of the value of each of the given keys, from one pipelined STRLEN per key:
+     * {@code 0} for a key that does not exist, {@code -1} for one that does not hold a string.
+     */
+    public long[] sizes(List<String> keys) {
+        List<RedisFuture<Long>> lengths = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            lengths.add(commands.strlen(key));
+        }
+
+        // Not awaitAll, which throws on the WRONGTYPE error of a key that is not a string
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long[] sizes = new long[keys.size()];
+        try {
+            for (int i = 0; i < sizes.length; i++) {
+                RedisFuture<Long> length = lengths.get(i);
+                if (!length.await(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    throw new RedisCommandTimeoutException("Batch of " + sizes.length + " commands timed out after " + timeout);
+                }
+                sizes[i] = length.state() == Future.State.SUCCESS ? length.resultNow() : -1;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for value sizes", e);
+        }
+        return sizes;
+    }
+
+    /**
+     * Remaining TTL of {@code key} in milliseconds, {@link KeyValueEntry#NO_EXPIRY} if it does not expire,
+     * or {@code -2} if it does not exist.
+     */
+    public long ttl(String key) {
+        RedisFuture<Long> ttl = commands.pttl(key);
+        await(List.of(ttl));
+        long millis = ttl.resultNow();
+        return millis > 0 || millis == -2 ? millis : KeyValueEntry.NO_EXPIRY;
+    }
+
+    /**
+     * Fetch values and remaining TTLs for the given keys.
+     * Keys that no longer exist, or that do not hold a string, are skipped.
+     */
+    public List<KeyValueEntry> read(List<String> keys) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+
+        RedisFuture<List<KeyValue<String, String>>> values = commands.mget(keys.toArray(String[]::new));
+        List<RedisFuture<Long>> ttls = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            ttls.add(commands.pttl(key));
+        }
+
+        List<RedisFuture<?>> futures = new ArrayList<>(ttls);
+        futures.add(values);
+        await(futures);
+
+        List<KeyValue<String, String>> keyValues = values.resultNow();
+        List<KeyValueEntry> entries = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            KeyValue<String, String> keyValue = keyValues.get(i);
+            long ttl = ttls.get(i).resultNow();
+            // -2 means the key expired or was deleted after it was scanned
+            if (keyValue.hasValue() && ttl != -2) {
+                entries.add(new KeyValueEntry(keyValue.getKey(), keyValue.getValue(), ttl > 0 ? ttl : KeyValueEntry.NO_EXPIRY));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Write all entries, overwriting existing keys.
+     */
+    public void write(List<KeyValueEntry> entries) {
+        List<RedisFuture<?>> futures = new ArrayList<>(entries.size());
+        for (KeyValueEntry entry : entries) {
+            futures.add(entry.expires()
+                ? commands.set(entry.key(), entry.value(), SetArgs.Builder.px(entry.ttl()))
+                : commands.set(entry.key(), entry.value()));
+        }
+        await(futures);
+    }
+
+    private void await(List<RedisFuture<?>> futures) {
+        if (!LettuceFutures.awaitAll(timeout, futures.toArray(RedisFuture[]::new))) {
+            throw new RedisCommandTimeoutException("Batch of " + futures.size() + " commands timed out after " + timeout);
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.jimisola.demo.arconia.redis;
+
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.cluster.SlotHash;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import io.lettuce.core.cluster.api.sync.RedisClusterCommands;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Streams values into and out of Redis in fixed-size chunks, so memory use per request
+ * is a few chunks no matter how large the value is.
+ *
+ * An upload is appended chunk by chunk to a temporary key next to the target and moved
+ * onto the target in one step when complete, so readers never see a partial value and an
+ * abandoned upload expires on its own. The value is a plain Redis string, readable through
+ * every other endpoint; reads fetch it back with GETRANGE, which also serves byte ranges.
+ *
+ * Chunks bypass {@link ValueCompression}: offsets into a streamed value are offsets into the
+ * stored bytes. Values that were compressed when written through another endpoint are
+ * decompressed while their chunks are read, so they do not have to fit in memory either;
+ * a range read of such a value decompresses everything before the range.
+ */
+public class ChunkedValues implements AutoCloseable {
+
+    public enum Mode {
+        // Argument of commit-upload.lua
+        CREATE("create"), UPDATE("update");
+
+        private final String value;
+
+        Mode(String value) {
+            this.value = value;
+        }
+    }
+
+    public enum Outcome {
+        STORED, EXISTS, NOT_FOUND, TOO_LARGE
+    }
+
+    /**
+     * @param length bytes received; when too large, the number read before the upload was abandoned
+     */
+    public record Upload(Outcome outcome, long length) {}
+
+    // Appends sent before waiting for the oldest reply; bounds both round trips and buffered chunks
+    private static final int IN_FLIGHT_CHUNKS = 4;
+    private static final byte[] EMPTY = new byte[0];
+    private static final Pattern UPLOAD_KEY = Pattern.compile(".*:upload:[0-9a-f]{8}(-[0-9a-f]{4}){3}-[0-9a-f]{12}");
+    private static final LuaScript COMMIT_UPLOAD = LuaScript.load("scripts/commit-upload.lua");
+
+    private final NativeConnection<byte[], byte[]> connection;
+    private final RedisClusterCommands<byte[], byte[]> commands;
+    private final RedisClusterAsyncCommands<byte[], byte[]> asyncCommands;
+    private final int chunkSize;
+    private final long maxSize;
+    private final Duration uploadTtl;
+    private final Duration timeout;
+
+    /**
+     * @param connection a connection with a plain byte array codec; values must not go through {@link CompressingCodec}
+     */
+    public ChunkedValues(NativeConnection<byte[], byte[]> connection, RedisApiProperties.Streaming properties) {
+        this.connection = connection;
+        this.commands = connection.sync();
+        this.asyncCommands = connection.async();
+        this.chunkSize = (int) Math.min(properties.chunkSize().toBytes(), Integer.MAX_VALUE);
+        this.maxSize = properties.maxSize().toBytes();
+        this.uploadTtl = properties.uploadTtl();
+        this.timeout = connection.getTimeout();
+    }
+
+    /**
+     * Store everything {@code in} provides under {@code key}, creating or replacing it depending on {@code mode}.
+     *
+     * @param ttl expiry of the stored value; {@code null} keeps the TTL a replaced key had
+     */
+    public Upload write(String key, InputStream in, Mode mode, Duration ttl) throws IOException {
+        byte[] target = key.getBytes(StandardCharsets.UTF_8);
+        // Matched by isUploadKey
+        byte[] upload = (uploadPrefix(key) + ":upload:" + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+        commands.set(upload, EMPTY, SetArgs.Builder.px(uploadTtl));
+
+        Deque<RedisFuture<Long>> inFlight = new ArrayDeque<>(IN_FLIGHT_CHUNKS);
+        byte[] buffer = new byte[chunkSize];
+        long length = 0;
+        boolean escaped = false;
+        boolean committed = false;
+        try {
+            int read;
+            while ((read = in.readNBytes(buffer, 0, chunkSize)) > 0) {
+                if (length == 0 && ValueCompression.needsEscape(buffer, read)) {
+                    // The real length is written over this header once it is known
+                    append(upload, ValueCompression.uncompressedHeader(0), inFlight);
+                    escaped = true;
+                }
+                length += read;
+                if (length > maxSize) {
+                    return new Upload(Outcome.TOO_LARGE, length);
+                }
+                // Lettuce encodes the chunk later, on its I/O thread, so the buffer cannot be handed over
+                append(upload, Arrays.copyOf(buffer, read), inFlight);
+            }
+            while (!inFlight.isEmpty()) {
+                await(inFlight.removeFirst());
+            }
+            if (escaped) {
+                commands.setrange(upload, 0, ValueCompression.uncompressedHeader((int) length));
+            }
+
+            committed = true;
+            if (!commit(upload, target, mode, ttl)) {
+                return new Upload(mode == Mode.CREATE ? Outcome.EXISTS : Outcome.NOT_FOUND, length);
+            }
+            return new Upload(Outcome.STORED, length);
+        } finally {
+            if (!committed) {
+                commands.del(upload);
+            }
+        }
+    }
+
+    /**
+     * The value of {@code key} as a resource that reads it from Redis chunk by chunk, or empty if the key does not exist.
+     */
+    public Optional<Resource> open(String key) {
+        byte[] redisKey = key.getBytes(StandardCharsets.UTF_8);
+        byte[] prefix = commands.getrange(redisKey, 0, ValueCompression.HEADER_LENGTH - 1);
+        if (prefix.length == 0) {
+            // An empty string and a missing key both have no bytes
+            return commands.exists(redisKey) == 1 ? Optional.of(new ByteArrayResource(EMPTY)) : Optional.empty();
+        }
+
+        ValueCompression.Codec codec = ValueCompression.headerCodec(prefix);
+        if (codec == null) {
+            long length = commands.strlen(redisKey);
+            return Optional.of(new ValueResource(key, redisKey, 0, length, null, length));
+        }
+        long storedLength = commands.strlen(redisKey) - ValueCompression.HEADER_LENGTH;
+        long length = codec == ValueCompression.Codec.NONE ? storedLength : ValueCompression.headerLength(prefix);
+        return Optional.of(new ValueResource(key, redisKey, ValueCompression.HEADER_LENGTH, storedLength, codec, length));
+    }
+
+    private void append(byte[] upload, byte[] chunk, Deque<RedisFuture<Long>> inFlight) {
+        if (inFlight.size() == IN_FLIGHT_CHUNKS) {
+            await(inFlight.removeFirst());
+        }
+        inFlight.addLast(asyncCommands.append(upload, chunk));
+    }
+
+    private void await(RedisFuture<Long> future) {
+        LettuceFutures.awaitOrCancel(future, timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private boolean commit(byte[] upload, byte[] target, Mode mode, Duration ttl) {
+        byte[][] keys = {upload, target};
+        byte[][] arguments = {
+            mode.value.getBytes(StandardCharsets.UTF_8),
+            String.valueOf(ttl != null ? ttl.toMillis() : 0).getBytes(StandardCharsets.UTF_8)
+        };
+        Long result = COMMIT_UPLOAD.eval(commands, ScriptOutputType.INTEGER, keys, arguments);
+        return result == 1;
+    }
+
+    /**
+     * Whether {@code key} is the temporary key of an upload rather than a stored value.
+     */
+    public static boolean isUploadKey(String key) {
+        return key.contains(":upload:") && UPLOAD_KEY.matcher(key).matches();
+    }
+
+    /**
+     * Start of the upload key that puts it in the same cluster slot as {@code key}, which RENAME requires.
+     * A key without a hash tag becomes the tag; a key with one already shares it with anything appended.
+     * Keys with braces that do not form a tag get the first numeric tag that hashes to their slot.
+     */
+    static String uploadPrefix(String key) {
+        int slot = SlotHash.getSlot(key);
+        String tagged = "{" + key + "}";
+        if (SlotHash.getSlot(tagged) == slot) {
+            return tagged;
+        }
+        if (SlotHash.getSlot(key + ":") == slot) {
+            return key;
+        }
+        for (int i = 0; ; i++) {
+            String candidate = "{" + i + "}";
+            if (SlotHash.getSlot(candidate) == slot) {
+                return candidate + key;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        connection.close();
+    }
+
+    /**
+     * A stored value of known length; every {@link #getInputStream()} reads it from the start.
+     */
+    private final class ValueResource extends AbstractResource {
+
+        private final String key;
+        private final byte[] redisKey;
+        private final long offset;
+        private final long storedLength;
+        private final ValueCompression.Codec codec;
+        private final long length;
+
+        /**
+         * @param offset where the stored bytes start, after the header if there is one
+         * @param storedLength number of stored bytes from {@code offset}
+         * @param codec codec named in the header, {@code null} without one
+         * @param length size of the value once decoded
+         */
+        ValueResource(String key, byte[] redisKey, long offset, long storedLength, ValueCompression.Codec codec, long length) {
+            this.key = key;
+            this.redisKey = redisKey;
+            this.offset = offset;
+            this.storedLength = storedLength;
+            this.codec = codec;
+            this.length = length;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            InputStream stored = new ValueInputStream(redisKey, offset, storedLength);
+            return codec == null ? stored : ValueCompression.decoding(codec, stored, length);
+        }
+
+        @Override
+        public long contentLength() {
+            return length;
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public String getDescription() {
+            return "Redis value [" + key + "]";
+        }
+    }
+
+    /**
+     * Fetches one chunk at a time with GETRANGE. {@link #skip(long)} only moves the position,
+     * so a range read starts with the chunk holding its first byte.
+     *
+     * A concurrent replace is only noticed if it makes the value shorter than the part still to be read.
+     */
+    private final class ValueInputStream extends InputStream {
+
+        private final byte[] redisKey;
+        private final long offset;
+        private final long length;
+        private long position;
+        private byte[] chunk = EMPTY;
+        private long chunkStart;
+
+        ValueInputStream(byte[] redisKey, long offset, long length) {
+            this.redisKey = redisKey;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!fill()) {
+                return -1;
+            }
+            return chunk[(int) (position++ - chunkStart)] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] target, int targetOffset, int count) throws IOException {
+            Objects.checkFromIndexSize(targetOffset, count, target.length);
+            if (count == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int index = (int) (position - chunkStart);
+            int n = Math.min(count, chunk.length - index);
+            System.arraycopy(chunk, index, target, targetOffset, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = Math.clamp(n, 0, length - position);
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            long buffered = chunkStart + chunk.length - position;
+            return buffered > 0 ? (int) buffered : 0;
+        }
+
+        private boolean fill() throws IOException {
+            if (position >= length) {
+                return false;
+            }
+            if (position >= chunkStart && position < chunkStart + chunk.length) {
+                return true;
+            }
+            long end = Math.min(position + chunkSize, length) - 1;
+            chunk = commands.getrange(redisKey, offset + position, offset + end);
+            chunkStart = position;
+            if (chunk.length != end - position + 1) {
+                throw new IOException("Value changed while it was being read: expected "
+                    + (end - position + 1) + " bytes at offset " + position + " but got " + chunk.length);
+            }
+            return true;
+        }
+    }
+}
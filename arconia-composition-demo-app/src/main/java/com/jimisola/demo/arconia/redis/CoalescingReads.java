@@ -0,0 +1,62 @@
+package com.jimisola.demo.arconia.redis;
+
+import io.opentelemetry.api.metrics.Meter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * GET and MGET through {@link SingleFlight}, so a thundering herd on one key
+ * results in a single Redis call per JVM.
+ *
+ * Reads go to the primary, or through {@link ReplicaReads} when replica reads are enabled.
+ * Writers call {@link #written(String)}, so a client that reads back its own write never shares a read
+ * that started before it, which on a replica would also bypass read-your-writes.
+ */
+@Component
+public class CoalescingReads {
+
+    private final Function<String, String> read;
+    private final Function<List<String>, List<String>> readAll;
+    private final SingleFlight<String, String> singleFlight;
+    private final boolean enabled;
+
+    public CoalescingReads(RedisTemplate<String, String> stringRedisTemplate, ObjectProvider<ReplicaReads> replicaReads,
+            RedisApiProperties properties, Meter meter) {
+        ReplicaReads replicas = replicaReads.getIfAvailable();
+        this.read = replicas != null ? replicas::get : stringRedisTemplate.opsForValue()::get;
+        this.readAll = replicas != null ? replicas::multiGet : stringRedisTemplate.opsForValue()::multiGet;
+        this.enabled = properties.coalescing().enabled();
+        this.singleFlight = new SingleFlight<>("redis", properties.coalescing().maxWait(), meter);
+    }
+
+    public String get(String key) {
+        if (!enabled) {
+            return read.apply(key);
+        }
+        return singleFlight.get(key, read);
+    }
+
+    /**
+     * @return values in the order of {@code keys}, {@code null} for missing keys
+     */
+    public List<String> multiGet(List<String> keys) {
+        if (!enabled) {
+            return readAll.apply(keys);
+        }
+        return singleFlight.getAll(keys, readAll);
+    }
+
+    /**
+     * Make the next read of a key this application just wrote or deleted start a call of its own,
+     * rather than join one that started before the write and may return the old value.
+     */
+    public void written(String key) {
+        if (enabled) {
+            singleFlight.forget(key);
+        }
+    }
+}
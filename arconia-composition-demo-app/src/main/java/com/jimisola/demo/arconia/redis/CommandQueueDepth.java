@@ -0,0 +1,53 @@
+package com.jimisola.demo.arconia.redis;
+
+import io.lettuce.core.event.command.CommandFailedEvent;
+import io.lettuce.core.event.command.CommandListener;
+import io.lettuce.core.event.command.CommandStartedEvent;
+import io.lettuce.core.event.command.CommandSucceededEvent;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the commands sent to Redis that have not been answered yet, over all connections of the
+ * Lettuce client behind {@link LettuceConnectionFactory}.
+ *
+ * Lettuce only notifies listeners that were added before a connection was opened, so this registers
+ * itself right after the connection factory is initialized and before anything can connect.
+ */
+public class CommandQueueDepth implements CommandListener, BeanPostProcessor {
+
+    private final LongAdder inFlight = new LongAdder();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        // Started here unless early startup was turned off, in which case nothing is counted
+        if (bean instanceof LettuceConnectionFactory connectionFactory && connectionFactory.isRunning()) {
+            connectionFactory.getNativeClient().addListener(this);
+        }
+        return bean;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        inFlight.increment();
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        inFlight.decrement();
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        inFlight.decrement();
+    }
+
+    /**
+     * @return commands written or queued for writing whose reply has not arrived yet
+     */
+    public long inFlight() {
+        return Math.max(0, inFlight.sum());
+    }
+}
@@ -0,0 +1,41 @@
+package com.jimisola.demo.arconia.redis;
+
+import io.lettuce.core.codec.RedisCodec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Lettuce codec that runs values through {@link ValueCompression} and leaves keys to the delegate.
+ *
+ * Uncompressed values are passed straight to and from the delegate without an extra copy.
+ */
+public class CompressingCodec<K, V> implements RedisCodec<K, V> {
+
+    private final RedisCodec<K, V> delegate;
+    private final ValueCompression compression;
+
+    public CompressingCodec(RedisCodec<K, V> delegate, ValueCompression compression) {
+        this.delegate = delegate;
+        this.compression = compression;
+    }
+
+    @Override
+    public K decodeKey(ByteBuffer bytes) {
+        return delegate.decodeKey(bytes);
+    }
+
+    @Override
+    public V decodeValue(ByteBuffer bytes) {
+        return delegate.decodeValue(compression.decode(bytes));
+    }
+
+    @Override
+    public ByteBuffer encodeKey(K key) {
+        return delegate.encodeKey(key);
+    }
+
+    @Override
+    public ByteBuffer encodeValue(V value) {
+        return compression.encode(delegate.encodeValue(value));
+    }
+}
@@ -0,0 +1,32 @@
+package com.jimisola.demo.arconia.redis;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * String value serializer for {@code RedisTemplate} that runs values through {@link ValueCompression}.
+ */
+public class CompressingRedisSerializer implements RedisSerializer<String> {
+
+    private final ValueCompression compression;
+
+    public CompressingRedisSerializer(ValueCompression compression) {
+        this.compression = compression;
+    }
+
+    @Override
+    public byte[] serialize(String value) {
+        return value == null ? null : compression.encode(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public String deserialize(byte[] bytes) {
+        return bytes == null ? null : new String(compression.decode(bytes), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Class<?> getTargetType() {
+        return String.class;
+    }
+}
@@ -0,0 +1,115 @@
+package com.jimisola.demo.arconia.redis;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Single round trip conditional writes.
+ *
+ * A value's version is the SHA-1 of its bytes, which Redis can compute itself
+ * with {@code redis.sha1hex}, so no version counter has to be stored next to the value.
+ *
+ * The expiry is set by the same SET. A null TTL keeps the key's current one (KEEPTTL),
+ * so a new key does not expire and an updated key keeps its expiry.
+ */
+@Component
+public class ConditionalWrites {
+
+    public enum Result {
+        UPDATED, VERSION_MISMATCH, NOT_FOUND
+    }
+
+    private static final RedisScript<Long> COMPARE_AND_SET =
+        RedisScript.of(new ClassPathResource("scripts/compare-and-set.lua"), Long.class);
+
+    private final RedisTemplate<String, String> stringRedisTemplate;
+    private final ValueCompression compression;
+
+    public ConditionalWrites(RedisTemplate<String, String> stringRedisTemplate, ValueCompression compression) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.compression = compression;
+    }
+
+    /**
+     * SET NX: store the value only if the key does not exist.
+     */
+    public boolean createIfAbsent(String key, String value, Duration ttl) {
+        return Boolean.TRUE.equals(ValueWrites.set(stringRedisTemplate, key, value, ttl, SetOption.ifAbsent()));
+    }
+
+    /**
+     * SET XX: store the value only if the key already exists.
+     */
+    public boolean updateIfPresent(String key, String value, Duration ttl) {
+        return Boolean.TRUE.equals(ValueWrites.set(stringRedisTemplate, key, value, ttl, SetOption.ifPresent()));
+    }
+
+    /**
+     * Store the value only if the current value has the expected version.
+     * Runs as EVALSHA, falling back to EVAL the first time the script is not cached on the server.
+     * Compressed values are decompressed and compared here instead, since Redis cannot decompress them;
+     * the script then only writes if the stored bytes are still the ones that were compared.
+     */
+    public Result compareAndSet(String key, String expectedVersion, String value, Duration ttl) {
+        Long result = run(key, expectedVersion, value, ttl, "");
+        if (result != null && result == -2) {
+            return compareStoredAndSet(key, expectedVersion, value, ttl);
+        }
+        return toResult(result);
+    }
+
+    private Result compareStoredAndSet(String key, String expectedVersion, String value, Duration ttl) {
+        byte[] stored = stringRedisTemplate.execute((RedisCallback<byte[]>) connection ->
+            connection.stringCommands().get(key.getBytes(StandardCharsets.UTF_8)));
+        if (stored == null) {
+            return Result.NOT_FOUND;
+        }
+        if (!version(compression.decode(stored)).equals(expectedVersion)) {
+            return Result.VERSION_MISMATCH;
+        }
+        // A script rather than WATCH/MULTI, which Spring does not support on Redis Cluster
+        return toResult(run(key, version(stored), value, ttl, "stored"));
+    }
+
+    private Long run(String key, String expectedVersion, String value, Duration ttl, String mode) {
+        String ttlMillis = ttl != null ? String.valueOf(ttl.toMillis()) : "";
+        return stringRedisTemplate.execute(COMPARE_AND_SET, List.of(key), expectedVersion, value, ttlMillis, mode);
+    }
+
+    private static Result toResult(Long result) {
+        if (result == null || result < 0) {
+            return Result.NOT_FOUND;
+        }
+        return result == 1 ? Result.UPDATED : Result.VERSION_MISMATCH;
+    }
+
+    /**
+     * Version of a value as a lowercase SHA-1 hex string, matching {@code redis.sha1hex}.
+     */
+    public static String version(String value) {
+        return version(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Version of a binary value, matching {@link #version(String)} for the same bytes.
+     */
+    public static String version(byte[] value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            return HexFormat.of().formatHex(digest.digest(value));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+    }
+}
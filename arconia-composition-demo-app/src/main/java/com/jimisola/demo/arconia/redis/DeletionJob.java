@@ -0,0 +1,70 @@
+package com.jimisola.demo.arconia.redis;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of a background deletion of all keys matching a pattern.
+ */
+public class DeletionJob {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id;
+    private final String match;
+    private final Instant startedAt = Instant.now();
+    private final AtomicLong deleted = new AtomicLong();
+    private volatile Status status = Status.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    DeletionJob(String id, String match) {
+        this.id = id;
+        this.match = match;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public String match() {
+        return match;
+    }
+
+    public Instant startedAt() {
+        return startedAt;
+    }
+
+    public long deleted() {
+        return deleted.get();
+    }
+
+    public Status status() {
+        return status;
+    }
+
+    public Instant finishedAt() {
+        return finishedAt;
+    }
+
+    public String error() {
+        return error;
+    }
+
+    void addDeleted(long count) {
+        deleted.addAndGet(count);
+    }
+
+    void complete() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    void fail(Exception e) {
+        error = e.getMessage();
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+}
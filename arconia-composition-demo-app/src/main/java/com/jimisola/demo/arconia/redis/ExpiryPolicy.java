@@ -0,0 +1,41 @@
+package com.jimisola.demo.arconia.redis;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Default TTLs for new keys, configured per key prefix.
+ *
+ * The longest matching prefix wins, so {@code session:admin:} can override {@code session:}.
+ * Keys without a matching prefix and without a requested TTL never expire.
+ */
+@Component
+public class ExpiryPolicy {
+
+    private final List<Map.Entry<String, Duration>> defaults;
+
+    public ExpiryPolicy(RedisApiProperties properties) {
+        this.defaults = properties.expiry().defaults().entrySet().stream()
+            .sorted(Comparator.comparingInt((Map.Entry<String, Duration> entry) -> entry.getKey().length()).reversed())
+            .toList();
+    }
+
+    /**
+     * TTL for a key being created: the requested one, else the default for its prefix, else null for none.
+     */
+    public Duration forCreate(String key, Duration requested) {
+        if (requested != null) {
+            return requested;
+        }
+        for (Map.Entry<String, Duration> entry : defaults) {
+            if (key.startsWith(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,43 @@
+package com.jimisola.demo.arconia.redis;
+
+import io.lettuce.core.SetArgs;
+
+import java.time.Duration;
+
+/**
+ * A single-key command as run by {@link BatchExecutor}.
+ *
+ * @param type what to do with the key
+ * @param key the Redis key
+ * @param value the value to write, {@code null} for {@link Type#GET} and {@link Type#DELETE}
+ * @param ttl expiry set by {@link Type#CREATE} and {@link Type#UPDATE}; {@code null} keeps the key's current TTL
+ */
+public record KeyCommand(Type type, String key, String value, Duration ttl) {
+
+    public KeyCommand(Type type, String key, String value) {
+        this(type, key, value, null);
+    }
+
+    /**
+     * SET arguments of a {@link Type#CREATE} or {@link Type#UPDATE}: NX or XX, and PX or KEEPTTL.
+     */
+    public SetArgs setArgs() {
+        SetArgs args = switch (type) {
+            case CREATE -> SetArgs.Builder.nx();
+            case UPDATE -> SetArgs.Builder.xx();
+            case GET, DELETE -> throw new IllegalStateException(type + " is not a write");
+        };
+        return ttl != null ? args.px(ttl) : args.keepttl();
+    }
+
+    public enum Type {
+        /** GET */
+        GET,
+        /** SET NX */
+        CREATE,
+        /** SET XX */
+        UPDATE,
+        /** DEL */
+        DELETE
+    }
+}
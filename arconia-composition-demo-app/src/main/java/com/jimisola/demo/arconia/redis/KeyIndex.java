@@ -0,0 +1,253 @@
+package com.jimisola.demo.arconia.redis;
+
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.Limit;
+import io.lettuce.core.Range;
+import io.lettuce.core.RedisCommandTimeoutException;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.cluster.api.sync.RedisClusterCommands;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A secondary index of key names, so that the keys under a prefix can be listed and deleted
+ * without scanning the whole keyspace.
+ *
+ * A key's namespace is the part before its first {@code ':'}, e.g. {@code user} for {@code user:123:name}.
+ * Each namespace has a sorted set, {@code <keyPrefix><namespace>}, holding its keys with score 0, so they
+ * are ordered by name and a prefix is a ZRANGEBYLEX range: O(log N + page) instead of O(keyspace).
+ * Keys without a namespace are not indexed.
+ *
+ * On a single server a key and its index entry are created and deleted by one script, so they
+ * always change together. On a cluster they live in different slots and are written one after the
+ * other instead: a new key is indexed before it is written, and again after, and a deleted key leaves the
+ * index after it is gone. Either way an interrupted write leaves an index entry without a key, never a key
+ * without an entry. Expired and evicted keys leave entries behind as well; listings skip them and
+ * {@link #prune} removes them.
+ *
+ * Whatever removes entries other than in one script with the key checks afterwards which of their keys
+ * exist and puts those entries back. A create that ran in between, and found its entry still there,
+ * wrote its key before that check or indexed it again after the removal, so it keeps its entry.
+ *
+ * Index entries are read and written through a connection of their own, without {@link ValueCompression},
+ * since they are key names and have to stay in their lexicographic order.
+ */
+public class KeyIndex implements AutoCloseable {
+
+    private static final char SEPARATOR = ':';
+    private static final LuaScript CREATE = LuaScript.load("scripts/create-indexed.lua");
+    private static final LuaScript DELETE = LuaScript.load("scripts/delete-indexed.lua");
+    private static final LuaScript PRUNE = LuaScript.load("scripts/prune-index.lua");
+    private static final String[] NO_ARGUMENTS = {};
+
+    /**
+     * One page of the keys under a prefix.
+     *
+     * @param keys the keys of this page, in lexicographic order
+     * @param after the last key of this page, to pass to the next call; {@code null} when there are no more keys
+     */
+    public record Page(List<String> keys, String after) {}
+
+    private final NativeConnection<String, String> values;
+    private final NativeConnection<String, String> index;
+    private final RedisClusterCommands<String, String> valueCommands;
+    private final RedisClusterCommands<String, String> indexCommands;
+    private final String keyPrefix;
+    private final LongCounter prunedCounter;
+
+    /**
+     * @param values connection the values are written through
+     * @param index connection for the index entries, closed with this index
+     */
+    public KeyIndex(NativeConnection<String, String> values, NativeConnection<String, String> index,
+            RedisApiProperties.KeyIndex properties, Meter meter) {
+        this.values = values;
+        this.index = index;
+        this.valueCommands = values.sync();
+        this.indexCommands = index.sync();
+        this.keyPrefix = properties.keyPrefix();
+
+        this.prunedCounter = meter
+            .counterBuilder("redis.key_index.pruned")
+            .setDescription("Index entries removed because their key had expired, been evicted or deleted elsewhere")
+            .setUnit("keys")
+            .build();
+    }
+
+    /**
+     * The namespace of a key, or {@code null} when it has none and is not indexed.
+     */
+    public static String namespace(String key) {
+        int separator = key.indexOf(SEPARATOR);
+        return separator > 0 ? key.substring(0, separator) : null;
+    }
+
+    /**
+     * SET NX, adding the key to its namespace's index when it was created.
+     */
+    public boolean createIfAbsent(String key, String value, Duration ttl) {
+        String namespace = namespace(key);
+        KeyCommand command = new KeyCommand(KeyCommand.Type.CREATE, key, value, ttl);
+        if (namespace == null) {
+            return "OK".equals(valueCommands.set(key, value, command.setArgs()));
+        }
+        if (values.isCluster()) {
+            indexCommands.zadd(indexKey(namespace), 0, key);
+            boolean created = "OK".equals(valueCommands.set(key, value, command.setArgs()));
+            if (created) {
+                // In case a prune or delete removed the entry while the key did not exist yet
+                indexCommands.zadd(indexKey(namespace), 0, key);
+            }
+            return created;
+        }
+        String ttlMillis = ttl != null ? String.valueOf(ttl.toMillis()) : "";
+        Long created = CREATE.eval(valueCommands, ScriptOutputType.INTEGER,
+            new String[] { key, indexKey(namespace) }, new String[] { value, ttlMillis });
+        return created != null && created == 1;
+    }
+
+    /**
+     * DEL, removing the key from its namespace's index.
+     */
+    public boolean delete(String key) {
+        String namespace = namespace(key);
+        if (namespace == null) {
+            return valueCommands.del(key) > 0;
+        }
+        if (values.isCluster()) {
+            long deleted = valueCommands.del(key);
+            unindex(indexKey(namespace), List.of(key));
+            return deleted > 0;
+        }
+        Long deleted = DELETE.eval(valueCommands, ScriptOutputType.INTEGER,
+            new String[] { key, indexKey(namespace) }, NO_ARGUMENTS);
+        return deleted != null && deleted > 0;
+    }
+
+    /**
+     * The indexed keys starting with {@code prefix}, after the key {@code after} if given.
+     * The page can hold keys that no longer exist.
+     *
+     * @throws IllegalArgumentException if {@code prefix} does not start with a namespace
+     */
+    public Page range(String prefix, String after, int limit) {
+        String indexKey = indexKey(requireNamespace(prefix));
+        Range.Boundary<String> from = after != null && after.startsWith(prefix)
+            ? Range.Boundary.excluding(after)
+            : Range.Boundary.including(prefix);
+        List<String> members = indexCommands.zrangebylex(indexKey, Range.from(from, Range.Boundary.unbounded()),
+            Limit.create(0, limit));
+
+        // The range runs to the end of the namespace; it has left the prefix at the first key without it
+        List<String> keys = new ArrayList<>(members.size());
+        for (String member : members) {
+            if (!member.startsWith(prefix)) {
+                return new Page(keys, null);
+            }
+            keys.add(member);
+        }
+        return new Page(keys, members.size() < limit ? null : members.getLast());
+    }
+
+    /**
+     * Remove the entries of keys under {@code prefix} that were found missing, unless they have been created again since.
+     */
+    public void prune(String prefix, List<String> missing) {
+        if (missing.isEmpty()) {
+            return;
+        }
+        String indexKey = indexKey(requireNamespace(prefix));
+        long removed;
+        if (values.isCluster()) {
+            // The keys are spread over the cluster, so they are checked one by one rather than in one script
+            List<String> gone = new ArrayList<>(missing);
+            gone.removeAll(existing(missing));
+            removed = gone.isEmpty() ? 0 : unindex(indexKey, gone);
+        } else {
+            String[] keys = new String[missing.size() + 1];
+            keys[0] = indexKey;
+            for (int i = 0; i < missing.size(); i++) {
+                keys[i + 1] = missing.get(i);
+            }
+            Long pruned = PRUNE.eval(valueCommands, ScriptOutputType.INTEGER, keys, NO_ARGUMENTS);
+            removed = pruned != null ? pruned : 0;
+        }
+        if (removed > 0) {
+            prunedCounter.add(removed);
+        }
+    }
+
+    /**
+     * UNLINK indexed {@code keys} under {@code prefix}, as listed by {@link #range}, and remove their entries.
+     *
+     * @return the number of keys removed
+     */
+    long unlink(String prefix, List<String> keys) {
+        long unlinked = valueCommands.unlink(keys.toArray(String[]::new));
+        unindex(indexKey(namespace(prefix)), keys);
+        return unlinked;
+    }
+
+    /**
+     * ZREM the entries of {@code keys}, then put back those whose key exists after all.
+     *
+     * @return the number of entries that stayed removed
+     */
+    private long unindex(String indexKey, List<String> keys) {
+        long removed = indexCommands.zrem(indexKey, keys.toArray(String[]::new));
+        List<String> recreated = existing(keys);
+        if (recreated.isEmpty()) {
+            return removed;
+        }
+        Object[] scoresAndMembers = new Object[recreated.size() * 2];
+        for (int i = 0; i < recreated.size(); i++) {
+            scoresAndMembers[2 * i] = 0;
+            scoresAndMembers[2 * i + 1] = recreated.get(i);
+        }
+        indexCommands.zadd(indexKey, scoresAndMembers);
+        return Math.max(0, removed - recreated.size());
+    }
+
+    /**
+     * The {@code keys} that exist, checked with one pipelined EXISTS per key, as they can be in different slots.
+     */
+    private List<String> existing(List<String> keys) {
+        List<RedisFuture<Long>> replies = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            replies.add(values.async().exists(key));
+        }
+        Duration timeout = values.getTimeout();
+        if (!LettuceFutures.awaitAll(timeout, replies.toArray(RedisFuture[]::new))) {
+            throw new RedisCommandTimeoutException("EXISTS of " + keys.size() + " keys timed out after " + timeout);
+        }
+        List<String> existing = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (replies.get(i).resultNow() > 0) {
+                existing.add(keys.get(i));
+            }
+        }
+        return existing;
+    }
+
+    private String indexKey(String namespace) {
+        return keyPrefix + namespace;
+    }
+
+    private static String requireNamespace(String prefix) {
+        String namespace = namespace(prefix);
+        if (namespace == null) {
+            throw new IllegalArgumentException("A prefix must start with a namespace followed by '" + SEPARATOR + "'");
+        }
+        return namespace;
+    }
+
+    @Override
+    public void close() {
+        index.close();
+    }
+}
@@ -0,0 +1,17 @@
+package com.jimisola.demo.arconia.redis;
+
+/**
+ * A single key/value pair as written to and read from an NDJSON snapshot.
+ *
+ * @param key the Redis key
+ * @param value the string value
+ * @param ttl remaining time to live in milliseconds, {@code -1} if the key does not expire
+ */
+public record KeyValueEntry(String key, String value, long ttl) {
+
+    public static final long NO_EXPIRY = -1;
+
+    public boolean expires() {
+        return ttl > 0;
+    }
+}
@@ -0,0 +1,401 @@
+package com.jimisola.demo.arconia.redis;
+
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.RedisException;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import io.lettuce.core.cluster.api.sync.RedisClusterCommands;
+import io.lettuce.core.cluster.pubsub.StatefulRedisClusterPubSubConnection;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.BatchCallback;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableLongMeasurement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Changes to keys, pushed by Redis keyspace notifications to one subscription per JVM and fanned out
+ * to any number of {@link Subscriber}s.
+ *
+ * Every change is seen, whichever client made it and including keys that expire or are evicted; the
+ * notifications themselves are fire-and-forget, so changes made while the subscription is disconnected
+ * or while the dispatcher is behind are lost. A {@link Type#RESET} change marks such a gap: subscribers
+ * have to read the keys again to catch up.
+ *
+ * A single dispatcher thread numbers the changes and keeps the last {@code bufferSize} of them, so a
+ * subscriber that reconnects can resume after the last change it received. One that missed more than
+ * {@code subscriberQueue} changes gets a {@link Type#RESET} instead, as it could not take them all at once. With a subscriber that wants
+ * them, values of set keys up to {@code maxValueSize} are read along, as they are after the change.
+ *
+ * On a Redis Cluster every master is subscribed; masters added later are not.
+ */
+public class KeyspaceChanges implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(KeyspaceChanges.class);
+
+    public enum Type {
+        SET("set"), DELETE("delete"), EXPIRE("expire"), EXPIRED("expired"), EVICTED("evicted"), RESET("reset");
+
+        private final String value;
+
+        Type(String value) {
+            this.value = value;
+        }
+
+        public String value() {
+            return value;
+        }
+    }
+
+    /**
+     * @param id resumable position of the change, unique per JVM start
+     * @param key {@code null} for {@link Type#RESET}
+     * @param value value of a set key, if a subscriber asked for values and it was not too large
+     */
+    public record Change(String id, Type type, String key, String value) {}
+
+    public interface Subscriber {
+
+        boolean wantsValues();
+
+        /**
+         * Called on the dispatcher thread in order, so it must not block.
+         */
+        void onChange(Change change);
+    }
+
+    private record Notification(Type type, String key) {}
+
+    /**
+     * Events of {@link #NOTIFY_FLAGS} by their names in keyevent channels; anything else, such as APPEND
+     * on an upload, is ignored.
+     */
+    private static final Map<String, Type> EVENTS = Map.of(
+        "set", Type.SET,
+        "rename_to", Type.SET,
+        "del", Type.DELETE,
+        "rename_from", Type.DELETE,
+        "expire", Type.EXPIRE,
+        "persist", Type.EXPIRE,
+        "expired", Type.EXPIRED,
+        "evicted", Type.EVICTED);
+
+    // E: keyevent channels, g: generic commands (DEL, EXPIRE, RENAME), $: string commands, x: expired, e: evicted
+    static final String NOTIFY_FLAGS = "Eg$xe";
+
+    private static final AttributeKey<String> TYPE = AttributeKey.stringKey("type");
+    private static final AttributeKey<String> REASON = AttributeKey.stringKey("reason");
+    private static final Attributes OVERFLOW = Attributes.of(REASON, "overflow");
+    private static final Attributes DISCONNECTED = Attributes.of(REASON, "disconnected");
+    private static final Attributes EXPIRED_ID = Attributes.of(REASON, "expired_id");
+    private static final Attributes TOO_FAR_BEHIND = Attributes.of(REASON, "too_far_behind");
+    private static final int MAX_BATCH_SIZE = 256;
+
+    private final StatefulRedisPubSubConnection<String, String> pubSub;
+    private final RedisClusterAsyncCommands<String, String> commands;
+    private final Duration timeout;
+    private final BlockingQueue<Notification> notifications;
+    private final Change[] buffer;
+    private final int maxReplay;
+    private final int maxValueSize;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger valueSubscribers = new AtomicInteger();
+    private final Thread dispatcher;
+    private final LongCounter changesCounter;
+    private final LongCounter resetsCounter;
+    private final Attributes[] typeAttributes;
+    private final BatchCallback callback;
+    // Last sequence number given out; only changed under the lock
+    private long sequence;
+    private volatile Attributes lost;
+    private volatile boolean running = true;
+
+    /**
+     * @param pubSub a connection of its own, as a subscribed connection cannot run other commands
+     * @param connection reads values
+     * @param database only changes in this database are seen (always 0 on a cluster)
+     */
+    public KeyspaceChanges(StatefulRedisPubSubConnection<String, String> pubSub, NativeConnection<String, String> connection,
+            int database, RedisApiProperties.Changes properties, Meter meter) {
+        this.pubSub = pubSub;
+        this.commands = connection.async();
+        this.timeout = connection.getTimeout();
+        this.notifications = new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.buffer = new Change[properties.bufferSize()];
+        this.maxReplay = Math.min(properties.subscriberQueue(), properties.bufferSize());
+        this.maxValueSize = (int) Math.min(properties.maxValueSize().toBytes(), Integer.MAX_VALUE);
+
+        this.changesCounter = meter
+            .counterBuilder("redis.changes.changes")
+            .setDescription("Number of key changes received from Redis keyspace notifications")
+            .setUnit("changes")
+            .build();
+
+        this.resetsCounter = meter
+            .counterBuilder("redis.changes.resets")
+            .setDescription("Number of times changes were lost and subscribers were told to read the keys again")
+            .setUnit("resets")
+            .build();
+
+        ObservableLongMeasurement subscriberCount = meter
+            .gaugeBuilder("redis.changes.subscribers")
+            .setDescription("Subscribers receiving key changes")
+            .setUnit("subscribers")
+            .ofLongs()
+            .buildObserver();
+        ObservableLongMeasurement queued = meter
+            .gaugeBuilder("redis.changes.queued")
+            .setDescription("Notifications received but not dispatched to subscribers yet")
+            .setUnit("changes")
+            .ofLongs()
+            .buildObserver();
+        this.callback = meter.batchCallback(() -> {
+            subscriberCount.record(subscribers.size());
+            queued.record(notifications.size());
+        }, subscriberCount, queued);
+
+        Type[] types = Type.values();
+        this.typeAttributes = new Attributes[types.length];
+        for (Type type : types) {
+            typeAttributes[type.ordinal()] = Attributes.of(TYPE, type.value());
+        }
+
+        if (properties.configureNotifications()) {
+            enableNotifications(connection);
+        }
+
+        pubSub.addListener(new RedisPubSubAdapter<>() {
+            @Override
+            public void message(String pattern, String channel, String key) {
+                received(channel, key);
+            }
+        });
+        pubSub.addListener(new RedisConnectionStateListener() {
+            @Override
+            public void onRedisConnected(RedisChannelHandler<?, ?> connection, SocketAddress socketAddress) {
+                // Lettuce subscribes again on reconnect; whatever happened in between is gone
+                lost = DISCONNECTED;
+            }
+
+            @Override
+            public void onRedisDisconnected(RedisChannelHandler<?, ?> connection) {
+                lost = DISCONNECTED;
+            }
+        });
+
+        String channels = "__keyevent@" + database + "__:*";
+        if (pubSub instanceof StatefulRedisClusterPubSubConnection<String, String> cluster) {
+            // Each master only publishes changes to its own keys
+            cluster.setNodeMessagePropagation(true);
+            cluster.sync().upstream().commands().psubscribe(channels);
+        } else {
+            pubSub.sync().psubscribe(channels);
+        }
+
+        this.dispatcher = Thread.ofPlatform().name("redis-keyspace-changes").daemon().start(this::run);
+    }
+
+    /**
+     * Add {@code notify-keyspace-events} flags that are missing on any master. Managed Redis services often
+     * forbid CONFIG; there the flags have to be set in the service's own configuration.
+     */
+    private static void enableNotifications(NativeConnection<String, String> connection) {
+        for (RedisClusterCommands<String, String> master : connection.masters()) {
+            try {
+                String current = master.configGet("notify-keyspace-events").getOrDefault("notify-keyspace-events", "");
+                String flags = notifyFlags(current);
+                if (!flags.equals(current)) {
+                    master.configSet("notify-keyspace-events", flags);
+                }
+            } catch (RedisException e) {
+                log.warn("Could not enable keyspace notifications, set notify-keyspace-events to include {} on the server: {}",
+                    NOTIFY_FLAGS, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * {@code current} with the flags of {@link #NOTIFY_FLAGS} it lacks; {@code A} already covers all but {@code E}.
+     */
+    static String notifyFlags(String current) {
+        StringBuilder flags = new StringBuilder(current);
+        for (char flag : NOTIFY_FLAGS.toCharArray()) {
+            boolean covered = flag != 'E' && current.indexOf('A') >= 0;
+            if (current.indexOf(flag) < 0 && !covered) {
+                flags.append(flag);
+            }
+        }
+        return flags.toString();
+    }
+
+    /**
+     * Start delivering changes to {@code subscriber}.
+     *
+     * The subscriber is added before anything is replayed, so one that unsubscribes while it is
+     * replayed to is not added back afterwards.
+     *
+     * @param lastId id of the last change a previous subscription received, to resume after it; a
+     *     {@link Type#RESET} is delivered first when it is no longer buffered, more than
+     *     {@code subscriberQueue} changes old or from an earlier start
+     */
+    public synchronized void subscribe(Subscriber subscriber, String lastId) {
+        if (subscribers.add(subscriber) && subscriber.wantsValues()) {
+            valueSubscribers.incrementAndGet();
+        }
+        if (lastId == null) {
+            return;
+        }
+        long last = sequenceOf(lastId);
+        if (last < 0 || last > sequence || sequence - last > buffer.length) {
+            reset(subscriber, EXPIRED_ID);
+        } else if (sequence - last > maxReplay) {
+            reset(subscriber, TOO_FAR_BEHIND);
+        } else {
+            for (long next = last + 1; next <= sequence; next++) {
+                subscriber.onChange(buffer[(int) (next % buffer.length)]);
+            }
+        }
+    }
+
+    private void reset(Subscriber subscriber, Attributes reason) {
+        resetsCounter.add(1, reason);
+        subscriber.onChange(new Change(id(sequence), Type.RESET, null, null));
+    }
+
+    public void unsubscribe(Subscriber subscriber) {
+        if (subscribers.remove(subscriber) && subscriber.wantsValues()) {
+            valueSubscribers.decrementAndGet();
+        }
+    }
+
+    public int subscribers() {
+        return subscribers.size();
+    }
+
+    private void received(String channel, String key) {
+        // __keyevent@0__:set
+        Type type = EVENTS.get(channel.substring(channel.lastIndexOf(':') + 1));
+        if (type == null || ChunkedValues.isUploadKey(key)) {
+            return;
+        }
+        // Runs on a Lettuce I/O thread, which must not wait for the dispatcher
+        if (!notifications.offer(new Notification(type, key))) {
+            lost = OVERFLOW;
+        }
+    }
+
+    private void run() {
+        List<Notification> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (running) {
+            try {
+                Attributes reason = lost;
+                if (reason != null) {
+                    lost = null;
+                    resetsCounter.add(1, reason);
+                    publish(List.of(new Notification(Type.RESET, null)), null);
+                }
+
+                Notification first = notifications.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                notifications.drainTo(batch, MAX_BATCH_SIZE - 1);
+
+                publish(batch, valueSubscribers.get() > 0 ? values(batch) : null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                log.warn("Could not dispatch key changes", e);
+                lost = OVERFLOW;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Values of the set keys in {@code batch}, read with one pipelined GET per key.
+     */
+    private List<String> values(List<Notification> batch) throws InterruptedException {
+        List<RedisFuture<String>> futures = new ArrayList<>(batch.size());
+        for (Notification notification : batch) {
+            futures.add(notification.type() == Type.SET ? commands.get(notification.key()) : null);
+        }
+
+        List<String> values = new ArrayList<>(batch.size());
+        for (RedisFuture<String> future : futures) {
+            String value = null;
+            if (future != null) {
+                try {
+                    value = future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+                } catch (ExecutionException | TimeoutException e) {
+                    // The change is still delivered, only without its value
+                }
+            }
+            values.add(value != null && value.length() <= maxValueSize ? value : null);
+        }
+        return values;
+    }
+
+    private synchronized void publish(List<Notification> batch, List<String> values) {
+        for (int i = 0; i < batch.size(); i++) {
+            Notification notification = batch.get(i);
+            Change change = new Change(id(++sequence), notification.type(), notification.key(),
+                values != null ? values.get(i) : null);
+            buffer[(int) (sequence % buffer.length)] = change;
+            changesCounter.add(1, typeAttributes[notification.type().ordinal()]);
+            for (Subscriber subscriber : subscribers) {
+                subscriber.onChange(change);
+            }
+        }
+    }
+
+    private String id(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    /**
+     * @return the sequence number of an id of this JVM start, -1 for anything else
+     */
+    private long sequenceOf(String id) {
+        int dash = id.lastIndexOf('-');
+        if (dash < 0 || !id.regionMatches(0, epoch, 0, dash) || dash != epoch.length()) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(id.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        dispatcher.interrupt();
+        callback.close();
+        pubSub.close();
+    }
+}
@@ -0,0 +1,132 @@
+package com.jimisola.demo.arconia.redis;
+
+import io.lettuce.core.cluster.api.sync.RedisClusterCommands;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Deletes keys in the background with SCAN and batched UNLINK.
+ *
+ * UNLINK frees memory on a Redis background thread, and each batch is a separate
+ * command, so other clients are never blocked behind one huge DEL. On a cluster a batch
+ * holds keys of many slots; Lettuce splits it into one UNLINK per slot and sends them in parallel.
+ *
+ * Keys under a prefix can be deleted through the {@link KeyIndex} instead, which finds them
+ * without scanning the keyspace.
+ */
+@Component
+public class KeyspaceDeleter implements DisposableBean {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_RETAINED_JOBS = 100;
+
+    /**
+     * Told about every batch, on the job's thread.
+     */
+    public interface BatchListener {
+
+        /**
+         * @param keys the keys of the batch, some of which may have been gone already
+         * @param unlinked how many of them were removed
+         */
+        void deleted(List<String> keys, long unlinked);
+    }
+
+    private final KeyspaceScanner keyspaceScanner;
+    private final RedisClusterCommands<String, String> commands;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, DeletionJob> jobs = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    public KeyspaceDeleter(KeyspaceScanner keyspaceScanner, NativeConnection<String, String> nativeRedisConnection) {
+        this.keyspaceScanner = keyspaceScanner;
+        this.commands = nativeRedisConnection.sync();
+    }
+
+    /**
+     * Start deleting all keys matching {@code match}.
+     */
+    public DeletionJob start(String match, BatchListener onBatch) {
+        return run(match, job -> deleteMatching(job, onBatch));
+    }
+
+    /**
+     * Start deleting all keys under {@code prefix} that are in {@code index}.
+     */
+    public DeletionJob start(KeyIndex index, String prefix, BatchListener onBatch) {
+        return run(prefix + "*", job -> deleteIndexed(index, prefix, job, onBatch));
+    }
+
+    private DeletionJob run(String match, Consumer<DeletionJob> deletion) {
+        DeletionJob job = new DeletionJob(UUID.randomUUID().toString(), match);
+        retain(job);
+        executor.execute(() -> {
+            try {
+                deletion.accept(job);
+                job.complete();
+            } catch (Exception e) {
+                job.fail(e);
+            }
+        });
+        return job;
+    }
+
+    /**
+     * Keep the job so it can be polled, dropping the oldest finished jobs beyond {@code MAX_RETAINED_JOBS}.
+     * Running jobs are never dropped, however many there are.
+     */
+    private void retain(DeletionJob job) {
+        synchronized (jobs) {
+            jobs.put(job.id(), job);
+            Iterator<DeletionJob> retained = jobs.values().iterator();
+            while (jobs.size() > MAX_RETAINED_JOBS && retained.hasNext()) {
+                if (retained.next().status() != DeletionJob.Status.RUNNING) {
+                    retained.remove();
+                }
+            }
+        }
+    }
+
+    public Optional<DeletionJob> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    private void deleteMatching(DeletionJob job, BatchListener onBatch) {
+        String cursor = ScanPage.INITIAL_CURSOR;
+        ScanPage page;
+        do {
+            page = keyspaceScanner.scan(cursor, job.match(), BATCH_SIZE);
+            if (!page.keys().isEmpty()) {
+                long unlinked = commands.unlink(page.keys().toArray(String[]::new));
+                job.addDeleted(unlinked);
+                onBatch.deleted(page.keys(), unlinked);
+            }
+            cursor = page.cursor();
+        } while (!page.finished());
+    }
+
+    private static void deleteIndexed(KeyIndex index, String prefix, DeletionJob job, BatchListener onBatch) {
+        // Every batch removes its entries from the index, so the next one starts at the prefix again
+        List<String> keys;
+        while (!(keys = index.range(prefix, null, BATCH_SIZE).keys()).isEmpty()) {
+            long unlinked = index.unlink(prefix, keys);
+            job.addDeleted(unlinked);
+            onBatch.deleted(keys, unlinked);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
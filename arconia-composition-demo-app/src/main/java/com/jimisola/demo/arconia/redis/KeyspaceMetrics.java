@@ -0,0 +1,97 @@
+package com.jimisola.demo.arconia.redis;
+
+import io.lettuce.core.cluster.api.sync.RedisClusterCommands;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.BatchCallback;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableLongMeasurement;
+import org.springframework.stereotype.Component;
+
+/**
+ * Server-side keyspace metrics, read from {@code INFO} whenever metrics are collected.
+ *
+ * {@code redis.keys.expired} and {@code redis.keys.evicted} are Redis' own counters since it started,
+ * so their rate shows how fast TTLs and maxmemory are removing keys. {@code redis.keyspace.keys}
+ * splits the key count into keys with and without a TTL, which is the part of the working set that
+ * only shrinks when someone deletes it.
+ *
+ * On a cluster the values of all masters are added up; replicas hold copies of the same keys.
+ */
+@Component
+public class KeyspaceMetrics implements AutoCloseable {
+
+    private static final Attributes EXPIRING = Attributes.of(AttributeKey.booleanKey("expires"), true);
+    private static final Attributes PERSISTENT = Attributes.of(AttributeKey.booleanKey("expires"), false);
+
+    private final NativeConnection<String, String> connection;
+    private final BatchCallback callback;
+
+    public KeyspaceMetrics(NativeConnection<String, String> nativeRedisConnection, Meter meter) {
+        this.connection = nativeRedisConnection;
+
+        ObservableLongMeasurement expired = meter
+            .counterBuilder("redis.keys.expired")
+            .setDescription("Keys removed by Redis because their TTL passed")
+            .setUnit("keys")
+            .buildObserver();
+
+        ObservableLongMeasurement evicted = meter
+            .counterBuilder("redis.keys.evicted")
+            .setDescription("Keys removed by Redis to stay within maxmemory")
+            .setUnit("keys")
+            .buildObserver();
+
+        ObservableLongMeasurement keys = meter
+            .gaugeBuilder("redis.keyspace.keys")
+            .setDescription("Keys in all databases, by whether they have a TTL")
+            .setUnit("keys")
+            .ofLongs()
+            .buildObserver();
+
+        // One INFO call per collection for all three instruments
+        this.callback = meter.batchCallback(() -> record(expired, evicted, keys), expired, evicted, keys);
+    }
+
+    private void record(ObservableLongMeasurement expired, ObservableLongMeasurement evicted, ObservableLongMeasurement keys) {
+        long expiredKeys = 0;
+        long evictedKeys = 0;
+        long totalKeys = 0;
+        long expiringKeys = 0;
+
+        for (RedisClusterCommands<String, String> commands : connection.masters()) {
+            for (String line : commands.info().split("\r?\n")) {
+                int colon = line.indexOf(':');
+                if (colon < 0 || line.startsWith("#")) {
+                    continue;
+                }
+                String name = line.substring(0, colon);
+                String value = line.substring(colon + 1).trim();
+                if (name.equals("expired_keys")) {
+                    expiredKeys += Long.parseLong(value);
+                } else if (name.equals("evicted_keys")) {
+                    evictedKeys += Long.parseLong(value);
+                } else if (name.startsWith("db")) {
+                    // db0:keys=10,expires=2,avg_ttl=0
+                    for (String field : value.split(",")) {
+                        if (field.startsWith("keys=")) {
+                            totalKeys += Long.parseLong(field.substring(5));
+                        } else if (field.startsWith("expires=")) {
+                            expiringKeys += Long.parseLong(field.substring(8));
+                        }
+                    }
+                }
+            }
+        }
+
+        expired.record(expiredKeys);
+        evicted.record(evictedKeys);
+        keys.record(expiringKeys, EXPIRING);
+        keys.record(totalKeys - expiringKeys, PERSISTENT);
+    }
+
+    @Override
+    public void close() {
+        callback.close();
+    }
+}
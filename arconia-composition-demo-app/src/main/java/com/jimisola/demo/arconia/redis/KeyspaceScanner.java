@@ -0,0 +1,126 @@
+package com.jimisola.demo.arconia.redis;
+
+import io.lettuce.core.KeyScanCursor;
+import io.lettuce.core.ScanArgs;
+import io.lettuce.core.ScanCursor;
+import io.lettuce.core.cluster.api.sync.RedisClusterCommands;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Walks the keyspace with SCAN instead of KEYS so that Redis is never blocked
+ * and callers only ever hold one page of keys in memory.
+ *
+ * A cluster is scanned one master after the other. Its cursors have the form
+ * {@code <node>:<cursor>}, the position of the master in {@link NativeConnection#masters()}
+ * and the SCAN cursor on that master, so they stay resumable across calls.
+ */
+@Component
+public class KeyspaceScanner {
+
+    /**
+     * SCAN calls made for one page at most, so that a sparse {@code match} returns a short page
+     * with its cursor instead of walking the whole keyspace in one request.
+     */
+    static final int MAX_CALLS_PER_PAGE = 10;
+
+    private static final Pattern CLUSTER_CURSOR = Pattern.compile("(\\d{1,9}):(\\d+)");
+
+    private final NativeConnection<String, String> connection;
+    private final String keyIndexPrefix;
+
+    public KeyspaceScanner(NativeConnection<String, String> nativeRedisConnection, RedisApiProperties properties) {
+        this.connection = nativeRedisConnection;
+        // Without the index, keys under its prefix are ordinary keys
+        this.keyIndexPrefix = properties.keyIndex().enabled() ? properties.keyIndex().keyPrefix() : null;
+    }
+
+    /**
+     * Scan from {@code cursor} until at least {@code count} keys have been collected,
+     * the keyspace is exhausted or {@link #MAX_CALLS_PER_PAGE} SCAN calls have been made.
+     *
+     * SCAN may return fewer keys than requested (or none at all) for a single call, so
+     * several calls are made per page, and a page can be short or empty while the cursor is
+     * not yet {@code "0"}. A single call can also overshoot {@code count}; those keys are kept
+     * so the returned cursor stays resumable.
+     *
+     * @throws IllegalArgumentException if {@code cursor} was not returned by an earlier scan
+     */
+    public ScanPage scan(String cursor, String match, int count) {
+        ScanArgs args = ScanArgs.Builder.limit(count).match(match);
+        List<String> keys = new ArrayList<>(count);
+        int calls = 0;
+        if (!connection.isCluster()) {
+            if (!isScanCursor(cursor)) {
+                throw new IllegalArgumentException("Invalid scan cursor: " + cursor);
+            }
+            ScanCursor current = ScanCursor.of(cursor);
+            do {
+                current = scan(connection.sync(), current, args, keys);
+            } while (!current.isFinished() && keys.size() < count && ++calls < MAX_CALLS_PER_PAGE);
+            return new ScanPage(current.isFinished() ? ScanPage.INITIAL_CURSOR : current.getCursor(), keys);
+        }
+
+        List<RedisClusterCommands<String, String>> masters = connection.masters();
+        int node = 0;
+        ScanCursor current = ScanCursor.INITIAL;
+        if (!ScanPage.INITIAL_CURSOR.equals(cursor)) {
+            Matcher matcher = CLUSTER_CURSOR.matcher(cursor);
+            if (!matcher.matches() || Integer.parseInt(matcher.group(1)) >= masters.size() || !isScanCursor(matcher.group(2))) {
+                throw new IllegalArgumentException("Invalid cluster scan cursor: " + cursor);
+            }
+            node = Integer.parseInt(matcher.group(1));
+            current = ScanCursor.of(matcher.group(2));
+        }
+
+        while (node < masters.size() && keys.size() < count && calls++ < MAX_CALLS_PER_PAGE) {
+            current = scan(masters.get(node), current, args, keys);
+            if (current.isFinished()) {
+                node++;
+                current = ScanCursor.INITIAL;
+            }
+        }
+        return new ScanPage(node < masters.size() ? node + ":" + current.getCursor() : ScanPage.INITIAL_CURSOR, keys);
+    }
+
+    /**
+     * {@link #scan} without the keys this application keeps for itself: the temporary keys of
+     * {@link ChunkedValues} uploads in progress and the sorted sets of the {@link KeyIndex}.
+     * Used for listings and exports; deleting by pattern still sees every key.
+     */
+    public ScanPage scanValues(String cursor, String match, int count) {
+        ScanPage page = scan(cursor, match, count);
+        List<String> values = page.keys().stream().filter(key -> !isInternal(key)).toList();
+        return values.size() == page.keys().size() ? page : new ScanPage(page.cursor(), values);
+    }
+
+    boolean isInternal(String key) {
+        return ChunkedValues.isUploadKey(key) || keyIndexPrefix != null && key.startsWith(keyIndexPrefix);
+    }
+
+    /**
+     * SCAN cursors are unsigned 64-bit numbers; Redis rejects anything else.
+     */
+    private static boolean isScanCursor(String cursor) {
+        if (cursor.isEmpty() || !Character.isDigit(cursor.charAt(0))) {
+            return false;
+        }
+        try {
+            Long.parseUnsignedLong(cursor);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static ScanCursor scan(RedisClusterCommands<String, String> commands, ScanCursor cursor, ScanArgs args,
+            List<String> keys) {
+        KeyScanCursor<String> result = commands.scan(cursor, args);
+        keys.addAll(result.getKeys());
+        return result;
+    }
+}
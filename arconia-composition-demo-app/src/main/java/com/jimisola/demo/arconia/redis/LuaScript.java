@@ -0,0 +1,45 @@
+package com.jimisola.demo.arconia.redis;
+
+import io.lettuce.core.RedisNoScriptException;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.cluster.api.sync.RedisClusterCommands;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A Lua script from the classpath, run on native connections as EVALSHA with a fallback to EVAL
+ * the first time a server has not cached it. On a cluster every node caches scripts separately,
+ * so each falls back once.
+ */
+final class LuaScript {
+
+    private final String source;
+    private final String digest;
+
+    private LuaScript(String source) {
+        this.source = source;
+        this.digest = ConditionalWrites.version(source);
+    }
+
+    static LuaScript load(String path) {
+        try {
+            return new LuaScript(new ClassPathResource(path).getContentAsString(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Run the script; on a cluster all {@code keys} must hash to the same slot.
+     */
+    <K, V, T> T eval(RedisClusterCommands<K, V> commands, ScriptOutputType type, K[] keys, V[] arguments) {
+        try {
+            return commands.evalsha(digest, type, keys, arguments);
+        } catch (RedisNoScriptException e) {
+            return commands.eval(source, type, keys, arguments);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.jimisola.demo.arconia.redis;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+/**
+ * Decodes one LZ4 block, as written by {@link ValueCompression}, while it is being read.
+ *
+ * A block is a series of sequences: a token, literals copied as they are, then a match copying
+ * earlier output from at most 64KB back. Only that much output is kept, so memory use does not
+ * depend on the size of the value. The last sequence has no match; the block ends when
+ * {@code length} bytes have been produced.
+ */
+final class Lz4BlockInputStream extends InputStream {
+
+    private static final int WINDOW = 1 << 16;
+    private static final int MASK = WINDOW - 1;
+    private static final int MIN_MATCH = 4;
+
+    private final InputStream in;
+    private final long length;
+    private final byte[] window = new byte[WINDOW];
+    private long produced;
+    private long literals;
+    private long match;
+    private int matchOffset;
+    private int matchToken = -1;
+
+    /**
+     * @param in the compressed block
+     * @param length size of the decoded value
+     */
+    Lz4BlockInputStream(InputStream in, long length) {
+        this.in = in;
+        this.length = length;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] target, int offset, int count) throws IOException {
+        Objects.checkFromIndexSize(offset, count, target.length);
+        if (count == 0) {
+            return 0;
+        }
+        if (produced >= length) {
+            return -1;
+        }
+
+        int n = 0;
+        while (n < count && produced < length) {
+            if (literals > 0) {
+                int read = in.read(target, offset + n, (int) Math.min(Math.min(literals, count - n), length - produced));
+                if (read < 0) {
+                    throw new EOFException("LZ4 block ended within literals after " + produced + " bytes");
+                }
+                for (int i = 0; i < read; i++) {
+                    window[(int) (produced++ & MASK)] = target[offset + n + i];
+                }
+                literals -= read;
+                n += read;
+            } else if (match > 0) {
+                byte value = window[(int) ((produced - matchOffset) & MASK)];
+                window[(int) (produced++ & MASK)] = value;
+                target[offset + n++] = value;
+                match--;
+            } else if (matchToken >= 0) {
+                matchOffset = readByte() | readByte() << 8;
+                if (matchOffset == 0 || matchOffset > produced) {
+                    throw new IOException("Invalid LZ4 match offset " + matchOffset + " after " + produced + " bytes");
+                }
+                match = extendedLength(matchToken) + MIN_MATCH;
+                matchToken = -1;
+            } else {
+                int token = readByte();
+                literals = extendedLength(token >>> 4);
+                matchToken = token & 0x0F;
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * A length from a token nibble: 15 means more bytes follow, each added, until one below 255.
+     */
+    private long extendedLength(int nibble) throws IOException {
+        long result = nibble;
+        if (nibble == 15) {
+            int next;
+            do {
+                next = readByte();
+                result += next;
+            } while (next == 255);
+        }
+        return result;
+    }
+
+    private int readByte() throws IOException {
+        int value = in.read();
+        if (value < 0) {
+            throw new EOFException("LZ4 block ended after " + produced + " of " + length + " bytes");
+        }
+        return value;
+    }
+}
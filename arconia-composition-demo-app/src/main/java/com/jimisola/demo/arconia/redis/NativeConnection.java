@@ -0,0 +1,115 @@
+package com.jimisola.demo.arconia.redis;
+
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.ReadFrom;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import io.lettuce.core.cluster.api.sync.RedisClusterCommands;
+import io.lettuce.core.cluster.models.partitions.RedisClusterNode;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.masterreplica.MasterReplica;
+import io.lettuce.core.masterreplica.StatefulRedisMasterReplicaConnection;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A Lettuce connection to either a single Redis server or a Redis Cluster, depending on
+ * which client Spring Boot created for the {@code spring.data.redis} properties.
+ *
+ * Both expose the same single-key commands. On a cluster, Lettuce routes each command to the
+ * node owning its key's slot, and splits multi-key commands such as MGET and UNLINK by slot and
+ * sends the parts to their nodes in parallel. Commands that only make sense per node, like
+ * SCAN and INFO, go through {@link #masters()}.
+ */
+public final class NativeConnection<K, V> implements AutoCloseable {
+
+    private final StatefulConnection<K, V> connection;
+    private final RedisClusterCommands<K, V> sync;
+    private final RedisClusterAsyncCommands<K, V> async;
+
+    private NativeConnection(StatefulConnection<K, V> connection, RedisClusterCommands<K, V> sync,
+            RedisClusterAsyncCommands<K, V> async) {
+        this.connection = connection;
+        this.sync = sync;
+        this.async = async;
+    }
+
+    public static <K, V> NativeConnection<K, V> connect(AbstractRedisClient client, RedisCodec<K, V> codec) {
+        if (client instanceof RedisClusterClient clusterClient) {
+            StatefulRedisClusterConnection<K, V> connection = clusterClient.connect(codec);
+            return new NativeConnection<>(connection, connection.sync(), connection.async());
+        }
+        StatefulRedisConnection<K, V> connection = ((RedisClient) client).connect(codec);
+        return new NativeConnection<>(connection, connection.sync(), connection.async());
+    }
+
+    /**
+     * Like {@link #connect(AbstractRedisClient, RedisCodec)}, but reads go to the nodes {@code readFrom} picks
+     * while writes still go to the primary. A single server's replicas are discovered from its
+     * {@code INFO replication}, starting at {@code primary}; a cluster's come from its topology.
+     */
+    public static <K, V> NativeConnection<K, V> connect(AbstractRedisClient client, RedisCodec<K, V> codec,
+            RedisURI primary, ReadFrom readFrom) {
+        if (client instanceof RedisClusterClient clusterClient) {
+            StatefulRedisClusterConnection<K, V> connection = clusterClient.connect(codec);
+            connection.setReadFrom(readFrom);
+            return new NativeConnection<>(connection, connection.sync(), connection.async());
+        }
+        StatefulRedisMasterReplicaConnection<K, V> connection = MasterReplica.connect((RedisClient) client, codec, primary);
+        connection.setReadFrom(readFrom);
+        return new NativeConnection<>(connection, connection.sync(), connection.async());
+    }
+
+    public boolean isCluster() {
+        return connection instanceof StatefulRedisClusterConnection;
+    }
+
+    public RedisClusterCommands<K, V> sync() {
+        return sync;
+    }
+
+    public RedisClusterAsyncCommands<K, V> async() {
+        return async;
+    }
+
+    /**
+     * Commands for every master, ordered by node id so the order is the same on every call
+     * while the topology does not change. A single server is its own only master.
+     */
+    public List<RedisClusterCommands<K, V>> masters() {
+        if (!(connection instanceof StatefulRedisClusterConnection<K, V> cluster)) {
+            return List.of(sync);
+        }
+        // Node connections are owned by the cluster connection and closed with it
+        return cluster.getPartitions().stream()
+            .filter(node -> node.getRole().isUpstream())
+            .map(RedisClusterNode::getNodeId)
+            .sorted(Comparator.naturalOrder())
+            .<RedisClusterCommands<K, V>>map(nodeId -> cluster.getConnection(nodeId).sync())
+            .toList();
+    }
+
+    public Duration getTimeout() {
+        return connection.getTimeout();
+    }
+
+    public void setAutoFlushCommands(boolean autoFlush) {
+        connection.setAutoFlushCommands(autoFlush);
+    }
+
+    public void flushCommands() {
+        connection.flushCommands();
+    }
+
+    @Override
+    public void close() {
+        connection.close();
+    }
+}
@@ -0,0 +1,182 @@
+package com.jimisola.demo.arconia.redis;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.codec.StringCodec;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+
+import java.net.SocketAddress;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-process cache for string values, kept consistent with Redis
+ * through server-assisted client-side caching (RESP3 {@code CLIENT TRACKING}).
+ *
+ * Reads go through a dedicated tracked connection, so Redis remembers which keys this JVM
+ * holds and pushes an invalidation message on that connection when any client changes them.
+ * Eviction is Caffeine's W-TinyLFU, bounded by size and TTL.
+ */
+public class NearCache implements AutoCloseable {
+
+    private final StatefulRedisConnection<String, String> trackedConnection;
+    private final RedisCommands<String, String> commands;
+    private final Cache<String, String> cache;
+    private final SingleFlight<String, String> singleFlight;
+    // Bumped before every invalidation, so a read racing with one drops the value it cached
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongCounter hitsCounter;
+    private final LongCounter missesCounter;
+    private final LongCounter evictionsCounter;
+    private final LongCounter invalidationsCounter;
+
+    public NearCache(StatefulRedisConnection<String, String> trackedConnection, RedisApiProperties properties, Meter meter) {
+        this.trackedConnection = trackedConnection;
+        this.commands = trackedConnection.sync();
+        this.singleFlight = properties.coalescing().enabled()
+            ? new SingleFlight<>("near_cache", properties.coalescing().maxWait(), meter)
+            : null;
+
+        this.hitsCounter = meter
+            .counterBuilder("redis.near_cache.hits")
+            .setDescription("Number of reads served from the near cache")
+            .setUnit("reads")
+            .build();
+
+        this.missesCounter = meter
+            .counterBuilder("redis.near_cache.misses")
+            .setDescription("Number of reads that went to Redis")
+            .setUnit("reads")
+            .build();
+
+        this.evictionsCounter = meter
+            .counterBuilder("redis.near_cache.evictions")
+            .setDescription("Number of entries evicted because of size or TTL")
+            .setUnit("entries")
+            .build();
+
+        this.invalidationsCounter = meter
+            .counterBuilder("redis.near_cache.invalidations")
+            .setDescription("Number of invalidation messages received from Redis")
+            .setUnit("messages")
+            .build();
+
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(properties.nearCache().maximumSize())
+            .expireAfterWrite(properties.nearCache().ttl())
+            .removalListener((String key, String value, RemovalCause cause) -> {
+                if (cause.wasEvicted()) {
+                    evictionsCounter.add(1);
+                }
+            })
+            .build();
+
+        trackedConnection.addListener(this::onPushMessage);
+        trackedConnection.addListener(new RedisConnectionStateListener() {
+            @Override
+            public void onRedisConnected(RedisChannelHandler<?, ?> connection, SocketAddress socketAddress) {
+                // Tracking state lives on the server side of the old connection, so start over
+                invalidateAll();
+                trackedConnection.async().clientTracking(TrackingArgs.Builder.enabled());
+            }
+
+            @Override
+            public void onRedisDisconnected(RedisChannelHandler<?, ?> connection) {
+                invalidateAll();
+            }
+        });
+        commands.clientTracking(TrackingArgs.Builder.enabled());
+    }
+
+    /**
+     * Return the cached value, or read it from Redis and cache it.
+     */
+    public String get(String key) {
+        String value = getIfCached(key);
+        return value != null ? value : fetch(key);
+    }
+
+    /**
+     * Return the cached value, or null without going to Redis.
+     */
+    public String getIfCached(String key) {
+        String value = cache.getIfPresent(key);
+        if (value != null) {
+            hitsCounter.add(1);
+        }
+        return value;
+    }
+
+    /**
+     * Read the value from Redis and cache it, after {@link #getIfCached} found none.
+     */
+    public String fetch(String key) {
+        missesCounter.add(1);
+        return singleFlight != null ? singleFlight.get(key, this::load) : load(key);
+    }
+
+    private String load(String key) {
+        long before = invalidations.get();
+        String value = commands.get(key);
+        if (value != null) {
+            // Put, then check: an invalidation landing after the check finds the value to drop, and one that
+            // landed before it has bumped the counter. Redis sends one invalidation per tracked read, so none may be lost
+            cache.put(key, value);
+            if (invalidations.get() != before) {
+                cache.invalidate(key);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drop a key after this application wrote it, without waiting for the invalidation message.
+     */
+    public void invalidate(String key) {
+        invalidations.incrementAndGet();
+        cache.invalidate(key);
+        if (singleFlight != null) {
+            singleFlight.forget(key);
+        }
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private void onPushMessage(PushMessage message) {
+        if (!"invalidate".equals(message.getType())) {
+            return;
+        }
+
+        invalidationsCounter.add(1);
+        List<Object> content = message.getContent(StringCodec.UTF8::decodeKey);
+        // A null key list means Redis flushed its tracking table, e.g. after FLUSHALL
+        if (content.size() < 2 || !(content.get(1) instanceof List<?> keys)) {
+            invalidateAll();
+            return;
+        }
+
+        invalidations.incrementAndGet();
+        for (Object key : keys) {
+            cache.invalidate((String) key);
+            if (singleFlight != null) {
+                singleFlight.forget((String) key);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        trackedConnection.close();
+    }
+}
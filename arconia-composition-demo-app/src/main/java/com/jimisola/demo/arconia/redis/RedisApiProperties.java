@@ -0,0 +1,198 @@
+package com.jimisola.demo.arconia.redis;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import org.springframework.util.unit.DataSize;
+
+import com.jimisola.demo.arconia.api.admission.ConcurrencyLimiter;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Tuning for the {@code /api/redis} endpoints.
+ *
+ * @param batch limits for {@code POST /api/redis/_batch}
+ * @param nearCache in-process cache in front of single-key reads
+ * @param coalescing sharing of concurrent reads of the same key
+ * @param writeCoalescing micro-batching of concurrent single-key writes
+ * @param compression transparent compression of large values
+ * @param streaming chunked upload and download under {@code /api/redis/{key}/stream}
+ * @param expiry TTLs given to new keys
+ * @param replicaReads serving reads from replicas
+ * @param client Lettuce threads and request queue, shared by all connections
+ * @param admission concurrency limits that shed load before it reaches Redis
+ * @param hotKeys detection of the most accessed keys and the largest values
+ * @param changes the change feed under {@code GET /api/redis/_changes}
+ * @param keyIndex sorted-set index of key names for listing and deleting by prefix
+ */
+@ConfigurationProperties("demo.redis")
+public record RedisApiProperties(
+        @DefaultValue Batch batch,
+        @DefaultValue NearCache nearCache,
+        @DefaultValue Coalescing coalescing,
+        @DefaultValue WriteCoalescing writeCoalescing,
+        @DefaultValue Compression compression,
+        @DefaultValue Streaming streaming,
+        @DefaultValue Expiry expiry,
+        @DefaultValue ReplicaReads replicaReads,
+        @DefaultValue Client client,
+        @DefaultValue Admission admission,
+        @DefaultValue HotKeys hotKeys,
+        @DefaultValue Changes changes,
+        @DefaultValue KeyIndex keyIndex) {
+
+    /**
+     * @param maxOperations largest number of operations accepted in one batch request
+     */
+    public record Batch(@DefaultValue("1000") int maxOperations) {}
+
+    /**
+     * @param enabled whether GET /api/redis/{key} is served from the near cache
+     * @param maximumSize largest number of entries kept in memory
+     * @param ttl upper bound on how long an entry is kept, even without an invalidation message
+     */
+    public record NearCache(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("10000") long maximumSize,
+            @DefaultValue("5m") Duration ttl) {}
+
+    /**
+     * @param enabled whether concurrent reads of the same key share one Redis call
+     * @param maxWait how long a caller waits for a shared call before making its own
+     */
+    public record Coalescing(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("1s") Duration maxWait) {}
+
+    /**
+     * @param enabled whether create, update and delete are queued and flushed as pipelined batches
+     * @param maxBatchSize flush as soon as this many writes are queued
+     * @param flushInterval flush at the latest this long after the first write of a batch was taken
+     * @param queueCapacity largest number of writes waiting to be flushed
+     */
+    public record WriteCoalescing(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("128") int maxBatchSize,
+            @DefaultValue("200us") Duration flushInterval,
+            @DefaultValue("10000") int queueCapacity) {}
+
+    /**
+     * @param enabled whether values at or above the threshold are compressed when written; compressed values are always readable
+     * @param codec algorithm used for new writes
+     * @param threshold smallest value, in bytes, that is compressed
+     * @param zstdLevel zstd compression level, 1 (fastest) to 22 (smallest)
+     */
+    public record Compression(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("lz4") ValueCompression.Codec codec,
+            @DefaultValue("1KB") DataSize threshold,
+            @DefaultValue("3") int zstdLevel) {}
+
+    /**
+     * @param chunkSize bytes sent to or read from Redis per command
+     * @param maxSize largest value accepted by a streaming upload; Redis strings cannot exceed 512MB
+     * @param uploadTtl how long an unfinished upload is kept before Redis removes it
+     */
+    public record Streaming(
+            @DefaultValue("64KB") DataSize chunkSize,
+            @DefaultValue("512MB") DataSize maxSize,
+            @DefaultValue("1h") Duration uploadTtl) {}
+
+    /**
+     * @param defaults TTL by key prefix for keys created without one; the longest matching prefix wins
+     */
+    public record Expiry(@DefaultValue Map<String, Duration> defaults) {}
+
+    /**
+     * @param enabled whether GET /api/redis/{key} and GET /api/redis read through {@code readFrom} instead of from the primary
+     * @param readFrom Lettuce ReadFrom policy, e.g. replica-preferred, lowest-latency, any-replica, nearest, or regex:/subnet: forms
+     * @param readYourWrites how long a key written through this instance is read from the primary; 0s turns it off
+     */
+    public record ReplicaReads(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("replica-preferred") String readFrom,
+            @DefaultValue("0s") Duration readYourWrites) {}
+
+    /**
+     * @param ioThreads Netty event loop threads doing socket I/O; 0 keeps Lettuce's default of one per CPU (at least 2)
+     * @param computationThreads threads completing futures and emitting events; 0 keeps Lettuce's default of one per CPU
+     * @param requestQueueSize commands a connection queues while waiting for replies or a reconnect before rejecting more
+     */
+    public record Client(
+            @DefaultValue("0") int ioThreads,
+            @DefaultValue("0") int computationThreads,
+            @DefaultValue("2147483647") int requestQueueSize) {}
+
+    /**
+     * @param enabled whether requests beyond the limits are rejected with 503 and Retry-After
+     * @param algorithm how limits adapt to latency: aimd (against each limit's latency) or gradient (against past latency)
+     * @param retryAfter Retry-After sent with rejections
+     * @param standard limit for all limited endpoints not marked expensive
+     * @param expensive limit for endpoints that scan or write many keys, such as GET and DELETE /api/redis
+     */
+    public record Admission(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("gradient") ConcurrencyLimiter.Algorithm algorithm,
+            @DefaultValue("1s") Duration retryAfter,
+            @DefaultValue Limit standard,
+            @DefaultValue Limit expensive) {
+
+        /**
+         * @param initial concurrent requests admitted before any latency has been measured
+         * @param min the limit never drops below this, so some requests always get through
+         * @param max the limit never grows beyond this
+         * @param latency requests slower than this shrink the limit (aimd only)
+         */
+        public record Limit(
+                @DefaultValue("50") int initial,
+                @DefaultValue("4") int min,
+                @DefaultValue("500") int max,
+                @DefaultValue("100ms") Duration latency) {}
+    }
+
+    /**
+     * @param enabled whether single-key requests are counted to find hot and big keys
+     * @param topK hot and big keys kept by name
+     * @param sketchWidth counters per row of the access count sketch; wider is more accurate and takes 32 bytes more per unit
+     * @param halfLife how often access counts are halved, i.e. how quickly a key that is no longer accessed cools down
+     * @param exported hot and big keys reported as metrics, each with its name as an attribute
+     */
+    public record HotKeys(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("20") int topK,
+            @DefaultValue("4096") int sketchWidth,
+            @DefaultValue("1m") Duration halfLife,
+            @DefaultValue("10") int exported) {}
+
+    /**
+     * @param enabled whether key changes are received through keyspace notifications and served to subscribers
+     * @param configureNotifications whether notify-keyspace-events is set on the server at startup; managed services may not allow it
+     * @param queueCapacity notifications waiting to be dispatched; beyond this they are dropped and subscribers reset
+     * @param bufferSize most recent changes kept, so that a reconnecting subscriber can resume after the last one it received
+     * @param maxValueSize largest value included with a change; larger values have to be read separately
+     * @param subscriberQueue changes waiting to be sent to one subscriber before it is disconnected as too slow
+     * @param maxSubscribers subscribers served at once; more are rejected with 503
+     * @param heartbeat how often an idle subscription gets a comment, so that closed connections are noticed
+     * @param timeout how long a subscription stays open before the client has to reconnect
+     */
+    public record Changes(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("true") boolean configureNotifications,
+            @DefaultValue("10000") int queueCapacity,
+            @DefaultValue("10000") int bufferSize,
+            @DefaultValue("1KB") DataSize maxValueSize,
+            @DefaultValue("1000") int subscriberQueue,
+            @DefaultValue("10000") int maxSubscribers,
+            @DefaultValue("15s") Duration heartbeat,
+            @DefaultValue("30m") Duration timeout) {}
+
+    /**
+     * @param enabled whether keys created and deleted through /api/redis/{key} are kept in an index per namespace
+     * @param keyPrefix prefix of the index keys; a namespace's index is this prefix followed by the namespace
+     */
+    public record KeyIndex(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("_index:") String keyPrefix) {}
+}
@@ -0,0 +1,140 @@
+package com.jimisola.demo.arconia.redis;
+
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.Transports;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.EventExecutorGroup;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.BatchCallback;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableDoubleMeasurement;
+import io.opentelemetry.api.metrics.ObservableLongGauge;
+import io.opentelemetry.api.metrics.ObservableLongMeasurement;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.stereotype.Component;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side view of the Redis connections: what is waiting in the client rather than in Redis.
+ *
+ * <ul>
+ *     <li>{@code redis.client.commands.in_flight}: commands sent or queued that have no reply yet, see {@link CommandQueueDepth}</li>
+ *     <li>{@code redis.client.event_loop.pending_tasks}: work queued on the Netty I/O threads and the computation threads;
+ *     a growing backlog means the threads are saturated and {@code demo.redis.client.*} needs more of them</li>
+ *     <li>{@code redis.pool.*}: connections of the commons-pool2 pools Spring Data Redis creates when
+ *     {@code spring.data.redis.lettuce.pool} is enabled. Read from the pools' JMX beans, so nothing is
+ *     recorded without pooling.</li>
+ * </ul>
+ */
+@Component
+public class RedisClientMetrics implements AutoCloseable {
+
+    private static final AttributeKey<String> POOL = AttributeKey.stringKey("pool");
+    private static final AttributeKey<String> STATE = AttributeKey.stringKey("state");
+    private static final AttributeKey<String> GROUP = AttributeKey.stringKey("group");
+    private static final AttributeKey<String> STATISTIC = AttributeKey.stringKey("statistic");
+
+    private static final Attributes IO = Attributes.of(GROUP, "io");
+    private static final Attributes COMPUTATION = Attributes.of(GROUP, "computation");
+
+    private final ClientResources resources;
+    private final EventLoopGroup ioGroup;
+    private final MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+    private final ObjectName pools;
+    private final ObservableLongGauge inFlight;
+    private final BatchCallback eventLoops;
+    private final BatchCallback poolCallback;
+
+    public RedisClientMetrics(LettuceConnectionFactory connectionFactory, CommandQueueDepth commandQueueDepth, Meter meter)
+            throws JMException {
+        this.resources = connectionFactory.getNativeClient().getResources();
+        // Reference counted by Lettuce, so this is the group its connections run on and is released in close()
+        this.ioGroup = resources.eventLoopGroupProvider().allocate(Transports.eventLoopGroupClass());
+        this.pools = new ObjectName("org.apache.commons.pool2:type=GenericObjectPool,*");
+
+        this.inFlight = meter
+            .gaugeBuilder("redis.client.commands.in_flight")
+            .setDescription("Commands sent to Redis or queued for sending that have no reply yet")
+            .setUnit("{commands}")
+            .ofLongs()
+            .buildWithCallback(measurement -> measurement.record(commandQueueDepth.inFlight()));
+
+        ObservableLongMeasurement pendingTasks = meter
+            .gaugeBuilder("redis.client.event_loop.pending_tasks")
+            .setDescription("Tasks queued on the Lettuce I/O and computation threads")
+            .setUnit("{tasks}")
+            .ofLongs()
+            .buildObserver();
+        this.eventLoops = meter.batchCallback(() -> {
+            pendingTasks.record(pendingTasks(ioGroup), IO);
+            pendingTasks.record(pendingTasks(resources.eventExecutorGroup()), COMPUTATION);
+        }, pendingTasks);
+
+        ObservableLongMeasurement connections = meter
+            .gaugeBuilder("redis.pool.connections")
+            .setDescription("Pooled connections, by whether they are borrowed (active) or idle")
+            .setUnit("{connections}")
+            .ofLongs()
+            .buildObserver();
+        ObservableLongMeasurement waiters = meter
+            .gaugeBuilder("redis.pool.waiters")
+            .setDescription("Threads waiting to borrow a pooled connection")
+            .setUnit("{threads}")
+            .ofLongs()
+            .buildObserver();
+        ObservableDoubleMeasurement waitTime = meter
+            .gaugeBuilder("redis.pool.wait_time")
+            .setDescription("Time spent waiting to borrow a pooled connection, mean and max over recent borrows")
+            .setUnit("s")
+            .buildObserver();
+        this.poolCallback = meter.batchCallback(() -> recordPools(connections, waiters, waitTime), connections, waiters, waitTime);
+    }
+
+    private static long pendingTasks(EventExecutorGroup group) {
+        long pending = 0;
+        for (EventExecutor executor : group) {
+            if (executor instanceof SingleThreadEventExecutor singleThread) {
+                pending += singleThread.pendingTasks();
+            }
+        }
+        return pending;
+    }
+
+    private void recordPools(ObservableLongMeasurement connections, ObservableLongMeasurement waiters,
+            ObservableDoubleMeasurement waitTime) {
+        Set<ObjectName> names = mbeanServer.queryNames(pools, null);
+        for (ObjectName name : names) {
+            try {
+                String pool = name.getKeyProperty("name");
+                connections.record(longAttribute(name, "NumActive"), Attributes.of(POOL, pool, STATE, "active"));
+                connections.record(longAttribute(name, "NumIdle"), Attributes.of(POOL, pool, STATE, "idle"));
+                waiters.record(longAttribute(name, "NumWaiters"), Attributes.of(POOL, pool));
+                waitTime.record(longAttribute(name, "MeanBorrowWaitTimeMillis") / 1000.0, Attributes.of(POOL, pool, STATISTIC, "mean"));
+                waitTime.record(longAttribute(name, "MaxBorrowWaitTimeMillis") / 1000.0, Attributes.of(POOL, pool, STATISTIC, "max"));
+            } catch (JMException e) {
+                // The pool was closed since queryNames
+            }
+        }
+    }
+
+    private long longAttribute(ObjectName name, String attribute) throws JMException {
+        return ((Number) mbeanServer.getAttribute(name, attribute)).longValue();
+    }
+
+    @Override
+    public void close() {
+        poolCallback.close();
+        eventLoops.close();
+        inFlight.close();
+        resources.eventLoopGroupProvider().release(ioGroup, 0, 0, TimeUnit.SECONDS);
+    }
+}
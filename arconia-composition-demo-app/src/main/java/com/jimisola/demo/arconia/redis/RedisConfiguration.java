@@ -0,0 +1,170 @@
+package com.jimisola.demo.arconia.redis;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import io.opentelemetry.api.metrics.Meter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.data.redis.autoconfigure.ClientResourcesBuilderCustomizer;
+import org.springframework.boot.data.redis.autoconfigure.LettuceClientOptionsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Native Lettuce access for commands that {@code RedisTemplate} does not expose,
+ * such as resuming a SCAN from a client-supplied cursor.
+ *
+ * The connection reuses the client created by Spring Boot's {@link LettuceConnectionFactory},
+ * so it points at the same Redis instance (including Arconia Dev Services), or at the same
+ * Redis Cluster when {@code spring.data.redis.cluster.nodes} is set; see {@link NativeConnection}.
+ *
+ * Every connection and the {@code stringRedisTemplate} read and write values through
+ * {@link ValueCompression}, so compression is transparent to all endpoints. The one exception
+ * is {@link ChunkedValues}, which needs byte offsets into the stored value.
+ *
+ * The threads and request queue of the shared client are set through {@code demo.redis.client};
+ * see {@link RedisClientMetrics} for how to tell whether they keep up.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(RedisApiProperties.class)
+public class RedisConfiguration {
+
+    /**
+     * Static, as a {@link org.springframework.beans.factory.config.BeanPostProcessor} has to exist before other beans.
+     */
+    @Bean
+    public static CommandQueueDepth commandQueueDepth() {
+        return new CommandQueueDepth();
+    }
+
+    @Bean
+    public ClientResourcesBuilderCustomizer clientThreads(RedisApiProperties properties) {
+        RedisApiProperties.Client client = properties.client();
+        return builder -> {
+            if (client.ioThreads() > 0) {
+                builder.ioThreadPoolSize(client.ioThreads());
+            }
+            if (client.computationThreads() > 0) {
+                builder.computationThreadPoolSize(client.computationThreads());
+            }
+        };
+    }
+
+    @Bean
+    public LettuceClientOptionsBuilderCustomizer clientRequestQueue(RedisApiProperties properties) {
+        return builder -> builder.requestQueueSize(properties.client().requestQueueSize());
+    }
+
+    @Bean
+    public ValueCompression valueCompression(RedisApiProperties properties, Meter meter) {
+        return new ValueCompression(properties.compression(), meter);
+    }
+
+    /**
+     * Replaces Spring Boot's {@code stringRedisTemplate} so its values go through {@link ValueCompression}.
+     */
+    @Bean
+    public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory connectionFactory, ValueCompression compression) {
+        StringRedisTemplate template = new StringRedisTemplate(connectionFactory);
+        template.setValueSerializer(new CompressingRedisSerializer(compression));
+        return template;
+    }
+
+    @Bean(destroyMethod = "close")
+    public NativeConnection<String, String> nativeRedisConnection(LettuceConnectionFactory connectionFactory, ValueCompression compression) {
+        return NativeConnection.connect(connectionFactory.getNativeClient(), new CompressingCodec<>(StringCodec.UTF8, compression));
+    }
+
+    @Bean(destroyMethod = "close")
+    public NativeConnection<byte[], byte[]> rawRedisConnection(LettuceConnectionFactory connectionFactory, ValueCompression compression) {
+        // Values are handed over as the bytes Lettuce read, without decoding them to String
+        return NativeConnection.connect(connectionFactory.getNativeClient(), new CompressingCodec<>(ByteArrayCodec.INSTANCE, compression));
+    }
+
+    @Bean(destroyMethod = "close")
+    public ChunkedValues chunkedValues(LettuceConnectionFactory connectionFactory, RedisApiProperties properties) {
+        // Chunks are stored as they are, so offsets in a range read are offsets into the value
+        return new ChunkedValues(NativeConnection.connect(connectionFactory.getNativeClient(), ByteArrayCodec.INSTANCE),
+            properties.streaming());
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "demo.redis.near-cache", name = "enabled", havingValue = "true")
+    public NearCache nearCache(LettuceConnectionFactory connectionFactory, ValueCompression compression,
+            RedisApiProperties properties, Meter meter) {
+        // Tracking is per connection, so the near cache needs one of its own
+        if (!(connectionFactory.getNativeClient() instanceof RedisClient client)) {
+            throw new IllegalStateException("demo.redis.near-cache requires a single Redis server; "
+                + "CLIENT TRACKING would have to be enabled on every node of a Redis Cluster");
+        }
+        return new NearCache(client.connect(new CompressingCodec<>(StringCodec.UTF8, compression)), properties, meter);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "demo.redis.replica-reads", name = "enabled", havingValue = "true")
+    public ReplicaReads replicaReads(LettuceConnectionFactory connectionFactory, ValueCompression compression,
+            StringRedisTemplate stringRedisTemplate, RedisApiProperties properties, Meter meter) {
+        NativeConnection<String, String> connection = NativeConnection.connect(connectionFactory.getNativeClient(),
+            new CompressingCodec<>(StringCodec.UTF8, compression), primaryUri(connectionFactory),
+            ReplicaReads.readFrom(properties.replicaReads().readFrom()));
+        return new ReplicaReads(connection, stringRedisTemplate, properties.replicaReads(), meter);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "demo.redis.write-coalescing", name = "enabled", havingValue = "true")
+    public WriteCoalescer writeCoalescer(LettuceConnectionFactory connectionFactory, ValueCompression compression,
+            RedisApiProperties properties, Meter meter) {
+        // Auto-flush is turned off on this connection, so it must not be shared
+        NativeConnection<String, String> connection =
+            NativeConnection.connect(connectionFactory.getNativeClient(), new CompressingCodec<>(StringCodec.UTF8, compression));
+        return new WriteCoalescer(connection, properties.writeCoalescing(), meter);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "demo.redis.changes", name = "enabled", havingValue = "true")
+    public KeyspaceChanges keyspaceChanges(LettuceConnectionFactory connectionFactory,
+            NativeConnection<String, String> nativeRedisConnection, RedisApiProperties properties, Meter meter) {
+        // Subscribing takes over a connection, so notifications get one of their own
+        StatefulRedisPubSubConnection<String, String> pubSub =
+            connectionFactory.getNativeClient() instanceof RedisClusterClient cluster
+                ? cluster.connectPubSub(StringCodec.UTF8)
+                : ((RedisClient) connectionFactory.getNativeClient()).connectPubSub(StringCodec.UTF8);
+        return new KeyspaceChanges(pubSub, nativeRedisConnection, connectionFactory.getDatabase(), properties.changes(), meter);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "demo.redis.key-index", name = "enabled", havingValue = "true")
+    public KeyIndex keyIndex(LettuceConnectionFactory connectionFactory, NativeConnection<String, String> nativeRedisConnection,
+            RedisApiProperties properties, Meter meter) {
+        // Index entries are key names, which must not be compressed
+        return new KeyIndex(nativeRedisConnection, NativeConnection.connect(connectionFactory.getNativeClient(), StringCodec.UTF8),
+            properties.keyIndex(), meter);
+    }
+
+    private static RedisURI primaryUri(LettuceConnectionFactory connectionFactory) {
+        // Only used for a single server; a cluster client already knows its seed nodes
+        RedisStandaloneConfiguration standalone = connectionFactory.getStandaloneConfiguration();
+        RedisURI.Builder uri = RedisURI.builder()
+            .withHost(standalone.getHostName())
+            .withPort(standalone.getPort())
+            .withDatabase(standalone.getDatabase())
+            .withSsl(connectionFactory.isUseSsl())
+            .withTimeout(connectionFactory.getClientConfiguration().getCommandTimeout());
+        standalone.getPassword().toOptional().ifPresent(password -> {
+            if (standalone.getUsername() != null) {
+                uri.withAuthentication(standalone.getUsername(), password);
+            } else {
+                uri.withPassword(password);
+            }
+        });
+        return uri.build();
+    }
+}
@@ -0,0 +1,111 @@
+package com.jimisola.demo.arconia.redis;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.ReadFrom;
+import io.lettuce.core.cluster.api.sync.RedisClusterCommands;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads values from replicas picked by a Lettuce {@link ReadFrom} policy, taking GET traffic off the primary.
+ *
+ * Replicas apply writes asynchronously, so a value read there can be older than what was just written.
+ * With {@code readYourWrites} set, keys written through this instance are read from the primary for that
+ * long afterwards, so a client reading back its own write sees it; other clients' writes are not tracked.
+ */
+public class ReplicaReads implements AutoCloseable {
+
+    private static final Attributes REPLICA = Attributes.of(AttributeKey.stringKey("target"), "replica");
+    private static final Attributes PRIMARY = Attributes.of(AttributeKey.stringKey("target"), "primary");
+
+    private final NativeConnection<String, String> connection;
+    private final RedisClusterCommands<String, String> commands;
+    private final RedisTemplate<String, String> stringRedisTemplate;
+    private final Cache<String, Boolean> recentWrites;
+    private final LongCounter readsCounter;
+
+    /**
+     * @param connection a connection created with a {@link ReadFrom} policy
+     * @param stringRedisTemplate reads from the primary
+     */
+    public ReplicaReads(NativeConnection<String, String> connection, RedisTemplate<String, String> stringRedisTemplate,
+            RedisApiProperties.ReplicaReads properties, Meter meter) {
+        this.connection = connection;
+        this.commands = connection.sync();
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.recentWrites = properties.readYourWrites().isPositive()
+            ? Caffeine.newBuilder().expireAfterWrite(properties.readYourWrites()).build()
+            : null;
+
+        this.readsCounter = meter
+            .counterBuilder("redis.replica_reads.reads")
+            .setDescription("Number of keys read with replica reads enabled, by where they were read")
+            .setUnit("reads")
+            .build();
+    }
+
+    /**
+     * {@link ReadFrom#valueOf(String)} also accepting the dashed names used in properties, such as {@code replica-preferred}.
+     */
+    public static ReadFrom readFrom(String name) {
+        if (name.contains(":")) {
+            return ReadFrom.valueOf(name);
+        }
+        return ReadFrom.valueOf(name.replace("-", "").replace("_", "").toLowerCase(Locale.ROOT));
+    }
+
+    public String get(String key) {
+        if (writtenRecently(key)) {
+            readsCounter.add(1, PRIMARY);
+            return stringRedisTemplate.opsForValue().get(key);
+        }
+        readsCounter.add(1, REPLICA);
+        return commands.get(key);
+    }
+
+    /**
+     * @return values in the order of {@code keys}, {@code null} for missing keys
+     */
+    public List<String> multiGet(List<String> keys) {
+        // One recent write sends the whole page to the primary rather than splitting it
+        if (keys.stream().anyMatch(this::writtenRecently)) {
+            readsCounter.add(keys.size(), PRIMARY);
+            return stringRedisTemplate.opsForValue().multiGet(keys);
+        }
+
+        readsCounter.add(keys.size(), REPLICA);
+        List<KeyValue<String, String>> keyValues = commands.mget(keys.toArray(String[]::new));
+        List<String> values = new ArrayList<>(keyValues.size());
+        for (KeyValue<String, String> keyValue : keyValues) {
+            values.add(keyValue.getValueOrElse(null));
+        }
+        return values;
+    }
+
+    /**
+     * Record that this instance just wrote {@code key}.
+     */
+    public void written(String key) {
+        if (recentWrites != null) {
+            recentWrites.put(key, Boolean.TRUE);
+        }
+    }
+
+    private boolean writtenRecently(String key) {
+        return recentWrites != null && recentWrites.getIfPresent(key) != null;
+    }
+
+    @Override
+    public void close() {
+        connection.close();
+    }
+}
@@ -0,0 +1,97 @@
+package com.jimisola.demo.arconia.redis;
+
+import io.lettuce.core.cluster.api.sync.RedisClusterCommands;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.BatchCallback;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableLongMeasurement;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * How far each replica is behind its primary, read from the primary's {@code INFO replication}
+ * whenever metrics are collected.
+ *
+ * {@code redis.replica.lag.offset} is the replication stream the replica has not acknowledged yet,
+ * i.e. the writes a read from it would miss. {@code redis.replica.lag} is the time since its last
+ * acknowledgement, which replicas send every second, so anything above 1s means it is falling behind
+ * or unreachable. Nothing is recorded without replicas.
+ */
+@Component
+public class ReplicationMetrics implements AutoCloseable {
+
+    private static final AttributeKey<String> REPLICA = AttributeKey.stringKey("replica");
+
+    private final NativeConnection<String, String> connection;
+    private final BatchCallback callback;
+
+    public ReplicationMetrics(NativeConnection<String, String> nativeRedisConnection, Meter meter) {
+        this.connection = nativeRedisConnection;
+
+        ObservableLongMeasurement offsetLag = meter
+            .gaugeBuilder("redis.replica.lag.offset")
+            .setDescription("Bytes of the replication stream a replica has not acknowledged")
+            .setUnit("By")
+            .ofLongs()
+            .buildObserver();
+
+        ObservableLongMeasurement timeLag = meter
+            .gaugeBuilder("redis.replica.lag")
+            .setDescription("Time since a replica last acknowledged the replication stream")
+            .setUnit("s")
+            .ofLongs()
+            .buildObserver();
+
+        // One INFO call per primary and collection for both instruments
+        this.callback = meter.batchCallback(() -> record(offsetLag, timeLag), offsetLag, timeLag);
+    }
+
+    private void record(ObservableLongMeasurement offsetLag, ObservableLongMeasurement timeLag) {
+        for (RedisClusterCommands<String, String> commands : connection.masters()) {
+            long primaryOffset = 0;
+            Map<String, Map<String, String>> replicas = new HashMap<>();
+
+            for (String line : commands.info("replication").split("\r?\n")) {
+                int colon = line.indexOf(':');
+                if (colon < 0 || line.startsWith("#")) {
+                    continue;
+                }
+                String name = line.substring(0, colon);
+                String value = line.substring(colon + 1).trim();
+                if (name.equals("master_repl_offset")) {
+                    primaryOffset = Long.parseLong(value);
+                } else if (name.matches("slave\\d+")) {
+                    // slave0:ip=10.0.0.2,port=6379,state=online,offset=1234,lag=0
+                    Map<String, String> fields = new HashMap<>();
+                    for (String field : value.split(",")) {
+                        int equals = field.indexOf('=');
+                        if (equals > 0) {
+                            fields.put(field.substring(0, equals), field.substring(equals + 1));
+                        }
+                    }
+                    replicas.put(fields.get("ip") + ":" + fields.get("port"), fields);
+                }
+            }
+
+            for (Map.Entry<String, Map<String, String>> replica : replicas.entrySet()) {
+                Attributes attributes = Attributes.of(REPLICA, replica.getKey());
+                String offset = replica.getValue().get("offset");
+                String lag = replica.getValue().get("lag");
+                if (offset != null) {
+                    offsetLag.record(Math.max(0, primaryOffset - Long.parseLong(offset)), attributes);
+                }
+                if (lag != null) {
+                    timeLag.record(Long.parseLong(lag), attributes);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        callback.close();
+    }
+}
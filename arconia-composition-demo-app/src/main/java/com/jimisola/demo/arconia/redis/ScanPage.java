@@ -0,0 +1,18 @@
+package com.jimisola.demo.arconia.redis;
+
+import java.util.List;
+
+/**
+ * One page of a keyspace scan.
+ *
+ * @param cursor the cursor to pass to the next call, {@code "0"} when the scan is complete
+ * @param keys the keys returned for this page
+ */
+public record ScanPage(String cursor, List<String> keys) {
+
+    public static final String INITIAL_CURSOR = "0";
+
+    public boolean finished() {
+        return INITIAL_CURSOR.equals(cursor);
+    }
+}
@@ -0,0 +1,146 @@
+package com.jimisola.demo.arconia.redis;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent loads of the same key into one call.
+ *
+ * The first caller for a key runs the loader; callers arriving while that call is in flight
+ * wait for its result instead of issuing their own. A key is only shared for as long as its
+ * load is running, and a waiter that gets no result within {@code maxWait} loads on its own.
+ * After a write, {@link #forget(Object)} the key, so that later callers do not join a load that
+ * may have read the value from before it.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Duration maxWait;
+    private final LongCounter coalescedCounter;
+    private final Attributes attributes;
+
+    public SingleFlight(String source, Duration maxWait, Meter meter) {
+        this.maxWait = maxWait;
+        this.attributes = Attributes.builder().put("source", source).build();
+        this.coalescedCounter = meter
+            .counterBuilder("redis.reads.coalesced")
+            .setDescription("Number of reads that shared another caller's in-flight Redis call")
+            .setUnit("reads")
+            .build();
+    }
+
+    /**
+     * Load a single key, sharing an in-flight load of the same key if there is one.
+     */
+    public V get(K key, Function<K, V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalescedCounter.add(1, attributes);
+            return await(existing, () -> loader.apply(key));
+        }
+
+        try {
+            V value = loader.apply(key);
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Stop sharing the in-flight load of {@code key}, if there is one. Callers already waiting for it
+     * still get its result; the next caller loads again.
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    /**
+     * Load several keys. Keys already in flight are shared, the rest are loaded with a single
+     * {@code loader} call that must return values in the order of the keys it was given.
+     *
+     * @return values in the order of {@code keys}
+     */
+    public List<V> getAll(List<K> keys, Function<List<K>, List<V>> loader) {
+        Map<K, CompletableFuture<V>> owned = new LinkedHashMap<>();
+        Map<K, CompletableFuture<V>> shared = new HashMap<>();
+        for (K key : keys) {
+            if (owned.containsKey(key) || shared.containsKey(key)) {
+                continue;
+            }
+            CompletableFuture<V> flight = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+            if (existing != null) {
+                shared.put(key, existing);
+            } else {
+                owned.put(key, flight);
+            }
+        }
+
+        Map<K, V> values = new HashMap<>();
+        if (!owned.isEmpty()) {
+            List<K> ownedKeys = new ArrayList<>(owned.keySet());
+            try {
+                List<V> loaded = loader.apply(ownedKeys);
+                for (int i = 0; i < ownedKeys.size(); i++) {
+                    V value = loaded != null ? loaded.get(i) : null;
+                    values.put(ownedKeys.get(i), value);
+                    owned.get(ownedKeys.get(i)).complete(value);
+                }
+            } catch (RuntimeException e) {
+                owned.values().forEach(flight -> flight.completeExceptionally(e));
+                throw e;
+            } finally {
+                owned.forEach(inFlight::remove);
+            }
+        }
+
+        if (!shared.isEmpty()) {
+            coalescedCounter.add(shared.size(), attributes);
+            shared.forEach((key, flight) ->
+                values.put(key, await(flight, () -> loader.apply(List.of(key)).getFirst())));
+        }
+
+        List<V> result = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            result.add(values.get(key));
+        }
+        return result;
+    }
+
+    private V await(CompletableFuture<V> flight, Supplier<V> fallback) {
+        try {
+            return flight.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return fallback.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a coalesced read", e);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.jimisola.demo.arconia.redis;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdInputStreamNoFinalizer;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.Meter;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Transparent compression of stored values.
+ *
+ * Values at or above the threshold are compressed and stored behind an 8 byte header:
+ * the magic bytes {@code 00 5A 56} ("\0ZV"), a codec id and the uncompressed length (big-endian int).
+ * Anything without the header is returned as is, so values written before compression was
+ * enabled, or below the threshold, stay readable. A value that happens to start with the magic
+ * bytes is stored behind a header with codec {@link Codec#NONE}, so it is never mistaken for
+ * a compressed one.
+ */
+public class ValueCompression {
+
+    public enum Codec {
+        // The ordinal is the codec id in the header
+        NONE, LZ4, ZSTD
+    }
+
+    static final int HEADER_LENGTH = 8;
+    private static final byte[] MAGIC = {0x00, 'Z', 'V'};
+
+    private static final AttributeKey<String> CODEC = AttributeKey.stringKey("codec");
+    private static final AttributeKey<String> DIRECTION = AttributeKey.stringKey("direction");
+
+    private final boolean enabled;
+    private final Codec codec;
+    private final int threshold;
+    private final int zstdLevel;
+    private final LZ4Compressor lz4Compressor;
+    private final LZ4SafeDecompressor lz4Decompressor;
+    private final DoubleHistogram ratioHistogram;
+    private final DoubleHistogram durationHistogram;
+    private final Attributes codecAttributes;
+    private final Attributes[] compressAttributes;
+    private final Attributes[] decompressAttributes;
+
+    public ValueCompression(RedisApiProperties.Compression properties, Meter meter) {
+        this.enabled = properties.enabled() && properties.codec() != Codec.NONE;
+        this.codec = properties.codec();
+        this.threshold = (int) Math.min(properties.threshold().toBytes(), Integer.MAX_VALUE);
+        this.zstdLevel = properties.zstdLevel();
+
+        LZ4Factory lz4 = LZ4Factory.fastestInstance();
+        this.lz4Compressor = lz4.fastCompressor();
+        this.lz4Decompressor = lz4.safeDecompressor();
+
+        this.ratioHistogram = meter
+            .histogramBuilder("redis.compression.ratio")
+            .setDescription("Uncompressed size divided by stored size, for values that were compressed")
+            .setUnit("1")
+            .setExplicitBucketBoundariesAdvice(List.of(1.0, 1.25, 1.5, 2.0, 3.0, 4.0, 6.0, 8.0, 12.0, 16.0))
+            .build();
+
+        this.durationHistogram = meter
+            .histogramBuilder("redis.compression.duration")
+            .setDescription("Time spent compressing or decompressing a value; the work is CPU bound")
+            .setUnit("ms")
+            .setExplicitBucketBoundariesAdvice(List.of(0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1.0, 2.5, 5.0, 10.0))
+            .build();
+
+        Codec[] codecs = Codec.values();
+        this.compressAttributes = new Attributes[codecs.length];
+        this.decompressAttributes = new Attributes[codecs.length];
+        for (Codec c : codecs) {
+            String name = c.name().toLowerCase(Locale.ROOT);
+            compressAttributes[c.ordinal()] = Attributes.of(CODEC, name, DIRECTION, "compress");
+            decompressAttributes[c.ordinal()] = Attributes.of(CODEC, name, DIRECTION, "decompress");
+        }
+        this.codecAttributes = Attributes.of(CODEC, codec.name().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Bytes to store for {@code value}; the same array when it is stored unchanged.
+     */
+    public byte[] encode(byte[] value) {
+        boolean compress = enabled && value.length >= threshold;
+        if (!compress && !startsWithMagic(value, 0, value.length)) {
+            return value;
+        }
+        return encode(value, 0, value.length, compress);
+    }
+
+    /**
+     * Bytes to store for {@code value}; the same buffer when it is stored unchanged.
+     */
+    public ByteBuffer encode(ByteBuffer value) {
+        boolean compress = enabled && value.remaining() >= threshold;
+        if (!compress && !startsWithMagic(value)) {
+            return value;
+        }
+        byte[] bytes = new byte[value.remaining()];
+        value.duplicate().get(bytes);
+        return ByteBuffer.wrap(encode(bytes, 0, bytes.length, compress));
+    }
+
+    /**
+     * The original value of stored bytes; the same array when they carry no header.
+     */
+    public byte[] decode(byte[] stored) {
+        if (!hasHeader(stored, 0, stored.length)) {
+            return stored;
+        }
+        return decode(stored, 0, stored.length);
+    }
+
+    /**
+     * The original value of stored bytes; the same buffer when they carry no header.
+     */
+    public ByteBuffer decode(ByteBuffer stored) {
+        if (!hasHeader(stored)) {
+            return stored;
+        }
+        byte[] bytes = new byte[stored.remaining()];
+        stored.duplicate().get(bytes);
+        return ByteBuffer.wrap(decode(bytes, 0, bytes.length));
+    }
+
+    private byte[] encode(byte[] value, int offset, int length, boolean compress) {
+        if (compress) {
+            long start = System.nanoTime();
+            byte[] compressed = compress(value, offset, length);
+            durationHistogram.record((System.nanoTime() - start) / 1_000_000.0, compressAttributes[codec.ordinal()]);
+
+            // Incompressible values are stored as they are
+            if (compressed.length < length) {
+                ratioHistogram.record((double) length / compressed.length, codecAttributes);
+                return compressed;
+            }
+            if (!startsWithMagic(value, offset, length)) {
+                return offset == 0 && length == value.length ? value : Arrays.copyOfRange(value, offset, offset + length);
+            }
+        }
+
+        byte[] escaped = new byte[HEADER_LENGTH + length];
+        writeHeader(escaped, Codec.NONE, length);
+        System.arraycopy(value, offset, escaped, HEADER_LENGTH, length);
+        return escaped;
+    }
+
+    private byte[] compress(byte[] value, int offset, int length) {
+        byte[] buffer;
+        int compressedLength;
+        if (codec == Codec.LZ4) {
+            buffer = new byte[HEADER_LENGTH + lz4Compressor.maxCompressedLength(length)];
+            compressedLength = lz4Compressor.compress(value, offset, length, buffer, HEADER_LENGTH);
+        } else {
+            buffer = new byte[HEADER_LENGTH + (int) Zstd.compressBound(length)];
+            long result = Zstd.compressByteArray(buffer, HEADER_LENGTH, buffer.length - HEADER_LENGTH, value, offset, length, zstdLevel);
+            if (Zstd.isError(result)) {
+                throw new IllegalStateException("zstd compression failed: " + Zstd.getErrorName(result));
+            }
+            compressedLength = (int) result;
+        }
+        writeHeader(buffer, codec, length);
+        return Arrays.copyOf(buffer, HEADER_LENGTH + compressedLength);
+    }
+
+    private byte[] decode(byte[] stored, int offset, int length) {
+        int codecId = stored[offset + MAGIC.length];
+        if (codecId < 0 || codecId >= Codec.values().length) {
+            throw new IllegalStateException("Unknown compression codec id " + codecId);
+        }
+        Codec storedCodec = Codec.values()[codecId];
+        int originalLength = ByteBuffer.wrap(stored, offset + MAGIC.length + 1, 4).getInt();
+        int dataOffset = offset + HEADER_LENGTH;
+        int dataLength = length - HEADER_LENGTH;
+
+        if (storedCodec == Codec.NONE) {
+            return Arrays.copyOfRange(stored, dataOffset, dataOffset + dataLength);
+        }
+
+        long start = System.nanoTime();
+        byte[] value = new byte[originalLength];
+        int decompressedLength;
+        if (storedCodec == Codec.LZ4) {
+            decompressedLength = lz4Decompressor.decompress(stored, dataOffset, dataLength, value, 0, originalLength);
+        } else {
+            long result = Zstd.decompressByteArray(value, 0, originalLength, stored, dataOffset, dataLength);
+            if (Zstd.isError(result)) {
+                throw new IllegalStateException("zstd decompression failed: " + Zstd.getErrorName(result));
+            }
+            decompressedLength = (int) result;
+        }
+        durationHistogram.record((System.nanoTime() - start) / 1_000_000.0, decompressAttributes[storedCodec.ordinal()]);
+
+        if (decompressedLength != originalLength) {
+            throw new IllegalStateException("Expected " + originalLength + " bytes after decompression but got " + decompressedLength);
+        }
+        return value;
+    }
+
+    /**
+     * Codec named in the header of stored bytes, or null when they carry no header.
+     * Only the first {@link #HEADER_LENGTH} bytes are needed.
+     */
+    static Codec headerCodec(byte[] stored) {
+        if (!hasHeader(stored, 0, stored.length)) {
+            return null;
+        }
+        int codecId = stored[MAGIC.length];
+        return codecId >= 0 && codecId < Codec.values().length ? Codec.values()[codecId] : null;
+    }
+
+    /**
+     * Uncompressed length recorded in a header; only the first {@link #HEADER_LENGTH} bytes are needed.
+     */
+    static int headerLength(byte[] stored) {
+        return ByteBuffer.wrap(stored, MAGIC.length + 1, 4).getInt();
+    }
+
+    /**
+     * The original value, read from a stream of the stored bytes that follow the header.
+     * Neither is held in memory as a whole: an LZ4 block is decoded with a 64KB window and a
+     * zstd frame with the window its compression level needs, a few MB at most for the levels used here.
+     */
+    static InputStream decoding(Codec codec, InputStream stored, long originalLength) throws IOException {
+        return switch (codec) {
+            case NONE -> stored;
+            case LZ4 -> new Lz4BlockInputStream(stored, originalLength);
+            case ZSTD -> new ZstdInputStreamNoFinalizer(stored);
+        };
+    }
+
+    /**
+     * Header that marks the bytes after it as stored uncompressed.
+     */
+    static byte[] uncompressedHeader(int originalLength) {
+        byte[] header = new byte[HEADER_LENGTH];
+        writeHeader(header, Codec.NONE, originalLength);
+        return header;
+    }
+
+    /**
+     * Whether {@code value} would be mistaken for a header if stored as is.
+     */
+    static boolean needsEscape(byte[] value, int length) {
+        return startsWithMagic(value, 0, length);
+    }
+
+    private static void writeHeader(byte[] target, Codec codec, int originalLength) {
+        System.arraycopy(MAGIC, 0, target, 0, MAGIC.length);
+        target[MAGIC.length] = (byte) codec.ordinal();
+        ByteBuffer.wrap(target, MAGIC.length + 1, 4).putInt(originalLength);
+    }
+
+    private static boolean hasHeader(byte[] stored, int offset, int length) {
+        return length >= HEADER_LENGTH && startsWithMagic(stored, offset, length);
+    }
+
+    private static boolean hasHeader(ByteBuffer stored) {
+        return stored.remaining() >= HEADER_LENGTH && startsWithMagic(stored);
+    }
+
+    private static boolean startsWithMagic(byte[] value, int offset, int length) {
+        return length >= MAGIC.length
+            && value[offset] == MAGIC[0]
+            && value[offset + 1] == MAGIC[1]
+            && value[offset + 2] == MAGIC[2];
+    }
+
+    private static boolean startsWithMagic(ByteBuffer value) {
+        int position = value.position();
+        return value.remaining() >= MAGIC.length
+            && value.get(position) == MAGIC[0]
+            && value.get(position + 1) == MAGIC[1]
+            && value.get(position + 2) == MAGIC[2];
+    }
+}
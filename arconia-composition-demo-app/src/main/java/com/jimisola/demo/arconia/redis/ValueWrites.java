@@ -0,0 +1,35 @@
+package com.jimisola.demo.arconia.redis;
+
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+
+/**
+ * SET with an expiry, for the writes {@code ValueOperations} cannot express.
+ *
+ * {@code setIfAbsent}/{@code setIfPresent} without a timeout send a plain SET, which drops the
+ * key's TTL. Here a missing TTL is sent as KEEPTTL instead, so updating a value keeps its
+ * expiry and creating one leaves it without.
+ */
+final class ValueWrites {
+
+    private ValueWrites() {
+    }
+
+    /**
+     * SET {@code key} with the given condition and TTL; runs on the connection bound to {@code operations},
+     * so it joins a surrounding pipeline (and then returns null).
+     */
+    @SuppressWarnings("unchecked")
+    static Boolean set(RedisOperations<String, String> operations, String key, String value, Duration ttl, SetOption option) {
+        byte[] rawKey = ((RedisSerializer<String>) operations.getKeySerializer()).serialize(key);
+        byte[] rawValue = ((RedisSerializer<String>) operations.getValueSerializer()).serialize(value);
+        Expiration expiration = ttl != null ? Expiration.from(ttl) : Expiration.keepTtl();
+        return operations.execute((RedisCallback<Boolean>) connection ->
+            connection.stringCommands().set(rawKey, rawValue, expiration, option));
+    }
+}
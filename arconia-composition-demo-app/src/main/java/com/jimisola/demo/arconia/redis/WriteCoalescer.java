@@ -0,0 +1,180 @@
+package com.jimisola.demo.arconia.redis;
+
+import io.lettuce.core.RedisCommandTimeoutException;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.LongHistogram;
+import io.opentelemetry.api.metrics.Meter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Micro-batches writes from many request threads into pipelined flushes.
+ *
+ * Writes are queued and a single flusher thread sends them on a connection with auto-flush
+ * disabled, flushing when {@code maxBatchSize} writes are queued or {@code flushInterval} has
+ * passed since the first one, whichever comes first. Each caller still gets its own reply.
+ * On a cluster a flush sends every node its share of the batch at once.
+ */
+public class WriteCoalescer implements AutoCloseable {
+
+    private record PendingWrite(KeyCommand command, long enqueuedAt, CompletableFuture<Boolean> result) {}
+
+    private final NativeConnection<String, String> connection;
+    private final RedisClusterAsyncCommands<String, String> commands;
+    private final BlockingQueue<PendingWrite> queue;
+    private final int maxBatchSize;
+    private final long flushIntervalNanos;
+    private final Duration timeout;
+    private final Thread flusher;
+    private final LongHistogram batchSizeHistogram;
+    private final DoubleHistogram queueWaitHistogram;
+    private final DoubleHistogram flushDurationHistogram;
+    private volatile boolean running = true;
+
+    public WriteCoalescer(NativeConnection<String, String> connection, RedisApiProperties.WriteCoalescing properties, Meter meter) {
+        this.connection = connection;
+        this.commands = connection.async();
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.maxBatchSize = properties.maxBatchSize();
+        this.flushIntervalNanos = properties.flushInterval().toNanos();
+        this.timeout = connection.getTimeout();
+
+        this.batchSizeHistogram = meter
+            .histogramBuilder("redis.write_coalescing.batch.size")
+            .setDescription("Number of writes sent per pipelined flush")
+            .setUnit("writes")
+            .ofLongs()
+            .setExplicitBucketBoundariesAdvice(List.of(1L, 2L, 4L, 8L, 16L, 32L, 64L, 128L, 256L, 512L))
+            .build();
+
+        this.queueWaitHistogram = meter
+            .histogramBuilder("redis.write_coalescing.queue.wait")
+            .setDescription("Time a write spent queued before being flushed")
+            .setUnit("ms")
+            .build();
+
+        this.flushDurationHistogram = meter
+            .histogramBuilder("redis.write_coalescing.flush.duration")
+            .setDescription("Time from flushing a batch until its last reply arrived")
+            .setUnit("ms")
+            .build();
+
+        // Commands are buffered until flushCommands(), so only the flusher thread may use this connection
+        connection.setAutoFlushCommands(false);
+        this.flusher = Thread.ofPlatform().name("redis-write-coalescer").daemon().start(this::run);
+    }
+
+    /**
+     * Queue a CREATE (SET NX), UPDATE (SET XX) or DELETE (DEL) and wait for its reply.
+     *
+     * @return whether the key was written or deleted
+     */
+    public boolean execute(KeyCommand command) {
+        PendingWrite write = new PendingWrite(command, System.nanoTime(), new CompletableFuture<>());
+        try {
+            if (!queue.offer(write, timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new RedisCommandTimeoutException("Write queue is full");
+            }
+            return write.result().get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new RedisCommandTimeoutException("Coalesced write timed out after " + timeout);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a coalesced write", e);
+        }
+    }
+
+    private void run() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                batch.forEach(write -> write.result().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        long flushStart = System.nanoTime();
+        batchSizeHistogram.record(batch.size());
+
+        List<CompletableFuture<Boolean>> replies = new ArrayList<>(batch.size());
+        for (PendingWrite write : batch) {
+            queueWaitHistogram.record((flushStart - write.enqueuedAt()) / 1_000_000.0);
+            CompletableFuture<Boolean> reply = send(write.command());
+            reply.whenComplete((written, error) -> {
+                if (error != null) {
+                    write.result().completeExceptionally(error);
+                } else {
+                    write.result().complete(written);
+                }
+            });
+            replies.add(reply);
+        }
+        connection.flushCommands();
+
+        CompletableFuture.allOf(replies.toArray(CompletableFuture[]::new))
+            .whenComplete((ignored, error) -> flushDurationHistogram.record((System.nanoTime() - flushStart) / 1_000_000.0));
+    }
+
+    private CompletableFuture<Boolean> send(KeyCommand command) {
+        return switch (command.type()) {
+            case CREATE, UPDATE -> toBoolean(commands.set(command.key(), command.value(), command.setArgs()));
+            case DELETE -> commands.del(command.key()).toCompletableFuture().thenApply(deleted -> deleted > 0);
+            case GET -> CompletableFuture.failedFuture(new IllegalArgumentException("Only writes can be coalesced"));
+        };
+    }
+
+    private static CompletableFuture<Boolean> toBoolean(RedisFuture<String> reply) {
+        // SET NX / SET XX reply OK when written and nil when the condition was not met
+        return reply.toCompletableFuture().thenApply("OK"::equals);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        flusher.join(Duration.ofSeconds(5));
+        connection.close();
+        queue.forEach(write -> write.result().completeExceptionally(new IllegalStateException("Write coalescer closed")));
+    }
+}
@@ -0,0 +1,84 @@
+package com.jimisola.demo.arconia.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The workload of a startup training run: sends requests to the {@code /api/redis} endpoints over HTTP
+ * and then exits, so that the JVM records the classes of serving requests in its class cache, not only
+ * those of starting up. See the {@code training} profile and the startup convention.
+ *
+ * Only runs with {@code demo.startup.training.enabled=true}. Failed requests, e.g. without a reachable Redis, are logged and do not stop the run.
+ */
+@Component
+public class StartupTraining implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTraining.class);
+
+    private final ConfigurableApplicationContext context;
+    private final Environment environment;
+    private final boolean enabled;
+    private final int iterations;
+
+    public StartupTraining(ConfigurableApplicationContext context, Environment environment,
+            @Value("${demo.startup.training.enabled:false}") boolean enabled,
+            @Value("${demo.startup.training.iterations:100}") int iterations) {
+        this.context = context;
+        this.environment = environment;
+        this.enabled = enabled;
+        this.iterations = iterations;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        RestClient client = RestClient.create("http://localhost:" + environment.getRequiredProperty("local.server.port"));
+        int failures = 0;
+        for (int i = 0; i < iterations; i++) {
+            String key = "startup-training:" + i;
+            failures += send(client, HttpMethod.POST, "/api/redis/" + key, Map.of("value", "v" + i, "ttlSeconds", 60));
+            failures += send(client, HttpMethod.GET, "/api/redis/" + key, null);
+            failures += send(client, HttpMethod.PUT, "/api/redis/" + key, Map.of("value", "w" + i));
+            failures += send(client, HttpMethod.GET, "/api/redis/" + key + "/ttl", null);
+            failures += send(client, HttpMethod.GET, "/api/redis/" + key + "/raw", null);
+            failures += send(client, HttpMethod.POST, "/api/redis/_batch", Map.of("operations", List.of(
+                Map.of("op", "get", "key", key),
+                Map.of("op", "update", "key", key, "value", "x" + i))));
+            failures += send(client, HttpMethod.GET, "/api/redis?count=10&match=startup-training:*", null);
+            failures += send(client, HttpMethod.DELETE, "/api/redis/" + key, null);
+        }
+        log.info("Startup training sent {} requests, {} failed", iterations * 8, failures);
+
+        System.exit(SpringApplication.exit(context));
+    }
+
+    private static int send(RestClient client, HttpMethod method, String uri, Object body) {
+        try {
+            RestClient.RequestBodySpec request = client.method(method).uri(uri);
+            if (body != null) {
+                request.contentType(MediaType.APPLICATION_JSON).body(body);
+            }
+            HttpStatusCode status = request.exchange((req, response) -> response.getStatusCode());
+            return status.is5xxServerError() ? 1 : 0;
+        } catch (RuntimeException e) {
+            return 1;
+        }
+    }
+}
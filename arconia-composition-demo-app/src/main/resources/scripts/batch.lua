@@ -0,0 +1,24 @@
+-- Run the operations of an atomic batch in order. KEYS[i] is the key of operation i;
+-- ARGV[3i-2], ARGV[3i-1] and ARGV[3i] are its op (get, create, update or delete), its value
+-- and its TTL in milliseconds, empty to keep the key's current TTL.
+-- Returns one reply per operation: the value (or nil) for get, 1 when written and 0 when not
+-- for create and update, and the number of keys removed for delete.
+local replies = {}
+for i, key in ipairs(KEYS) do
+    local op, value, ttl = ARGV[3 * i - 2], ARGV[3 * i - 1], ARGV[3 * i]
+    if op == 'get' then
+        replies[i] = redis.call('GET', key)
+    elseif op == 'delete' then
+        replies[i] = redis.call('DEL', key)
+    else
+        local condition = op == 'create' and 'NX' or 'XX'
+        local written
+        if ttl ~= '' then
+            written = redis.call('SET', key, value, condition, 'PX', ttl)
+        else
+            written = redis.call('SET', key, value, condition, 'KEEPTTL')
+        end
+        replies[i] = written and 1 or 0
+    end
+end
+return replies
@@ -0,0 +1,19 @@
+-- Move a finished upload from KEYS[1] to KEYS[2] and drop the expiry that guarded the upload.
+-- ARGV[1] is 'create' (only if KEYS[2] does not exist) or 'update' (only if it does).
+-- ARGV[2] is the TTL of the stored value in milliseconds; 0 keeps the TTL KEYS[2] had, if any.
+-- Returns 1 when moved, 0 when the condition failed; the upload is deleted in that case.
+local exists = redis.call('EXISTS', KEYS[2]) == 1
+if (ARGV[1] == 'create' and exists) or (ARGV[1] == 'update' and not exists) then
+    redis.call('DEL', KEYS[1])
+    return 0
+end
+local ttl = redis.call('PTTL', KEYS[2])
+redis.call('RENAME', KEYS[1], KEYS[2])
+if tonumber(ARGV[2]) > 0 then
+    redis.call('PEXPIRE', KEYS[2], ARGV[2])
+elseif ttl > 0 then
+    redis.call('PEXPIRE', KEYS[2], ttl)
+else
+    redis.call('PERSIST', KEYS[2])
+end
+return 1
@@ -0,0 +1,23 @@
+-- Replace the value of KEYS[1] only if the SHA-1 of its current value equals ARGV[1].
+-- ARGV[3], if given and not empty, is the new TTL in milliseconds; otherwise the key keeps its current TTL.
+-- Returns 1 when updated, 0 when the version does not match and -1 when the key does not exist.
+-- Returns -2 without writing when the current value is stored behind a compression header
+-- ("\0ZV"): its version is the SHA-1 of the uncompressed value, which only the client can compute.
+-- With ARGV[4] set to "stored", ARGV[1] is the SHA-1 of the stored bytes instead, which the client
+-- passes after checking the uncompressed value itself; the header is not looked at then.
+local current = redis.call('GET', KEYS[1])
+if not current then
+    return -1
+end
+if ARGV[4] ~= 'stored' and string.sub(current, 1, 3) == '\0ZV' then
+    return -2
+end
+if redis.sha1hex(current) ~= ARGV[1] then
+    return 0
+end
+if ARGV[3] and ARGV[3] ~= '' then
+    redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+else
+    redis.call('SET', KEYS[1], ARGV[2], 'KEEPTTL')
+end
+return 1
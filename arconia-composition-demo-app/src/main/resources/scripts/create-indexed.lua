@@ -0,0 +1,14 @@
+-- Create KEYS[1] only if it does not exist, and add it to the key index KEYS[2] in the same step.
+-- ARGV[1] is the value and ARGV[2] its TTL in milliseconds, empty for a key that does not expire.
+-- Returns 1 when created and 0 when the key already existed; the index is left as it was then.
+local written
+if ARGV[2] ~= '' then
+    written = redis.call('SET', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2])
+else
+    written = redis.call('SET', KEYS[1], ARGV[1], 'NX')
+end
+if not written then
+    return 0
+end
+redis.call('ZADD', KEYS[2], 0, KEYS[1])
+return 1
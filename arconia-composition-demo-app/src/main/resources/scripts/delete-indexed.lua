@@ -0,0 +1,5 @@
+-- Delete KEYS[1] and remove it from the key index KEYS[2] in the same step.
+-- Returns the number of keys removed, 0 when KEYS[1] did not exist.
+local deleted = redis.call('DEL', KEYS[1])
+redis.call('ZREM', KEYS[2], KEYS[1])
+return deleted
@@ -0,0 +1,10 @@
+-- Remove the keys KEYS[2..n] from the key index KEYS[1] unless they exist again,
+-- e.g. because they were created after a listing found them missing.
+-- Returns the number of entries removed.
+local removed = 0
+for i = 2, #KEYS do
+    if redis.call('EXISTS', KEYS[i]) == 0 then
+        removed = removed + redis.call('ZREM', KEYS[1], KEYS[i])
+    end
+end
+return removed
@@ -0,0 +1,98 @@
+package com.jimisola.demo.arconia.api.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.jimisola.demo.arconia.api.admission.ConcurrencyLimiter.Algorithm;
+
+class ConcurrencyLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(5).toNanos();
+    private static final long SLOW = Duration.ofMillis(500).toNanos();
+
+    @Test
+    void shouldRejectBeyondLimit() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(Algorithm.AIMD, 2, 1, 10, Duration.ofMillis(100));
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.inFlight()).isEqualTo(2);
+
+        limiter.release(FAST, false);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void aimdShouldGrowWhileFastAndBackOffWhenSlow() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(Algorithm.AIMD, 10, 1, 100, Duration.ofMillis(100));
+
+        saturate(limiter, FAST);
+        assertThat(limiter.limit()).isGreaterThan(10);
+
+        int grown = limiter.limit();
+        saturate(limiter, SLOW);
+        assertThat(limiter.limit()).isLessThan(grown);
+    }
+
+    @Test
+    void gradientShouldShrinkWhenLatencyRises() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(Algorithm.GRADIENT, 20, 1, 100, Duration.ZERO);
+
+        for (int i = 0; i < 20; i++) {
+            saturate(limiter, FAST);
+        }
+        int steady = limiter.limit();
+        assertThat(steady).isGreaterThan(20);
+
+        for (int i = 0; i < 5; i++) {
+            saturate(limiter, SLOW);
+        }
+        assertThat(limiter.limit()).isLessThan(steady);
+    }
+
+    @Test
+    void shouldBackOffOnFailureButStayWithinBounds() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(Algorithm.GRADIENT, 10, 3, 100, Duration.ZERO);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.release(FAST, true);
+        }
+        assertThat(limiter.limit()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldNotGrowWhileMostlyIdle() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(Algorithm.AIMD, 10, 1, 100, Duration.ofMillis(100));
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, false);
+        }
+        assertThat(limiter.limit()).isEqualTo(10);
+    }
+
+    @Test
+    void shouldRejectInvalidBounds() {
+        assertThatThrownBy(() -> new ConcurrencyLimiter(Algorithm.AIMD, 1, 5, 2, Duration.ZERO))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Fill the current limit, then complete every request with the given latency.
+     */
+    private static void saturate(ConcurrencyLimiter limiter, long latencyNanos) {
+        int admitted = 0;
+        while (limiter.tryAcquire()) {
+            admitted++;
+        }
+        for (int i = 0; i < admitted; i++) {
+            limiter.release(latencyNanos, false);
+        }
+    }
+}
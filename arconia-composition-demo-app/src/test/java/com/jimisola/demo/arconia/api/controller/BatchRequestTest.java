@@ -0,0 +1,24 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class BatchRequestTest {
+
+    @Test
+    void shouldAcceptOperationWithoutTtl() {
+        var operation = new BatchRequest.Operation("create", "key", "value");
+
+        assertThat(operation.hasValidTtl()).isTrue();
+        assertThat(operation.ttl()).isNull();
+    }
+
+    @Test
+    void shouldRejectTtlBeyondMaximum() {
+        assertThat(new BatchRequest.Operation("create", "key", "value", 60L).ttl()).hasSeconds(60);
+        assertThat(new BatchRequest.Operation("create", "key", "value", ValueRequest.MAX_TTL_SECONDS).hasValidTtl()).isTrue();
+        assertThat(new BatchRequest.Operation("create", "key", "value", ValueRequest.MAX_TTL_SECONDS + 1).hasValidTtl()).isFalse();
+        assertThat(new BatchRequest.Operation("create", "key", "value", Long.MAX_VALUE).hasValidTtl()).isFalse();
+    }
+}
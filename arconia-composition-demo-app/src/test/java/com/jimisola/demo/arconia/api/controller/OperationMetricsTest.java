@@ -0,0 +1,19 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class OperationMetricsTest {
+
+    @Test
+    void shouldMeasureUtf8LengthWithoutEncoding() {
+        for (String value : new String[] {"", "plain ascii", "åäö", "€100", "emoji 😀!", "lone \uD800 surrogate"}) {
+            assertThat(OperationMetrics.utf8Length(value))
+                .as(value)
+                .isEqualTo(value.getBytes(StandardCharsets.UTF_8).length);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.jimisola.demo.arconia.api.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class TtlRequestTest {
+
+    @Test
+    void shouldRequireTtl() {
+        assertThat(new TtlRequest(60L).hasValidTtl()).isTrue();
+        assertThat(new TtlRequest(null).hasValidTtl()).isFalse();
+        assertThat(new TtlRequest(0L).hasValidTtl()).isFalse();
+    }
+
+    @Test
+    void shouldRejectTtlBeyondMaximum() {
+        assertThat(new TtlRequest(ValueRequest.MAX_TTL_SECONDS).hasValidTtl()).isTrue();
+        assertThat(new TtlRequest(ValueRequest.MAX_TTL_SECONDS + 1).hasValidTtl()).isFalse();
+        assertThat(new TtlRequest(Long.MAX_VALUE).hasValidTtl()).isFalse();
+    }
+}
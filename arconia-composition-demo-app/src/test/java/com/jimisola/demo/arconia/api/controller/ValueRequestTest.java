@@ -44,6 +44,23 @@ class ValueRequestTest {
         assertThat(request.value()).isNull();
     }
 
+    @Test
+    void shouldDeserializeOptionalTtl() throws Exception {
+        ValueRequest request = objectMapper.readValue("{\"value\":\"testValue\",\"ttlSeconds\":60}", ValueRequest.class);
+        
+        assertThat(request.ttl()).hasSeconds(60);
+        assertThat(request.hasValidTtl()).isTrue();
+        assertThat(new ValueRequest("testValue", 0L).hasValidTtl()).isFalse();
+        assertThat(new ValueRequest("testValue").ttl()).isNull();
+    }
+
+    @Test
+    void shouldRejectTtlBeyondMaximum() {
+        assertThat(new ValueRequest("testValue", ValueRequest.MAX_TTL_SECONDS).hasValidTtl()).isTrue();
+        assertThat(new ValueRequest("testValue", ValueRequest.MAX_TTL_SECONDS + 1).hasValidTtl()).isFalse();
+        assertThat(new ValueRequest("testValue", Long.MAX_VALUE).hasValidTtl()).isFalse();
+    }
+
     @Test
     void shouldSupportRecordEquality() {
         var request1 = new ValueRequest("testValue");
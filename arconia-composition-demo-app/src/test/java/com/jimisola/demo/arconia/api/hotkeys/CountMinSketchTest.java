@@ -0,0 +1,71 @@
+package com.jimisola.demo.arconia.api.hotkeys;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class CountMinSketchTest {
+
+    @Test
+    void shouldNeverUnderestimate() {
+        CountMinSketch sketch = new CountMinSketch(64);
+        for (int i = 0; i < 1000; i++) {
+            sketch.increment("key:" + i);
+        }
+        for (int i = 0; i < 500; i++) {
+            sketch.increment("hot");
+        }
+
+        assertThat(sketch.estimate("hot")).isGreaterThanOrEqualTo(500);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(sketch.estimate("key:" + i)).isGreaterThanOrEqualTo(1);
+        }
+        assertThat(sketch.total()).isEqualTo(1500);
+    }
+
+    @Test
+    void shouldEstimateFrequentKeysCloselyWhenWideEnough() {
+        CountMinSketch sketch = new CountMinSketch(4096);
+        for (int i = 0; i < 10_000; i++) {
+            sketch.increment("key:" + i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            sketch.increment("hot");
+        }
+
+        // Expected error per row is total/width, about 3 here
+        assertThat(sketch.estimate("hot")).isBetween(1000L, 1020L);
+        assertThat(sketch.estimate("never")).isLessThan(20);
+    }
+
+    @Test
+    void shouldHalveCounts() {
+        CountMinSketch sketch = new CountMinSketch(1024);
+        for (int i = 0; i < 100; i++) {
+            sketch.increment("hot");
+        }
+
+        sketch.halve();
+
+        assertThat(sketch.estimate("hot")).isEqualTo(50);
+        assertThat(sketch.total()).isEqualTo(50);
+    }
+
+    @Test
+    void shouldKeepKeysWithEqualHashCodesApart() {
+        assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+        CountMinSketch sketch = new CountMinSketch(4096);
+        for (int i = 0; i < 100; i++) {
+            sketch.increment("Aa");
+        }
+
+        assertThat(CountMinSketch.hash("Aa")).isNotEqualTo(CountMinSketch.hash("BB"));
+        assertThat(sketch.estimate("BB")).isZero();
+    }
+
+    @Test
+    void shouldRejectNonPositiveWidth() {
+        assertThatThrownBy(() -> new CountMinSketch(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
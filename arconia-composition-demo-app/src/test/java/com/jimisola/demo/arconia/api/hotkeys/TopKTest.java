@@ -0,0 +1,57 @@
+package com.jimisola.demo.arconia.api.hotkeys;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TopKTest {
+
+    @Test
+    void shouldKeepLargestValues() {
+        TopK top = new TopK(3);
+        for (int i = 1; i <= 10; i++) {
+            top.offer("key:" + i, i);
+        }
+
+        assertThat(top.entries(10)).containsExactly(
+            new TopK.Entry("key:10", 10), new TopK.Entry("key:9", 9), new TopK.Entry("key:8", 8));
+        assertThat(top.entries(1)).containsExactly(new TopK.Entry("key:10", 10));
+    }
+
+    @Test
+    void shouldUpdateKeptKeysEvenWhenTheyShrink() {
+        TopK top = new TopK(2);
+        top.offer("a", 100);
+        top.offer("b", 50);
+
+        top.offer("a", 10);
+        top.offer("c", 20);
+
+        assertThat(top.entries(2)).containsExactly(new TopK.Entry("b", 50), new TopK.Entry("c", 20));
+    }
+
+    @Test
+    void shouldMakeRoomWhenKeyIsRemoved() {
+        TopK top = new TopK(2);
+        top.offer("a", 100);
+        top.offer("b", 50);
+
+        top.remove("a");
+        top.offer("c", 1);
+
+        assertThat(top.entries(2)).extracting(TopK.Entry::key).containsExactly("b", "c");
+    }
+
+    @Test
+    void shouldHalveValues() {
+        TopK top = new TopK(2);
+        top.offer("a", 100);
+        top.offer("b", 51);
+
+        top.halve();
+
+        assertThat(top.entries(2)).isEqualTo(List.of(new TopK.Entry("a", 50), new TopK.Entry("b", 25)));
+    }
+}
@@ -0,0 +1,41 @@
+package com.jimisola.demo.arconia.observability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class ElapsedThresholdTest {
+
+    @Test
+    void shouldParseJfrTimespans() {
+        assertThat(ElapsedThreshold.parse("0 ns")).isZero();
+        assertThat(ElapsedThreshold.parse("250 us")).isEqualTo(250_000);
+        assertThat(ElapsedThreshold.parse("10 ms")).isEqualTo(10_000_000);
+        assertThat(ElapsedThreshold.parse("2s")).isEqualTo(2_000_000_000L);
+        assertThat(ElapsedThreshold.parse("infinity")).isEqualTo(Long.MAX_VALUE);
+        assertThatThrownBy(() -> ElapsedThreshold.parse("10 fortnights")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldApplyTheSmallestThresholdOfAllRecordings() {
+        ElapsedThreshold threshold = new ElapsedThreshold();
+
+        assertThat(threshold.combine(Set.of("10 ms", "500 us", "1 s"))).isEqualTo("500 us");
+        assertThat(threshold.combine(Set.of())).isEqualTo("0 ns");
+    }
+
+    @Test
+    void shouldOnlyAcceptEventsThatTookAtLeastTheThreshold() {
+        ElapsedThreshold threshold = new ElapsedThreshold();
+        assertThat(threshold.accepts(0)).isTrue();
+
+        threshold.setValue("10 ms");
+
+        assertThat(threshold.getValue()).isEqualTo("10 ms");
+        assertThat(threshold.accepts(9_999_999)).isFalse();
+        assertThat(threshold.accepts(10_000_000)).isTrue();
+    }
+}
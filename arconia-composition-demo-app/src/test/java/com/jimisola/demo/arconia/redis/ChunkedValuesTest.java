@@ -0,0 +1,33 @@
+package com.jimisola.demo.arconia.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import io.lettuce.core.cluster.SlotHash;
+
+class ChunkedValuesTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"plain", "user:{42}:avatar", "{tag}rest", "open{brace", "empty{}tag", "a}b{c"})
+    void shouldKeepUploadInSameSlotAsTarget(String key) {
+        String upload = ChunkedValues.uploadPrefix(key) + ":upload:0b8f4b1e";
+
+        assertThat(SlotHash.getSlot(upload)).isEqualTo(SlotHash.getSlot(key));
+    }
+
+    @Test
+    void shouldReuseExistingHashTag() {
+        assertThat(ChunkedValues.uploadPrefix("user:{42}:avatar")).isEqualTo("user:{42}:avatar");
+        assertThat(ChunkedValues.uploadPrefix("plain")).isEqualTo("{plain}");
+    }
+
+    @Test
+    void shouldRecognizeUploadKeys() {
+        assertThat(ChunkedValues.isUploadKey("{file}:upload:0f8fad5b-d9cb-469f-a165-70867728950e")).isTrue();
+        assertThat(ChunkedValues.isUploadKey("user:upload:avatar")).isFalse();
+        assertThat(ChunkedValues.isUploadKey("file")).isFalse();
+    }
+}
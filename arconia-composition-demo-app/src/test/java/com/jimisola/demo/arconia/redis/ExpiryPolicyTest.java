@@ -0,0 +1,40 @@
+package com.jimisola.demo.arconia.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+class ExpiryPolicyTest {
+
+    private final ExpiryPolicy policy = new ExpiryPolicy(properties(Map.of(
+        "demo.redis.expiry.defaults[session:]", "30m",
+        "demo.redis.expiry.defaults[session:admin:]", "5m")));
+
+    @Test
+    void shouldPreferRequestedTtl() {
+        assertThat(policy.forCreate("session:1", Duration.ofSeconds(10))).isEqualTo(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void shouldUseLongestMatchingPrefix() {
+        assertThat(policy.forCreate("session:1", null)).isEqualTo(Duration.ofMinutes(30));
+        assertThat(policy.forCreate("session:admin:1", null)).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    @Test
+    void shouldNotExpireKeysWithoutMatchingPrefix() {
+        assertThat(policy.forCreate("user:1", null)).isNull();
+    }
+
+    /**
+     * Binds the properties as the application would, so the other property groups get their defaults.
+     */
+    private static RedisApiProperties properties(Map<String, String> properties) {
+        return new Binder(new MapConfigurationPropertySource(properties)).bindOrCreate("demo.redis", RedisApiProperties.class);
+    }
+}
@@ -0,0 +1,21 @@
+package com.jimisola.demo.arconia.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class KeyIndexTest {
+
+    @Test
+    void shouldIndexKeysByTheirFirstSegment() {
+        assertThat(KeyIndex.namespace("user:123:name")).isEqualTo("user");
+        assertThat(KeyIndex.namespace("user:")).isEqualTo("user");
+    }
+
+    @Test
+    void shouldNotIndexKeysWithoutNamespace() {
+        assertThat(KeyIndex.namespace("user")).isNull();
+        assertThat(KeyIndex.namespace(":123")).isNull();
+        assertThat(KeyIndex.namespace("")).isNull();
+    }
+}
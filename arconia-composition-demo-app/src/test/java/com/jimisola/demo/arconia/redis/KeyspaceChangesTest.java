@@ -0,0 +1,21 @@
+package com.jimisola.demo.arconia.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class KeyspaceChangesTest {
+
+    @Test
+    void shouldAddMissingNotificationFlags() {
+        assertThat(KeyspaceChanges.notifyFlags("")).isEqualTo("Eg$xe");
+        assertThat(KeyspaceChanges.notifyFlags("Kx")).isEqualTo("KxEg$e");
+    }
+
+    @Test
+    void shouldKeepFlagsThatAreAlreadySet() {
+        assertThat(KeyspaceChanges.notifyFlags("Eg$xe")).isEqualTo("Eg$xe");
+        assertThat(KeyspaceChanges.notifyFlags("KEA")).isEqualTo("KEA");
+        assertThat(KeyspaceChanges.notifyFlags("KA")).isEqualTo("KAE");
+    }
+}
@@ -0,0 +1,33 @@
+package com.jimisola.demo.arconia.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+class KeyspaceScannerTest {
+
+    @Test
+    void shouldTreatUploadKeysAsInternal() {
+        KeyspaceScanner scanner = scanner(Map.of());
+
+        assertThat(scanner.isInternal("{file}:upload:0f8fad5b-d9cb-469f-a165-70867728950e")).isTrue();
+        assertThat(scanner.isInternal("file")).isFalse();
+    }
+
+    @Test
+    void shouldTreatIndexKeysAsInternalOnlyWhileTheIndexIsEnabled() {
+        assertThat(scanner(Map.of("demo.redis.key-index.enabled", "true")).isInternal("_index:user")).isTrue();
+        assertThat(scanner(Map.of("demo.redis.key-index.enabled", "true", "demo.redis.key-index.key-prefix", "idx:"))
+            .isInternal("_index:user")).isFalse();
+        assertThat(scanner(Map.of()).isInternal("_index:user")).isFalse();
+    }
+
+    private static KeyspaceScanner scanner(Map<String, String> properties) {
+        return new KeyspaceScanner(null, new Binder(new MapConfigurationPropertySource(properties))
+            .bindOrCreate("demo.redis", RedisApiProperties.class));
+    }
+}
@@ -0,0 +1,29 @@
+package com.jimisola.demo.arconia.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import io.lettuce.core.ReadFrom;
+
+class ReplicaReadsTest {
+
+    @Test
+    void shouldAcceptPropertyStyleNames() {
+        assertThat(ReplicaReads.readFrom("replica-preferred")).isSameAs(ReadFrom.REPLICA_PREFERRED);
+        assertThat(ReplicaReads.readFrom("REPLICA_PREFERRED")).isSameAs(ReadFrom.REPLICA_PREFERRED);
+        assertThat(ReplicaReads.readFrom("replicaPreferred")).isSameAs(ReadFrom.REPLICA_PREFERRED);
+        assertThat(ReplicaReads.readFrom("nearest")).isSameAs(ReadFrom.LOWEST_LATENCY);
+    }
+
+    @Test
+    void shouldPassArgumentsThrough() {
+        assertThat(ReplicaReads.readFrom("subnet:10.0.0.0/8")).isNotNull();
+    }
+
+    @Test
+    void shouldRejectUnknownNames() {
+        assertThatThrownBy(() -> ReplicaReads.readFrom("somewhere")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
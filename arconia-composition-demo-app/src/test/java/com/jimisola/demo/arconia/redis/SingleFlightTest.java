@@ -0,0 +1,134 @@
+package com.jimisola.demo.arconia.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.opentelemetry.api.metrics.MeterProvider;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight =
+        new SingleFlight<>("test", Duration.ofSeconds(5), MeterProvider.noop().get("test"));
+
+    @Test
+    void shouldShareOneLoadBetweenConcurrentCallers() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                results.add(executor.submit(() -> singleFlight.get("key", key -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "value";
+                })));
+            }
+
+            // Give every caller time to join the first one's flight
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+            }
+        }
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void shouldLoadAgainOnceTheFlightHasLanded() {
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.get("key", key -> "v" + loads.incrementAndGet());
+        String second = singleFlight.get("key", key -> "v" + loads.incrementAndGet());
+
+        assertThat(second).isEqualTo("v2");
+    }
+
+    @Test
+    void shouldPropagateLoaderFailureAndForgetTheFlight() {
+        assertThatThrownBy(() -> singleFlight.get("key", key -> {
+            throw new IllegalStateException("boom");
+        })).hasMessage("boom");
+
+        assertThat(singleFlight.get("key", key -> "recovered")).isEqualTo("recovered");
+    }
+
+    @Test
+    void shouldNotShareAReadThatStartedBeforeAWrite() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> before = executor.submit(() -> singleFlight.get("key", key -> {
+                started.countDown();
+                await(release);
+                return "old";
+            }));
+            started.await();
+
+            // The write lands while the first read is still in flight
+            singleFlight.forget("key");
+            String after = singleFlight.get("key", key -> "new");
+            release.countDown();
+
+            assertThat(after).isEqualTo("new");
+            assertThat(before.get(5, TimeUnit.SECONDS)).isEqualTo("old");
+        }
+
+        assertThat(singleFlight.get("key", key -> "newest")).isEqualTo("newest");
+    }
+
+    @Test
+    void shouldLoadOnlyKeysNotAlreadyInFlight() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        List<List<String>> batches = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> single = executor.submit(() -> singleFlight.get("a", key -> {
+                started.countDown();
+                await(release);
+                return "A";
+            }));
+            started.await();
+
+            Future<List<String>> multi = executor.submit(() -> singleFlight.getAll(List.of("a", "b", "c", "b"), keys -> {
+                synchronized (batches) {
+                    batches.add(keys);
+                }
+                return keys.stream().map(String::toUpperCase).toList();
+            }));
+
+            Thread.sleep(200);
+            release.countDown();
+
+            assertThat(single.get(5, TimeUnit.SECONDS)).isEqualTo("A");
+            assertThat(multi.get(5, TimeUnit.SECONDS)).containsExactly("A", "B", "C", "B");
+        }
+
+        assertThat(batches).containsExactly(List.of("b", "c"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.jimisola.demo.arconia.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.util.unit.DataSize;
+
+import io.opentelemetry.api.metrics.MeterProvider;
+
+class ValueCompressionTest {
+
+    private static final byte[] LARGE_JSON = "{\"name\":\"value\",\"items\":[1,2,3]}".repeat(100).getBytes(StandardCharsets.UTF_8);
+
+    @ParameterizedTest
+    @EnumSource(value = ValueCompression.Codec.class, names = {"LZ4", "ZSTD"})
+    void shouldCompressValuesAboveThresholdAndRestoreThem(ValueCompression.Codec codec) {
+        ValueCompression compression = compression(true, codec);
+
+        byte[] stored = compression.encode(LARGE_JSON);
+
+        assertThat(stored.length).isLessThan(LARGE_JSON.length / 4);
+        assertThat(compression.decode(stored)).isEqualTo(LARGE_JSON);
+        assertThat(compression.decode(compression.encode(ByteBuffer.wrap(LARGE_JSON))))
+            .isEqualTo(ByteBuffer.wrap(LARGE_JSON));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = ValueCompression.Codec.class, names = {"LZ4", "ZSTD"})
+    void shouldStoreSmallAndIncompressibleValuesUnchanged(ValueCompression.Codec codec) {
+        ValueCompression compression = compression(true, codec);
+        byte[] small = "small".getBytes(StandardCharsets.UTF_8);
+        byte[] random = new byte[4096];
+        new Random(42).nextBytes(random);
+
+        assertThat(compression.encode(small)).isSameAs(small);
+        assertThat(compression.encode(random)).isEqualTo(random);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = ValueCompression.Codec.class, names = {"LZ4", "ZSTD"})
+    void shouldReadValuesCompressedWithAnyCodecWhenDisabled(ValueCompression.Codec codec) {
+        byte[] stored = compression(true, codec).encode(LARGE_JSON);
+
+        ValueCompression disabled = compression(false, ValueCompression.Codec.LZ4);
+
+        assertThat(disabled.encode(LARGE_JSON)).isSameAs(LARGE_JSON);
+        assertThat(disabled.decode(stored)).isEqualTo(LARGE_JSON);
+        assertThat(disabled.decode(LARGE_JSON)).isSameAs(LARGE_JSON);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = ValueCompression.Codec.class, names = {"LZ4", "ZSTD"})
+    void shouldEscapeValuesThatLookLikeAHeader(ValueCompression.Codec codec) {
+        ValueCompression compression = compression(true, codec);
+        byte[] lookalike = {0x00, 'Z', 'V', 1, 0, 0, 0, 5, 'h', 'i'};
+
+        byte[] stored = compression.encode(lookalike);
+
+        assertThat(stored).hasSize(ValueCompression.HEADER_LENGTH + lookalike.length);
+        assertThat(compression.decode(stored)).isEqualTo(lookalike);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = ValueCompression.Codec.class, names = {"LZ4", "ZSTD"})
+    void shouldDecodeStoredValuesAsAStream(ValueCompression.Codec codec) throws IOException {
+        // Longer than the LZ4 window, with literals and matches of every length in between
+        Random random = new Random(42);
+        ByteArrayOutputStream value = new ByteArrayOutputStream();
+        while (value.size() < 300_000) {
+            byte[] literals = new byte[random.nextInt(300)];
+            random.nextBytes(literals);
+            value.writeBytes(literals);
+            value.write(LARGE_JSON, 0, random.nextInt(LARGE_JSON.length));
+        }
+        byte[] original = value.toByteArray();
+        byte[] stored = compression(true, codec).encode(original);
+        assertThat(ValueCompression.headerCodec(stored)).isEqualTo(codec);
+        assertThat(ValueCompression.headerLength(stored)).isEqualTo(original.length);
+
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        try (InputStream in = ValueCompression.decoding(codec, new ByteArrayInputStream(stored,
+                ValueCompression.HEADER_LENGTH, stored.length - ValueCompression.HEADER_LENGTH), original.length)) {
+            byte[] buffer = new byte[1000];
+            int read;
+            while ((read = in.read(buffer, 0, 1 + random.nextInt(buffer.length))) >= 0) {
+                decoded.write(buffer, 0, read);
+                int single = in.read();
+                if (single >= 0) {
+                    decoded.write(single);
+                }
+            }
+        }
+
+        assertThat(decoded.toByteArray()).isEqualTo(original);
+    }
+
+    private static ValueCompression compression(boolean enabled, ValueCompression.Codec codec) {
+        return new ValueCompression(
+            new RedisApiProperties.Compression(enabled, codec, DataSize.ofBytes(1024), 3),
+            MeterProvider.noop().get("test"));
+    }
+}
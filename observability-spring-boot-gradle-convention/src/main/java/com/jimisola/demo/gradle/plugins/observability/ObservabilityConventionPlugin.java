@@ -2,9 +2,14 @@ package com.jimisola.demo.gradle.plugins.observability;
 
 import static com.jimisola.demo.gradle.plugins.observability.Versions.ARCONIA_VERSION;
 
+import java.util.List;
+
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
+import org.gradle.api.file.Directory;
 import org.gradle.api.plugins.JavaPlugin;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.JavaExec;
 
 
 /**
@@ -15,8 +20,14 @@ import org.gradle.api.plugins.JavaPlugin;
  * - Arconia BOM for dependency management
  * - Arconia OpenTelemetry Spring Boot Starter (uses Micrometer instrumentation, no Java Agent)
  * - Arconia Dev Services LGTM (testAndDevelopmentOnly)
+ * - An always-on JDK Flight Recorder recording for bootRun, kept for the last hour (at most 250 MB) and
+ *   dumped to build/jfr when the application exits. Turned off with -Pobservability.jfr=false.
  */
 public class ObservabilityConventionPlugin implements Plugin<Project> {
+
+    static final String JFR_PROPERTY = "observability.jfr";
+
+    static final String JFR_OPTIONS = "name=continuous,settings=default,maxage=1h,maxsize=250m,dumponexit=true";
     
     @Override
     public void apply(Project project) {
@@ -30,5 +41,19 @@ public class ObservabilityConventionPlugin implements Plugin<Project> {
         
         project.getDependencies().add("testAndDevelopmentOnly", 
             "io.arconia:arconia-dev-services-lgtm:" + ARCONIA_VERSION);
+
+        if (!"false".equals(project.findProperty(JFR_PROPERTY))) {
+            project.getPluginManager().withPlugin("org.springframework.boot", plugin -> configureRecording(project));
+        }
+    }
+
+    private void configureRecording(Project project) {
+        Provider<Directory> jfrDir = project.getLayout().getBuildDirectory().dir("jfr");
+        project.getTasks().named("bootRun", JavaExec.class, task -> {
+            // Given an existing directory, the JVM names the recording after the process and time
+            task.doFirst(t -> jfrDir.get().getAsFile().mkdirs());
+            task.getJvmArgumentProviders().add(() -> List.of(
+                "-XX:StartFlightRecording=" + JFR_OPTIONS + ",filename=" + jfrDir.get().getAsFile().getAbsolutePath()));
+        });
     }
 }
\ No newline at end of file
@@ -1,11 +1,14 @@
 package com.jimisola.demo.gradle.plugins.redis;
 
 import static com.jimisola.demo.gradle.plugins.redis.Versions.ARCONIA_VERSION;
+import static com.jimisola.demo.gradle.plugins.redis.Versions.REDIS_CLUSTER_IMAGE;
 import static com.jimisola.demo.gradle.plugins.redis.Versions.TESTCONTAINERS_REDIS_VERSION;
+import static com.jimisola.demo.gradle.plugins.redis.Versions.TEST_SUPPORT_VERSION;
 
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
 import org.gradle.api.plugins.JavaPlugin;
+import org.gradle.api.tasks.testing.Test;
 
 /**
  * Convention plugin for Redis and Arconia dev services configuration.
@@ -16,10 +19,29 @@ import org.gradle.api.plugins.JavaPlugin;
  * - Arconia Dev Services Redis (testAndDevelopmentOnly)
  * - Spring Data Redis Test Starter
  * - Testcontainers Redis
+ * - Redis test support, which starts the local topologies below
  * - Spring Boot Testcontainers support (testAndDevelopmentOnly)
  * - Testcontainers core (testAndDevelopmentOnly)   
+ *
+ * Passes the Redis topology to all test tasks, for the Redis test support to start:
+ * - redis.topology (standalone, cluster or replicated, default standalone)
+ * - redis.cluster.image (image of the local cluster or replicated primary, default in Versions.java)
+ * - redis.replicas (replicas of the replicated primary, default 2)
+ * Set them as project properties, e.g. ./gradlew integrationTest -Predis.topology=cluster
+ *
+ * With the project property redis.profile=performance it also adds, for high-throughput services:
+ * - commons-pool2, which turns on Spring Boot's Lettuce connection pool (spring.data.redis.lettuce.pool.*)
+ * - Netty's native epoll transport for Linux x86_64 and aarch64 (runtimeOnly), which Lettuce uses instead of NIO
  */
 public class RedisConventionPlugin implements Plugin<Project> {
+
+    static final String TOPOLOGY_PROPERTY = "redis.topology";
+
+    static final String CLUSTER_IMAGE_PROPERTY = "redis.cluster.image";
+
+    static final String REPLICAS_PROPERTY = "redis.replicas";
+
+    static final String PROFILE_PROPERTY = "redis.profile";
     
     @Override
     public void apply(Project project) {
@@ -36,10 +58,34 @@ public class RedisConventionPlugin implements Plugin<Project> {
         
         project.getDependencies().add("testImplementation", 
             "com.redis:testcontainers-redis:" + TESTCONTAINERS_REDIS_VERSION);
+
+        project.getDependencies().add("testImplementation", 
+            "com.jimisola.demo.testing:redis-spring-boot-test-support:" + TEST_SUPPORT_VERSION);
         
         project.getDependencies().add("testAndDevelopmentOnly", 
             "org.springframework.boot:spring-boot-testcontainers");
         project.getDependencies().add("testAndDevelopmentOnly", 
             "org.testcontainers:testcontainers");
+
+        if ("performance".equals(property(project, PROFILE_PROPERTY, "standard"))) {
+            // Versions come from the Spring Boot BOM, like the starters above
+            project.getDependencies().add("implementation", 
+                "org.apache.commons:commons-pool2");
+            project.getDependencies().add("runtimeOnly", 
+                "io.netty:netty-transport-native-epoll::linux-x86_64");
+            project.getDependencies().add("runtimeOnly", 
+                "io.netty:netty-transport-native-epoll::linux-aarch_64");
+        }
+
+        project.getTasks().withType(Test.class).configureEach(test -> {
+            test.systemProperty(TOPOLOGY_PROPERTY, property(project, TOPOLOGY_PROPERTY, "standalone"));
+            test.systemProperty(CLUSTER_IMAGE_PROPERTY, property(project, CLUSTER_IMAGE_PROPERTY, REDIS_CLUSTER_IMAGE));
+            test.systemProperty(REPLICAS_PROPERTY, property(project, REPLICAS_PROPERTY, "2"));
+        });
+    }
+
+    private static String property(Project project, String name, String defaultValue) {
+        Object value = project.findProperty(name);
+        return value != null ? value.toString() : defaultValue;
     }
 }
@@ -8,6 +8,10 @@ public final class Versions {
     public static final String ARCONIA_VERSION = "0.21.0";
     
     public static final String TESTCONTAINERS_REDIS_VERSION = "2.2.2";
+
+    public static final String REDIS_CLUSTER_IMAGE = "redis:8.4-alpine";
+
+    public static final String TEST_SUPPORT_VERSION = "0.2.0";
     
     private Versions() {
         throw new UnsupportedOperationException("Utility class");
@@ -0,0 +1,68 @@
+package com.jimisola.demo.testing.redis;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.utility.DockerImageName;
+
+import io.lettuce.core.internal.HostAndPort;
+
+/**
+ * A Redis Cluster of three masters with one replica each, run as six redis-server processes in one container.
+ *
+ * The nodes announce themselves as {@code 127.0.0.1:7000} to {@code 127.0.0.1:7005}, which is what clients
+ * find in the cluster topology; {@link #map(HostAndPort)} translates those to the ports Docker mapped them to.
+ */
+public class RedisClusterContainer extends GenericContainer<RedisClusterContainer> {
+
+    public static final int FIRST_PORT = 7000;
+    public static final int NODES = 6;
+
+    private static final String STARTUP_SCRIPT = """
+        ports="%s"
+        for port in $ports; do
+            redis-server --port $port --cluster-enabled yes --cluster-config-file nodes-$port.conf \
+                --cluster-node-timeout 5000 --cluster-announce-ip 127.0.0.1 --save '' --appendonly no \
+                --dir /tmp --logfile /tmp/redis-$port.log --daemonize yes
+        done
+        for port in $ports; do
+            until redis-cli -p $port ping > /dev/null 2>&1; do sleep 0.1; done
+        done
+        redis-cli --cluster create $(for port in $ports; do printf '127.0.0.1:%%s ' $port; done) \
+            --cluster-replicas 1 --cluster-yes
+        for port in $ports; do
+            until redis-cli -p $port cluster info | grep -q cluster_state:ok; do sleep 0.2; done
+        done
+        echo "Cluster ready"
+        tail -f /tmp/redis-%d.log
+        """;
+
+    public RedisClusterContainer(DockerImageName image) {
+        super(image);
+        String ports = IntStream.range(FIRST_PORT, FIRST_PORT + NODES).mapToObj(String::valueOf).collect(Collectors.joining(" "));
+        withExposedPorts(IntStream.range(FIRST_PORT, FIRST_PORT + NODES).boxed().toArray(Integer[]::new));
+        withCommand("sh", "-c", STARTUP_SCRIPT.formatted(ports, FIRST_PORT));
+        waitingFor(Wait.forLogMessage(".*Cluster ready.*\\n", 1));
+    }
+
+    /**
+     * Seed nodes for {@code spring.data.redis.cluster.nodes}, as announced inside the cluster.
+     */
+    public String nodes() {
+        return IntStream.range(FIRST_PORT, FIRST_PORT + NODES)
+            .mapToObj(port -> "127.0.0.1:" + port)
+            .collect(Collectors.joining(","));
+    }
+
+    /**
+     * The address a client on the host reaches an announced node address on.
+     */
+    public HostAndPort map(HostAndPort announced) {
+        if (announced.getPort() < FIRST_PORT || announced.getPort() >= FIRST_PORT + NODES) {
+            return announced;
+        }
+        return HostAndPort.of(getHost(), getMappedPort(announced.getPort()));
+    }
+}
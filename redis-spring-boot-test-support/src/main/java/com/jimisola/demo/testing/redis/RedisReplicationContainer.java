@@ -0,0 +1,55 @@
+package com.jimisola.demo.testing.redis;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.utility.DockerImageName;
+
+import io.lettuce.core.internal.HostAndPort;
+
+/**
+ * A Redis primary on port 6379 with replicas on the following ports, run as redis-server processes in one container.
+ *
+ * The replicas announce themselves as {@code 127.0.0.1:<port>}, which is what Lettuce finds in the primary's
+ * {@code INFO replication}; {@link #map(HostAndPort)} translates those to the ports Docker mapped them to.
+ */
+public class RedisReplicationContainer extends GenericContainer<RedisReplicationContainer> {
+
+    public static final int PRIMARY_PORT = 6379;
+
+    private static final String STARTUP_SCRIPT = """
+        redis-server --port %1$d --save '' --appendonly no --dir /tmp --logfile /tmp/redis-%1$d.log --daemonize yes
+        for port in %2$s; do
+            redis-server --port $port --replicaof 127.0.0.1 %1$d --replica-announce-ip 127.0.0.1 \
+                --save '' --appendonly no --dir /tmp --logfile /tmp/redis-$port.log --daemonize yes
+        done
+        until [ "$(redis-cli -p %1$d info replication | grep -c 'state=online')" -eq %3$d ]; do sleep 0.2; done
+        echo "Replication ready"
+        tail -f /tmp/redis-%1$d.log
+        """;
+
+    private final int replicas;
+
+    public RedisReplicationContainer(DockerImageName image, int replicas) {
+        super(image);
+        this.replicas = replicas;
+        String replicaPorts = IntStream.rangeClosed(PRIMARY_PORT + 1, PRIMARY_PORT + replicas)
+            .mapToObj(String::valueOf)
+            .collect(Collectors.joining(" "));
+        withExposedPorts(IntStream.rangeClosed(PRIMARY_PORT, PRIMARY_PORT + replicas).boxed().toArray(Integer[]::new));
+        withCommand("sh", "-c", STARTUP_SCRIPT.formatted(PRIMARY_PORT, replicaPorts, replicas));
+        waitingFor(Wait.forLogMessage(".*Replication ready.*\\n", 1));
+    }
+
+    /**
+     * The address a client on the host reaches an announced node address on.
+     */
+    public HostAndPort map(HostAndPort announced) {
+        if (announced.getPort() < PRIMARY_PORT || announced.getPort() > PRIMARY_PORT + replicas) {
+            return announced;
+        }
+        return HostAndPort.of(getHost(), getMappedPort(announced.getPort()));
+    }
+}
@@ -0,0 +1,119 @@
+package com.jimisola.demo.testing.redis;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.boot.data.redis.autoconfigure.ClientResourcesBuilderCustomizer;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ContextConfigurationAttributes;
+import org.springframework.test.context.ContextCustomizer;
+import org.springframework.test.context.ContextCustomizerFactory;
+import org.springframework.test.context.MergedContextConfiguration;
+import org.testcontainers.utility.DockerImageName;
+
+import io.lettuce.core.internal.HostAndPort;
+import io.lettuce.core.resource.DnsResolvers;
+import io.lettuce.core.resource.MappingSocketAddressResolver;
+
+/**
+ * Runs every Spring test against a local Redis topology instead of the single Redis started by
+ * Arconia Dev Services, picked by the system property {@code redis.topology}:
+ * <ul>
+ *     <li>{@code cluster}: a {@link RedisClusterContainer}</li>
+ *     <li>{@code replicated}: a {@link RedisReplicationContainer} with {@code redis.replicas} replicas (default 2)</li>
+ * </ul>
+ *
+ * Registered in {@code META-INF/spring.factories}, so it applies to every project that has this library on
+ * its test classpath, as the Redis convention and mixin arrange. They also pass the system properties
+ * through: {@code ./gradlew integrationTest -Predis.topology=cluster}, or {@code -Predis-cluster} /
+ * {@code -Predis-replicated} with the Maven mixin. {@code redis.cluster.image} picks the Redis image of both.
+ */
+public class RedisTopologyContextCustomizerFactory implements ContextCustomizerFactory {
+
+    public static final String TOPOLOGY_PROPERTY = "redis.topology";
+
+    private static final String DEFAULT_IMAGE = "redis:8.4-alpine";
+
+    @Override
+    public ContextCustomizer createContextCustomizer(Class<?> testClass, List<ContextConfigurationAttributes> configAttributes) {
+        String topology = System.getProperty(TOPOLOGY_PROPERTY);
+        if ("cluster".equals(topology)) {
+            return new RedisClusterContextCustomizer();
+        }
+        if ("replicated".equals(topology)) {
+            return new RedisReplicationContextCustomizer();
+        }
+        return null;
+    }
+
+    /**
+     * A record so that all test classes share one cached context configuration per set of other settings.
+     */
+    private record RedisClusterContextCustomizer() implements ContextCustomizer {
+
+        @Override
+        public void customizeContext(ConfigurableApplicationContext context, MergedContextConfiguration mergedConfig) {
+            RedisClusterContainer cluster = ClusterHolder.INSTANCE;
+            TestPropertyValues.of(
+                "arconia.dev.services.redis.enabled=false",
+                "spring.data.redis.cluster.nodes=" + cluster.nodes()
+            ).applyTo(context);
+            registerAddressMapping(context, cluster::map);
+        }
+    }
+
+    private record RedisReplicationContextCustomizer() implements ContextCustomizer {
+
+        @Override
+        public void customizeContext(ConfigurableApplicationContext context, MergedContextConfiguration mergedConfig) {
+            RedisReplicationContainer replication = ReplicationHolder.INSTANCE;
+            // The announced primary address, so that it maps like the replicas found in its INFO replication
+            TestPropertyValues.of(
+                "arconia.dev.services.redis.enabled=false",
+                "spring.data.redis.host=127.0.0.1",
+                "spring.data.redis.port=" + RedisReplicationContainer.PRIMARY_PORT
+            ).applyTo(context);
+            registerAddressMapping(context, replication::map);
+        }
+    }
+
+    private static void registerAddressMapping(ConfigurableApplicationContext context, Function<HostAndPort, HostAndPort> mapping) {
+        ClientResourcesBuilderCustomizer addressMapping = builder -> builder.socketAddressResolver(
+            MappingSocketAddressResolver.create(DnsResolvers.UNRESOLVED, mapping));
+        context.getBeanFactory().registerSingleton("redisTopologyAddressMapping", addressMapping);
+    }
+
+    private static DockerImageName image() {
+        return DockerImageName.parse(System.getProperty("redis.cluster.image", DEFAULT_IMAGE));
+    }
+
+    /**
+     * Started on first use and shared by all test contexts; Testcontainers removes it when the JVM exits.
+     */
+    private static final class ClusterHolder {
+
+        static final RedisClusterContainer INSTANCE = start();
+
+        private static RedisClusterContainer start() {
+            RedisClusterContainer cluster = new RedisClusterContainer(image());
+            cluster.start();
+            return cluster;
+        }
+    }
+
+    /**
+     * Started on first use, like {@link ClusterHolder}.
+     */
+    private static final class ReplicationHolder {
+
+        static final RedisReplicationContainer INSTANCE = start();
+
+        private static RedisReplicationContainer start() {
+            RedisReplicationContainer replication = new RedisReplicationContainer(image(),
+                Integer.getInteger("redis.replicas", 2));
+            replication.start();
+            return replication;
+        }
+    }
+}
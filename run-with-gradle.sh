@@ -4,6 +4,10 @@ set -e
 echo "🏗️  Building and publishing convention plugins..."
 echo ""
 
+echo "📦 Building Redis test support..."
+(cd redis-spring-boot-test-support && ./gradlew clean publishToMavenLocal -q)
+echo "✅ Redis test support published locally"
+
 echo "📦 Building Redis convention plugin..."
 (cd redis-spring-boot-gradle-convention && ./gradlew clean publishToMavenLocal -q)
 echo "✅ Redis plugin published locally"
@@ -12,6 +16,10 @@ echo "📦 Building Observability convention plugin..."
 (cd observability-spring-boot-gradle-convention && ./gradlew clean publishToMavenLocal -q)
 echo "✅ Observability plugin published locally"
 
+echo "📦 Building Startup convention plugin..."
+(cd startup-spring-boot-gradle-convention && ./gradlew clean publishToMavenLocal -q)
+echo "✅ Startup plugin published locally"
+
 cd arconia-composition-demo-app
 
 echo ""
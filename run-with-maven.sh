@@ -4,6 +4,10 @@ set -e
 echo "🏗️  Building and publishing Maven mixins..."
 echo ""
 
+echo "📦 Building Redis test support..."
+(cd redis-spring-boot-test-support && ./mvnw clean install -q)
+echo "✅ Redis test support installed locally"
+
 echo "📦 Building Redis mixin..."
 (cd redis-spring-boot-maven-mixin && ./mvnw clean install -q)
 echo "✅ Redis mixin installed locally"
@@ -12,6 +16,10 @@ echo "📦 Building Observability mixin..."
 (cd observability-spring-boot-maven-mixin && ./mvnw clean install -q)
 echo "✅ Observability mixin installed locally"
 
+echo "📦 Building Startup mixin..."
+(cd startup-spring-boot-maven-mixin && ./mvnw clean install -q)
+echo "✅ Startup mixin installed locally"
+
 cd arconia-composition-demo-app
 
 echo ""
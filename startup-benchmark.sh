@@ -0,0 +1,71 @@
+#!/bin/bash
+set -e
+
+# Compares cold start of the extracted application with and without its startup cache.
+# Reports time to first request (process start until /api/redis answers) and RSS at that moment.
+#
+# Usage: ./startup-benchmark.sh <app dir> [runs]
+#   <app dir>: arconia-composition-demo-app/build/startup/app (Gradle, -Pstartup.profile=optimized startupTraining)
+#              or arconia-composition-demo-app/target/startup/app (Maven, -Pstartup-optimized package)
+# Redis must be reachable; pass Spring Boot arguments with APP_ARGS, e.g. APP_ARGS="--spring.data.redis.host=redis"
+
+APP_DIR=${1:?Usage: $0 <app dir> [runs]}
+RUNS=${2:-5}
+PORT=${PORT:-18080}
+# Answered by the controller without a Redis call, so only startup is measured
+URL="http://localhost:${PORT}/api/redis/_jobs/startup-benchmark"
+
+cd "$APP_DIR"
+JAR=$(ls ./*.jar | head -1)
+if [ -f app.aot ]; then
+    CACHE="-XX:AOTCache=app.aot"
+elif [ -f app.jsa ]; then
+    CACHE="-XX:SharedArchiveFile=app.jsa"
+else
+    echo "No app.aot or app.jsa in $APP_DIR - run the training first" >&2
+    exit 1
+fi
+
+# Prints "<milliseconds> <rss kB>" for one cold start
+measure() {
+    local start pid code elapsed rss
+    start=$(date +%s%N)
+    # shellcheck disable=SC2086
+    java "$@" -jar "$JAR" --server.port="$PORT" $APP_ARGS > /dev/null 2>&1 &
+    pid=$!
+    code=000
+    while [ "$code" = "000" ]; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "Application exited during startup" >&2
+            exit 1
+        fi
+        code=$(curl -s -o /dev/null -w '%{http_code}' "$URL" || true)
+    done
+    elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+    rss=$(ps -o rss= -p "$pid" | tr -d ' ')
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo "$elapsed $rss"
+}
+
+median() {
+    sort -n | awk '{ values[NR] = $1 } END { print values[int((NR + 1) / 2)] }'
+}
+
+run() {
+    local label=$1
+    shift
+    local results=()
+    for _ in $(seq "$RUNS"); do
+        results+=("$(measure "$@")")
+    done
+    local ms rss
+    ms=$(printf '%s\n' "${results[@]}" | cut -d' ' -f1 | median)
+    rss=$(printf '%s\n' "${results[@]}" | cut -d' ' -f2 | median)
+    printf '%-10s %22s %14s\n' "$label" "$ms" "$(( rss / 1024 ))"
+}
+
+echo "Median of $RUNS cold starts of $JAR"
+printf '%-10s %22s %14s\n' "" "first request (ms)" "RSS (MB)"
+run "baseline"
+run "optimized" "$CACHE" -Dspring.aot.enabled=true
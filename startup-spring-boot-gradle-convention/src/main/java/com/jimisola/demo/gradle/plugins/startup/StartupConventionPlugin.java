@@ -0,0 +1,130 @@
+package com.jimisola.demo.gradle.plugins.startup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+import org.gradle.api.file.Directory;
+import org.gradle.api.file.RegularFile;
+import org.gradle.api.plugins.JavaPluginExtension;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.Exec;
+import org.gradle.api.tasks.bundling.Jar;
+import org.gradle.api.tasks.bundling.Zip;
+import org.gradle.jvm.toolchain.JavaLauncher;
+import org.gradle.jvm.toolchain.JavaToolchainService;
+
+/**
+ * Convention plugin for faster Spring Boot startup.
+ *
+ * Does nothing unless the project property startup.profile=optimized is set, so that regular builds
+ * are unaffected. With it:
+ * - Applies Spring Boot's AOT plugin, so bootJar contains the bean definitions generated at build time
+ * - startupExtract: extracts bootJar into build/startup/app (application jar plus lib/), the layout
+ *   a JVM class cache needs
+ * - startupTraining: runs the extracted application once with the Spring profile "training" and writes
+ *   the class cache next to it. JDK 25+ writes an AOT cache (app.aot, JEP 514), older JDKs a
+ *   dynamic CDS archive (app.jsa). The application decides what the training run does and when it exits.
+ * - startupDistZip: zips build/startup/app with the cache and a start.sh that uses both
+ *
+ * Arguments for the training run, e.g. where Redis is, are passed with
+ * -Pstartup.training.args="--spring.data.redis.host=localhost".
+ */
+public class StartupConventionPlugin implements Plugin<Project> {
+
+    static final String PROFILE_PROPERTY = "startup.profile";
+
+    static final String TRAINING_ARGS_PROPERTY = "startup.training.args";
+
+    static final String TRAINING_PROFILE = "training";
+
+    private static final String GROUP = "startup";
+
+    @Override
+    public void apply(Project project) {
+        if (!"optimized".equals(project.findProperty(PROFILE_PROPERTY))) {
+            return;
+        }
+        project.getPluginManager().withPlugin("org.springframework.boot", plugin -> configure(project));
+    }
+
+    private void configure(Project project) {
+        project.getPluginManager().apply("org.springframework.boot.aot");
+
+        Provider<JavaLauncher> launcher = project.getExtensions().getByType(JavaToolchainService.class)
+            .launcherFor(project.getExtensions().getByType(JavaPluginExtension.class).getToolchain());
+        Provider<RegularFile> bootJar = project.getTasks().named("bootJar", Jar.class)
+            .flatMap(Jar::getArchiveFile);
+        Provider<Directory> appDir = project.getLayout().getBuildDirectory().dir("startup/app");
+
+        var extract = project.getTasks().register("startupExtract", Exec.class, task -> {
+            task.setGroup(GROUP);
+            task.setDescription("Extracts bootJar into build/startup/app");
+            task.dependsOn("bootJar");
+            task.getInputs().file(bootJar);
+            task.getOutputs().dir(appDir);
+            task.doFirst(t -> task.commandLine(
+                launcher.get().getExecutablePath().getAsFile(),
+                "-Djarmode=tools", "-jar", bootJar.get().getAsFile(),
+                "extract", "--force", "--destination", appDir.get().getAsFile()));
+        });
+
+        var training = project.getTasks().register("startupTraining", Exec.class, task -> {
+            task.setGroup(GROUP);
+            task.setDescription("Runs the application once to record its JVM class cache");
+            task.dependsOn(extract);
+            task.workingDir(appDir);
+            task.doFirst(t -> {
+                JavaLauncher java = launcher.get();
+                boolean aotCache = java.getMetadata().getLanguageVersion().canCompileOrRun(25);
+                List<String> command = new ArrayList<>(List.of(
+                    java.getExecutablePath().getAsFile().getAbsolutePath(),
+                    aotCache ? "-XX:AOTCacheOutput=app.aot" : "-XX:ArchiveClassesAtExit=app.jsa",
+                    "-Dspring.aot.enabled=true",
+                    "-Dspring.profiles.active=" + TRAINING_PROFILE,
+                    "-jar", jarName(bootJar)));
+                Object args = project.findProperty(TRAINING_ARGS_PROPERTY);
+                if (args != null) {
+                    command.addAll(Arrays.asList(args.toString().trim().split("\\s+")));
+                }
+                task.commandLine(command);
+            });
+            task.doLast(t -> writeStartScript(appDir.get().file("start.sh").getAsFile(), jarName(bootJar)));
+        });
+
+        project.getTasks().register("startupDistZip", Zip.class, task -> {
+            task.setGroup(GROUP);
+            task.setDescription("Packages the extracted application with its class cache");
+            task.dependsOn(training);
+            task.from(appDir);
+            task.getArchiveClassifier().set("startup");
+            task.getDestinationDirectory().set(project.getLayout().getBuildDirectory().dir("distributions"));
+        });
+    }
+
+    private static String jarName(Provider<RegularFile> bootJar) {
+        return bootJar.get().getAsFile().getName();
+    }
+
+    private static void writeStartScript(File script, String jarName) {
+        // Uses whichever cache the training run wrote; the JVM ignores a cache from another JDK or classpath
+        String content = """
+            #!/bin/sh
+            cd "$(dirname "$0")"
+            if [ -f app.aot ]; then CACHE=-XX:AOTCache=app.aot; else CACHE=-XX:SharedArchiveFile=app.jsa; fi
+            exec java $CACHE -Dspring.aot.enabled=true $JAVA_OPTS -jar %s "$@"
+            """.formatted(jarName);
+        try {
+            Files.writeString(script.toPath(), content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        script.setExecutable(true);
+    }
+}